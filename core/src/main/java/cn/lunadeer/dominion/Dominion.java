@@ -24,6 +24,7 @@ import cn.lunadeer.dominion.utils.PlayerSkinProfileFactory;
 import cn.lunadeer.dominion.utils.chestui.ChestUiManager;
 import cn.lunadeer.dominion.storage.DatabaseManager;
 import cn.lunadeer.dominion.storage.repository.PlayerRepository;
+import cn.lunadeer.dominion.storage.repository.WriteBehindQueue;
 import cn.lunadeer.dominion.utils.scheduler.Scheduler;
 import cn.lunadeer.dominion.utils.UiMode;
 import org.bukkit.Bukkit;
@@ -83,6 +84,7 @@ public final class Dominion extends JavaPlugin {
         new VaultConnect(this);
         new MultiServerManager(this);
         new TeleportManager(this);
+        new WriteBehindQueue().startFlushing();
         new CacheManager();
         new PlayerSkinRefreshManager();
         ChestUiManager.setHeadProfileProvider(PlayerSkinProfileFactory::create);
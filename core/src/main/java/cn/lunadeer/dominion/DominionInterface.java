@@ -10,6 +10,7 @@ import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
 import cn.lunadeer.dominion.cache.CacheManager;
 import cn.lunadeer.dominion.configuration.Configuration;
 import cn.lunadeer.dominion.configuration.FlagApplyCoordinator;
+import cn.lunadeer.dominion.events.EventsRegister;
 import cn.lunadeer.dominion.misc.Others;
 import cn.lunadeer.dominion.uis.DominionUi;
 import cn.lunadeer.dominion.utils.McaRecord;
@@ -175,6 +176,7 @@ public class DominionInterface extends DominionAPI {
     public void reloadConfig() throws Exception {
         Configuration.loadConfigurationAndDatabase(Bukkit.getConsoleSender());
         DominionUi.reload();
+        EventsRegister.instance.refresh();  // flags may have been enabled or disabled
     }
 
     @Override
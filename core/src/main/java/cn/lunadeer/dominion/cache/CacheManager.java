@@ -17,14 +17,18 @@ import cn.lunadeer.dominion.events.PlayerMoveInDominionEvent;
 import cn.lunadeer.dominion.events.PlayerMoveOutDominionEvent;
 import cn.lunadeer.dominion.handler.CacheEventHandler;
 import cn.lunadeer.dominion.misc.DominionException;
+import cn.lunadeer.dominion.storage.DatabaseManager;
 import cn.lunadeer.dominion.storage.repository.PlayerRepository;
 import cn.lunadeer.dominion.storage.repository.ServerRepository;
+import cn.lunadeer.dominion.storage.repository.UpdateLogRepository;
 import cn.lunadeer.dominion.utils.AutoTimer;
 import cn.lunadeer.dominion.utils.Notification;
 import cn.lunadeer.dominion.utils.XLogger;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
@@ -37,8 +41,6 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
-import static cn.lunadeer.dominion.misc.Others.isInDominion;
-
 /**
  * Manages the cache for the server and other servers.
  */
@@ -47,8 +49,10 @@ public class CacheManager {
     private final ConcurrentHashMap<Integer, ServerCache> otherServerCaches = new ConcurrentHashMap<>();
     private final PlayerCache playerCache;
     private final ResidenceDataCache residenceDataCache = new ResidenceDataCache();
+    private final PrivilegeCache privilegeCache = new PrivilegeCache();
+    private final PermissionCache permissionCache = new PermissionCache();
 
-    private final ConcurrentHashMap<UUID, Integer> playerCurrentDominionId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, DominionCache.Area> playerCurrentArea = new ConcurrentHashMap<>();
 
     public static CacheManager instance;
 
@@ -61,45 +65,58 @@ public class CacheManager {
         instance = this;
 
         this.playerCache = new PlayerCache();
-        this.playerCache.load();
-
         this.thisServerCache = new ServerCache(Configuration.multiServer.serverId);
-        this.thisServerCache.getDominionCache().load();
-        this.thisServerCache.getMemberCache().load();
-        this.thisServerCache.getGroupCache().load();
+
+        // Register the caches of other servers first, the member and group loading looks up their dominions
+        List<ServerCache> servers = new ArrayList<>();
+        servers.add(thisServerCache);
+        long consumedLogs = 0L;
+        if (Configuration.multiServer.enable) {
+            servers.addAll(addOtherServerCaches());
+            // Read before loading, the changes logged up to here are in the loaded caches
+            consumedLogs = latestUpdateLogId();
+        }
+        StartupCacheLoader.load(DatabaseManager.instance.getPoolSize(), playerCache, servers);
 
         Bukkit.getPluginManager().registerEvents(new CacheEventHandler(), Dominion.instance);
 
-        // Load caches for other servers and start cross-server sync
+        // Start cross-server sync
         if (Configuration.multiServer.enable) {
-            loadOtherServerCaches();
-            new CacheSyncManager();
+            new CacheSyncManager(consumedLogs);
             CacheSyncManager.instance.startPolling();
         }
     }
 
     /**
-     * Initialize caches for all other servers known in the database.
-     * Must be called AFTER this server's DominionCache is loaded (Member/Group loading
-     * depends on dominion lookups via CacheManager.getDominion()).
+     * Creates the caches of all other servers known in the database, they are loaded by {@link StartupCacheLoader}.
+     *
+     * @return the created caches
      */
-    private void loadOtherServerCaches() {
+    private List<ServerCache> addOtherServerCaches() {
+        List<ServerCache> caches = new ArrayList<>();
         try {
             List<Integer> serverIds = ServerRepository.getAllServerIds();
             for (Integer serverId : serverIds) {
                 if (serverId.equals(Configuration.multiServer.serverId)) continue;
                 addServerCache(serverId);
-                ServerCache serverCache = otherServerCaches.get(serverId);
-                if (serverCache != null) {
-                    serverCache.getDominionCache().load();
-                    serverCache.getMemberCache().load();
-                    serverCache.getGroupCache().load();
-                }
+                caches.add(otherServerCaches.get(serverId));
             }
         } catch (Exception e) {
             XLogger.error("Failed to load other server caches");
             XLogger.error(e);
         }
+        return caches;
+    }
+
+    private long latestUpdateLogId() {
+        try {
+            return UpdateLogRepository.selectLatestLogId();
+        } catch (Exception e) {
+            // Polling then starts from the first unacknowledged log
+            XLogger.error("Failed to read the latest cache update log");
+            XLogger.error(e);
+            return 0L;
+        }
     }
 
     // ******************************************************************************************************************
@@ -180,6 +197,24 @@ public class CacheManager {
         });
     }
 
+    /**
+     * Retrieves the PrivilegeCache instance.
+     *
+     * @return the PrivilegeCache instance
+     */
+    public PrivilegeCache getPrivilegeCache() {
+        return privilegeCache;
+    }
+
+    /**
+     * Retrieves the PermissionCache instance.
+     *
+     * @return the PermissionCache instance
+     */
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
     /**
      * Retrieves the PlayerCache instance.
      *
@@ -455,6 +490,52 @@ public class CacheManager {
         return thisServerCache.getDominionCache().getDominion(world, x, y, z);
     }
 
+    /**
+     * Retrieves the DominionDTOs of many blocks from this server's cache.
+     * <p>
+     * Prefer this over one {@link #getDominion(Location)} per block for the block lists of explosions or pistons,
+     * neighbouring blocks in the same dominion are resolved only once.
+     *
+     * @param blocks the blocks to retrieve the dominions for
+     * @return the dominion of each block by index, null for none
+     */
+    public DominionDTO[] getDominions(@NotNull List<Block> blocks) {
+        return getDominions(blocks, BlockFace.SELF);
+    }
+
+    /**
+     * Retrieves the DominionDTOs of the blocks next to many blocks from this server's cache.
+     *
+     * @param blocks the blocks to retrieve the dominions for
+     * @param face   the direction of the neighbour block to use instead of each block
+     * @return the dominion of the neighbour of each block by index, null for none
+     */
+    public DominionDTO[] getDominions(@NotNull List<Block> blocks, @NotNull BlockFace face) {
+        return thisServerCache.getDominionCache().getDominions(blocks, face);
+    }
+
+    /**
+     * Resolves an area of this server's cache that holds a whole box of blocks, see {@link DominionCache#resolveBox}.
+     *
+     * @param world the world UUID of the box
+     * @return the area containing the whole box, or null if the box crosses a dominion border
+     */
+    public @Nullable DominionCache.Area resolveBox(@NotNull UUID world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return thisServerCache.getDominionCache().resolveBox(world, minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Checks whether the chunk of a location holds no dominion of this server.
+     * <p>
+     * Costs a single bit test, use it to skip {@link #getDominion(Location)} in the wilderness.
+     *
+     * @param location the location to check
+     * @return true if no dominion intersects the chunk of the location
+     */
+    public boolean isDominionFreeChunk(Location location) {
+        return thisServerCache.getDominionCache().isDominionFreeChunk(location);
+    }
+
     /**
      * Retrieves the dominions owned by a player.
      * <p>
@@ -586,31 +667,38 @@ public class CacheManager {
     /**
      * Retrieves the current dominion of a player.
      * <p>
-     * This method retrieves the current dominion of the player based on their location. It checks if the player is still
-     * in the same dominion and if the dominion has no children. If the player has moved to a different dominion, it triggers
-     * the appropriate events and updates the player's current dominion ID.
+     * This method retrieves the current dominion of the player based on their location. The last resolved area of
+     * the player (a box of blocks that all belong to the same dominion, see {@link DominionCache#resolveArea}) is
+     * kept, so while the player moves inside it no lookup is needed. If the player has moved to a different dominion,
+     * it triggers the appropriate events and updates the player's current area.
      *
      * @param player the Player object representing the player
      * @return the DominionDTO associated with the player's current location, or null if not found
      */
     public @Nullable DominionDTO getPlayerCurrentDominion(@NotNull Player player) {
         try (AutoTimer ignored = new AutoTimer(Configuration.timer)) {
-            Integer last_in_dom_id = playerCurrentDominionId.get(player.getUniqueId());
-            DominionDTO last_dominion = null;
+            Location location = player.getLocation();
+            UUID world = location.getWorld().getUID();
+            int x = location.getBlockX(), y = location.getBlockY(), z = location.getBlockZ();
             DominionCache cache = thisServerCache.getDominionCache();
-            if (last_in_dom_id != null) {
-                last_dominion = cache.getDominion(last_in_dom_id);
-            }
 
-            // if player still in the same dominion, and the dominion has no children
+            // if player still in the area resolved last time, and no dominion changed since,
             // we don't need to check again and return the last dominion directly
-            if (isInDominion(last_dominion, player.getLocation())
-                    && cache.getChildrenOf(last_in_dom_id).isEmpty()) {
-                return last_dominion;
+            DominionCache.Area last_area = playerCurrentArea.get(player.getUniqueId());
+            if (last_area != null && last_area.version() == cache.getVersion() && last_area.contains(world, x, y, z)) {
+                return last_area.dominion();
+            }
+
+            DominionDTO last_dominion = null;
+            Integer last_in_dom_id = last_area == null || last_area.dominion() == null ? null : last_area.dominion().getId();
+            if (last_in_dom_id != null) {
+                last_dominion = cache.getDominion(last_in_dom_id);
             }
 
             // or get the current dominion
-            DominionDTO current_dominion = cache.getDominion(player.getLocation());
+            DominionCache.Area current_area = cache.resolveArea(world, x, y, z);
+            playerCurrentArea.put(player.getUniqueId(), current_area);
+            DominionDTO current_dominion = current_area.dominion();
             int last_dom_id = last_dominion == null ? -1 : last_dominion.getId();
             int current_dom_id = current_dominion == null ? -1 : current_dominion.getId();
 
@@ -620,9 +708,9 @@ public class CacheManager {
                 new PlayerMoveOutDominionEvent(player, null).call();
             }
 
-            // if last and current dominion are the same, return last dominion
+            // if last and current dominion are the same, return current dominion
             if (last_dom_id == current_dom_id) {
-                return last_dominion;
+                return current_dominion;
             }
 
             // if last and current dominion are different, trigger player cross dominion border event
@@ -636,14 +724,7 @@ public class CacheManager {
             if (current_dom_id != -1) {
                 new PlayerMoveInDominionEvent(player, current_dominion).call();
             }
-            // update player current dominion id
-            if (current_dominion == null) {
-                playerCurrentDominionId.remove(player.getUniqueId());
-                return null;
-            } else {
-                playerCurrentDominionId.put(player.getUniqueId(), current_dominion.getId());
-                return current_dominion;
-            }
+            return current_dominion;
         }
     }
 
@@ -655,7 +736,7 @@ public class CacheManager {
      * @param player the Player object representing the player
      */
     public void resetPlayerCurrentDominionId(@NotNull Player player) {
-        playerCurrentDominionId.remove(player.getUniqueId());
+        playerCurrentArea.remove(player.getUniqueId());
     }
 
     // ******************************************************************************************************************
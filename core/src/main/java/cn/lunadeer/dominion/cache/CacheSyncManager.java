@@ -6,10 +6,14 @@ import cn.lunadeer.dominion.storage.repository.UpdateLogRepository;
 import cn.lunadeer.dominion.utils.XLogger;
 import cn.lunadeer.dominion.utils.scheduler.Scheduler;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static cn.lunadeer.dominion.storage.DatabaseSchema.*;
 
@@ -18,7 +22,12 @@ import static cn.lunadeer.dominion.storage.DatabaseSchema.*;
  * <p>
  * When a server mutates a dominion, member, or group, it writes a notification into the
  * {@code cache_update_log} table and immediately self-consumes it. Other servers periodically
- * poll for unconsumed logs, apply the corresponding cache updates, and mark them as consumed.
+ * poll for unconsumed logs in pages after the greatest log id they consumed, apply the corresponding
+ * cache updates, and mark each page as consumed in one statement.
+ * <p>
+ * A log may commit after one with a greater id. The ids skipped below the greatest consumed id, other than
+ * those of the logs this server wrote itself, are remembered, and the polling starts from the lowest of them until it shows up or is older than
+ * the logs are kept.
  * Once all servers have consumed a log (or the log has expired), it is cleaned up.
  */
 public class CacheSyncManager {
@@ -27,12 +36,31 @@ public class CacheSyncManager {
 
     static final long POLL_INTERVAL_TICKS = 100L;  // 5 seconds
     static final int LOG_MAX_AGE_MINUTES = 60;      // clean up logs older than 1 hour
+    static final int PAGE_SIZE = 500;               // logs fetched per query
+    static final int MAX_PAGES_PER_CYCLE = 10;      // the rest is left to the next cycle
+
+    private record Gap(long from, long to, long seenAt) {  // log ids, inclusive
+    }
 
     private final int myServerId;
+    // the greatest log id consumed by this server
+    private volatile long consumedUpTo;
+    // the ids skipped below consumedUpTo, by their first id, only accessed by the poll cycle
+    private final TreeMap<Long, Gap> gaps = new TreeMap<>();
+    // the logs written by this server, which the query never returns, so the mark is moved over them
+    private final Queue<Long> ownLogs = new ConcurrentLinkedQueue<>();
 
     public CacheSyncManager() {
+        this(0L);
+    }
+
+    /**
+     * @param consumedUpTo the latest log id when the caches were loaded, older logs are already in the caches
+     */
+    public CacheSyncManager(long consumedUpTo) {
         instance = this;
         this.myServerId = Configuration.multiServer.serverId;
+        this.consumedUpTo = consumedUpTo;
     }
 
     // ============================================================
@@ -66,7 +94,10 @@ public class CacheSyncManager {
     private void notify(String entityType, int targetId, String action) {
         Scheduler.runTaskAsync(() -> {
             try {
-                UpdateLogRepository.insertLog(entityType, targetId, myServerId, action);
+                long logId = UpdateLogRepository.insertLog(entityType, targetId, myServerId, action);
+                if (logId > 0) {
+                    ownLogWritten(logId);
+                }
             } catch (Exception e) {
                 XLogger.error("Failed to write cache update log: type={0} id={1} action={2}", entityType, targetId, action);
                 XLogger.error(e);
@@ -86,17 +117,34 @@ public class CacheSyncManager {
         Scheduler.runTaskRepeatAsync(this::pollCycle, POLL_INTERVAL_TICKS, POLL_INTERVAL_TICKS);
     }
 
-    void pollCycle() {
+    synchronized void pollCycle() {
         try {
-            List<Map<String, Object>> logs = UpdateLogRepository.selectUnconsumed(myServerId);
-            if (logs.isEmpty()) {
-                cleanupOwnLogs();
-                return;
+            long now = System.currentTimeMillis();
+            // a skipped id older than the logs kept was rolled back or cleaned up, it never shows up
+            gaps.values().removeIf(gap -> gap.seenAt() < now - LOG_MAX_AGE_MINUTES * 60_000L);
+            for (Long logId; (logId = ownLogs.poll()) != null; ) {
+                markConsumed(logId, now);
             }
+            // the acknowledged logs after the lowest skipped id are filtered out by the query
+            long after = gaps.isEmpty() ? consumedUpTo : gaps.firstKey() - 1;
+            for (int page = 0; page < MAX_PAGES_PER_CYCLE; page++) {
+                List<Map<String, Object>> logs = UpdateLogRepository.selectUnconsumed(myServerId, after, PAGE_SIZE);
+                if (logs.isEmpty()) break;
+
+                XLogger.debug("Cache sync: processing {0} unconsumed log(s)", logs.size());
+                List<Long> consumed = new ArrayList<>(logs.size());
+                for (Map<String, Object> log : logs) {
+                    Long logId = processLog(log);
+                    if (logId != null) consumed.add(logId);
+                }
 
-            XLogger.debug("Cache sync: processing {0} unconsumed log(s)", logs.size());
-            for (Map<String, Object> log : logs) {
-                processLog(log);
+                // Mark the page as consumed, if this fails the page is fetched again next cycle
+                UpdateLogRepository.insertAcks(consumed, myServerId);
+                for (Long logId : consumed) {
+                    markConsumed(logId, now);
+                    after = Math.max(after, logId);
+                }
+                if (logs.size() < PAGE_SIZE) break;
             }
 
             cleanupOwnLogs();
@@ -106,20 +154,61 @@ public class CacheSyncManager {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void processLog(Map<String, Object> log) {
+    /**
+     * Records a log written by this server, it is never polled and must not be taken for a skipped id.
+     */
+    void ownLogWritten(long logId) {
+        ownLogs.add(logId);
+    }
+
+    long getConsumedUpTo() {
+        return consumedUpTo;
+    }
+
+    /**
+     * Moves the mark past a consumed log, remembering the ids it skips, or fills the skipped id it was.
+     * The logs of a page come in id order.
+     */
+    private void markConsumed(long logId, long now) {
+        if (logId > consumedUpTo) {
+            if (logId > consumedUpTo + 1) {
+                gaps.put(consumedUpTo + 1, new Gap(consumedUpTo + 1, logId - 1, now));
+            }
+            consumedUpTo = logId;
+            return;
+        }
+        Map.Entry<Long, Gap> entry = gaps.floorEntry(logId);
+        if (entry == null || entry.getValue().to() < logId) return;
+        Gap gap = gaps.remove(entry.getKey());
+        if (gap.from() < logId) {
+            gaps.put(gap.from(), new Gap(gap.from(), logId - 1, gap.seenAt()));
+        }
+        if (logId < gap.to()) {
+            gaps.put(logId + 1, new Gap(logId + 1, gap.to(), gap.seenAt()));
+        }
+    }
+
+    /**
+     * Applies a log to the cache of its producer.
+     *
+     * @return the id of the log to acknowledge, null if it has none
+     */
+    private Long processLog(Map<String, Object> log) {
         Long logId = toLong(log.get(CUL_ID));
         String entityType = String.valueOf(log.get(CUL_ENTITY_TYPE));
         int targetId = toInt(log.get(CUL_TARGET_ID));
         int producerServerId = toInt(log.get(CUL_SERVER_ID));
         String action = String.valueOf(log.getOrDefault(CUL_ACTION, "UPSERT"));
 
-        if (logId == null) return;
+        if (logId == null) return null;
 
         ServerCache serverCache = CacheManager.instance.getCache(producerServerId);
         if (serverCache == null) {
-            // Server cache not yet initialized — skip and try next cycle
-            return;
+            // A server started after this one, load its whole cache instead of this single change
+            XLogger.debug("Cache sync: registering cache of new server {0}", producerServerId);
+            CacheManager.instance.addServerCache(producerServerId);
+            CacheManager.instance.reloadServerCache(producerServerId);
+            return logId;
         }
 
         try {
@@ -128,14 +217,7 @@ public class CacheSyncManager {
             XLogger.error("Failed to apply cache update: logId={0} type={1} id={2}", logId, entityType, targetId);
             XLogger.error(e);
         }
-
-        // Mark as consumed
-        try {
-            ackLog(logId);
-        } catch (Exception e) {
-            XLogger.error("Failed to ack cache update log: {0}", logId);
-            XLogger.error(e);
-        }
+        return logId;
     }
 
     private void applyUpdate(ServerCache cache, String entityType, int targetId, String action) {
@@ -164,10 +246,6 @@ public class CacheSyncManager {
         }
     }
 
-    private void ackLog(long logId) throws Exception {
-        UpdateLogRepository.insertAck(logId, myServerId);
-    }
-
     // ============================================================
     // Cleanup
     // ============================================================
@@ -0,0 +1,128 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.utils.LongObjectHashMap;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A compact set of the chunks of one world that intersect at least one dominion.
+ * <p>
+ * Chunks are grouped in regions of 64x64 chunks, each region that holds a dominion is a
+ * {@code long[64]} bitmap (one word per chunk x, one bit per chunk z), so wilderness costs no
+ * memory and a lookup is one hash probe plus one bit test. Dominions covering more than
+ * {@link #MAX_CHUNKS_PER_NODE} chunks are kept as chunk rectangles instead of bits.
+ * <p>
+ * Instances are immutable, {@link #with(DominionNode)} returns a copy. Bits are never cleared
+ * when a dominion is removed, a set bit only means the chunk MAY hold a dominion and the caller
+ * then does the full lookup; stale bits are dropped by the next full build.
+ */
+public final class ChunkBitmap {
+    static final int MAX_CHUNKS_PER_NODE = 1 << 16;
+    private static final int REGION_SHIFT = 6;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+
+    public static final ChunkBitmap EMPTY = new ChunkBitmap(new LongObjectHashMap<>(), new int[0]);
+
+    private final LongObjectHashMap<long[]> regions;  // packed region coordinate -> 64x64 chunk bits
+    private final int[] large;                        // minChunkX, minChunkZ, maxChunkX, maxChunkZ (inclusive) per huge dominion
+
+    @FunctionalInterface
+    private interface RegionSupplier {
+        long[] words(long regionKey);
+    }
+
+    private ChunkBitmap(LongObjectHashMap<long[]> regions, int[] large) {
+        this.regions = regions;
+        this.large = large;
+    }
+
+    /**
+     * Builds the bitmap of the chunks covered by the given nodes.
+     *
+     * @param nodes the top-level DominionNodes of one world
+     * @return the bitmap
+     */
+    public static ChunkBitmap of(Collection<DominionNode> nodes) {
+        LongObjectHashMap<long[]> regions = new LongObjectHashMap<>();
+        int[] large = new int[0];
+        RegionSupplier supplier = regionKey -> {
+            long[] words = regions.get(regionKey);
+            if (words == null) {
+                words = new long[1 << REGION_SHIFT];
+                regions.put(regionKey, words);
+            }
+            return words;
+        };
+        for (DominionNode node : nodes) {
+            large = mark(node, large, supplier);
+        }
+        return new ChunkBitmap(regions, large);
+    }
+
+    /**
+     * Returns a copy of this bitmap that also covers the chunks of the node.
+     *
+     * @param node the DominionNode to add
+     * @return the new bitmap, this one is left unchanged
+     */
+    public ChunkBitmap with(DominionNode node) {
+        LongObjectHashMap<long[]> copy = new LongObjectHashMap<>(regions);
+        LongObjectHashMap<long[]> touched = new LongObjectHashMap<>();
+        int[] newLarge = mark(node, large, regionKey -> {
+            long[] words = touched.get(regionKey);
+            if (words == null) {
+                long[] old = regions.get(regionKey);
+                words = old == null ? new long[1 << REGION_SHIFT] : old.clone();
+                touched.put(regionKey, words);
+                copy.put(regionKey, words);
+            }
+            return words;
+        });
+        return new ChunkBitmap(copy, newLarge);
+    }
+
+    /**
+     * Checks whether a chunk may intersect a dominion.
+     *
+     * @param chunkX the chunk x-coordinate
+     * @param chunkZ the chunk z-coordinate
+     * @return false if no dominion intersects the chunk
+     */
+    public boolean mayContain(int chunkX, int chunkZ) {
+        long[] words = regions.get(DominionNodeGrid.cellKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT));
+        if (words != null && (words[chunkX & REGION_MASK] >>> (chunkZ & REGION_MASK) & 1L) != 0) {
+            return true;
+        }
+        for (int i = 0; i < large.length; i += 4) {
+            if (chunkX >= large[i] && chunkZ >= large[i + 1] && chunkX <= large[i + 2] && chunkZ <= large[i + 3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] mark(DominionNode node, int[] large, RegionSupplier supplier) {
+        // x2/z2 are exclusive
+        int minX = node.x1() >> 4, maxX = (node.x2() - 1) >> 4;
+        int minZ = node.z1() >> 4, maxZ = (node.z2() - 1) >> 4;
+        if (maxX < minX || maxZ < minZ) {
+            return large;
+        }
+        if (((long) maxX - minX + 1) * ((long) maxZ - minZ + 1) > MAX_CHUNKS_PER_NODE) {
+            int[] result = Arrays.copyOf(large, large.length + 4);
+            result[large.length] = minX;
+            result[large.length + 1] = minZ;
+            result[large.length + 2] = maxX;
+            result[large.length + 3] = maxZ;
+            return result;
+        }
+        for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+            for (int chunkZ = minZ; chunkZ <= maxZ; chunkZ++) {
+                long[] words = supplier.words(DominionNodeGrid.cellKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT));
+                words[chunkX & REGION_MASK] |= 1L << (chunkZ & REGION_MASK);
+            }
+        }
+        return large;
+    }
+}
@@ -1,29 +1,115 @@
 package cn.lunadeer.dominion.cache;
 
+import cn.lunadeer.dominion.api.dtos.CuboidDTO;
 import cn.lunadeer.dominion.api.dtos.DominionDTO;
 import cn.lunadeer.dominion.configuration.Language;
 import cn.lunadeer.dominion.misc.DominionException;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Objects;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
-import static cn.lunadeer.dominion.misc.Others.isInDominion;
-
 /**
  * The DominionNode class represents a node in the dominion tree structure.
  * <p>
- * DominionNode not store the dominion data, only the id of the dominion.
+ * DominionNode not store the dominion data, only the id of the dominion, its world and a copy of
+ * its cuboid bounds. The bounds are kept inline so that resolving a location never needs to fetch
+ * the DominionDTO of the nodes it passes through.
  */
 public class DominionNode {
+    /**
+     * Nodes with at least this many children sort them by x1 for a sweep search,
+     * smaller nodes just test every child.
+     */
+    static final int SWEEP_THRESHOLD = 8;
+
+    private static final int X1 = 0, Y1 = 1, Z1 = 2, X2 = 3, Y2 = 4, Z2 = 5;
+
     private final Integer dominionId;
+    private final UUID world;
+    private final int[] bounds;     // x1, y1, z1, x2, y2, z2 (x2, y2, z2 exclusive, same as CuboidDTO)
     private CopyOnWriteArrayList<DominionNode> children = new CopyOnWriteArrayList<>();
+    private volatile ChildIndex childIndex = ChildIndex.EMPTY;
+    private volatile boolean fullHeight = false;
+
+    /**
+     * The children of a node, sorted by x1 when there are enough of them for a sweep to pay off.
+     *
+     * @param nodes    the children, sorted by x1 if {@code maxX2} is not null
+     * @param maxX2    maxX2[i] is the largest x2 among nodes[0..i], lets the sweep stop early (null if unsorted)
+     */
+    private record ChildIndex(DominionNode[] nodes, int[] maxX2) {
+        private static final ChildIndex EMPTY = new ChildIndex(new DominionNode[0], null);
 
-    public DominionNode(Integer dominionId) {
-        this.dominionId = dominionId;
+        private static ChildIndex of(CopyOnWriteArrayList<DominionNode> children) {
+            DominionNode[] nodes = children.toArray(new DominionNode[0]);
+            if (nodes.length < SWEEP_THRESHOLD) {
+                return new ChildIndex(nodes, null);
+            }
+            Arrays.sort(nodes, Comparator.comparingInt(node -> node.bounds[X1]));
+            int[] maxX2 = new int[nodes.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < nodes.length; i++) {
+                max = Math.max(max, nodes[i].bounds[X2]);
+                maxX2[i] = max;
+            }
+            return new ChildIndex(nodes, maxX2);
+        }
+
+        private @Nullable DominionNode find(UUID world, int x, int y, int z) {
+            if (maxX2 == null) {
+                for (DominionNode node : nodes) {
+                    if (node.contains(world, x, y, z)) return node;
+                }
+                return null;
+            }
+            // last child whose x1 <= x, then walk back while some earlier child may still reach x
+            int low = 0, high = nodes.length - 1, last = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (nodes[mid].bounds[X1] <= x) {
+                    last = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            for (int i = last; i >= 0 && maxX2[i] > x; i--) {
+                if (nodes[i].contains(world, x, y, z)) return nodes[i];
+            }
+            return null;
+        }
+    }
+
+    public DominionNode(@NotNull DominionDTO dominion) {
+        this.dominionId = dominion.getId();
+        this.world = dominion.getWorldUid();
+        CuboidDTO cuboid = dominion.getCuboid();
+        this.bounds = new int[]{cuboid.x1(), cuboid.y1(), cuboid.z1(), cuboid.x2(), cuboid.y2(), cuboid.z2()};
+    }
+
+    private DominionNode(@NotNull DominionNode node) {
+        this.dominionId = node.dominionId;
+        this.world = node.world;
+        this.bounds = node.bounds;
+        this.children = new CopyOnWriteArrayList<>(node.children);
+        this.childIndex = node.childIndex;
+        this.fullHeight = node.fullHeight;
+    }
+
+    /**
+     * Copies this node to change its children without affecting this one, the children themselves are shared.
+     *
+     * @return a node of the same dominion, bounds and height mark, with its own children list
+     */
+    public @NotNull DominionNode copy() {
+        return new DominionNode(this);
     }
 
     /**
@@ -59,6 +145,136 @@ public class DominionNode {
         return dominionId;
     }
 
+    /**
+     * Gets the UUID of the world the dominion of this node is in.
+     *
+     * @return the world UUID
+     */
+    public @NotNull UUID getWorldUid() {
+        return world;
+    }
+
+    public int x1() {
+        return bounds[X1];
+    }
+
+    public int y1() {
+        return bounds[Y1];
+    }
+
+    public int z1() {
+        return bounds[Z1];
+    }
+
+    public int x2() {
+        return bounds[X2];
+    }
+
+    public int y2() {
+        return bounds[Y2];
+    }
+
+    public int z2() {
+        return bounds[Z2];
+    }
+
+    /**
+     * Checks whether the block is inside the bounds of this node, same as {@link CuboidDTO#contain(int, int, int)}.
+     *
+     * @param world the world UUID to check
+     * @param x     the block x-coordinate
+     * @param y     the block y-coordinate
+     * @param z     the block z-coordinate
+     * @return true if the block is inside this node
+     */
+    public boolean contains(@NotNull UUID world, int x, int y, int z) {
+        int[] b = bounds;
+        return x >= b[X1] && x < b[X2]
+                && z >= b[Z1] && z < b[Z2]
+                && y >= b[Y1] && y < b[Y2]
+                && this.world.equals(world);
+    }
+
+    /**
+     * Checks whether the dominion of this node spans the full height of its world.
+     * <p>
+     * Only meaningful after the node was marked, by the index build or when it was added to the cache.
+     *
+     * @return true if the cuboid covers the world from min to max height
+     */
+    public boolean isFullHeight() {
+        return fullHeight;
+    }
+
+    /**
+     * Marks every node of this subtree whose cuboid covers the full height of its world.
+     * <p>
+     * Nodes whose world is not loaded are left unmarked, they simply resolve per block.
+     */
+    public void markFullHeight() {
+        markFullHeight(getDominion().getWorld());
+        children.forEach(DominionNode::markFullHeight);
+    }
+
+    /**
+     * Marks this node only, from the dominion it was created from, without looking the dominion up.
+     * <p>
+     * For a node added to the cache incrementally: its dominion is not published yet, and its children, if
+     * any, were marked when they were added.
+     *
+     * @param dominion the dominion of this node
+     */
+    public void markFullHeight(@NotNull DominionDTO dominion) {
+        markFullHeight(dominion.getWorld());
+    }
+
+    private void markFullHeight(@Nullable World bukkitWorld) {
+        fullHeight = bukkitWorld != null
+                && bounds[Y1] <= bukkitWorld.getMinHeight()
+                && bounds[Y2] >= bukkitWorld.getMaxHeight();
+    }
+
+    /**
+     * Checks whether the (x, z) column crosses the cuboid of this node, at any height.
+     *
+     * @param x the block x-coordinate
+     * @param z the block z-coordinate
+     * @return true if the footprint of the cuboid contains the column
+     */
+    public boolean containsColumn(int x, int z) {
+        int[] b = bounds;
+        return x >= b[X1] && x < b[X2] && z >= b[Z1] && z < b[Z2];
+    }
+
+    /**
+     * Checks whether every block of the (x, z) column resolves to this node.
+     * <p>
+     * True when this node spans the full world height and none of its children crosses the column,
+     * the caller must already know that this node is the deepest node of one block of the column.
+     *
+     * @param x the block x-coordinate
+     * @param z the block z-coordinate
+     * @return true if the result can be cached for the whole column
+     */
+    public boolean ownsColumn(int x, int z) {
+        if (!fullHeight) {
+            return false;
+        }
+        for (DominionNode child : childIndex.nodes) {
+            if (child.containsColumn(x, z)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Re-creates the search index of the children, must be called after {@link #getChildren()} is modified.
+     */
+    public void indexChildren() {
+        childIndex = ChildIndex.of(children);
+    }
+
     /**
      * Builds a dominion node tree from a list of DominionDTOs.
      *
@@ -90,8 +306,9 @@ public class DominionNode {
 
         if (children != null) {
             for (DominionDTO dominion : children) {
-                DominionNode node = new DominionNode(dominion.getId());
+                DominionNode node = new DominionNode(dominion);
                 node.children = buildTree(dominion.getId(), parentToChildrenMap);
+                node.indexChildren();
                 dominionTree.add(node);
             }
         }
@@ -126,15 +343,30 @@ public class DominionNode {
                                                          int y,
                                                          int z) {
         for (DominionNode node : nodes) {
-            if (isInDominion(node.getDominion(), world, x, y, z)) {
-                if (node.children.isEmpty()) {
-                    return node;
-                } else {
-                    DominionNode childDominion = getDominionNodeByLocation(node.children, world, x, y, z);
-                    return Objects.requireNonNullElse(childDominion, node);
-                }
+            if (node.contains(world, x, y, z)) {
+                return node.getDeepestNodeAt(world, x, y, z);
             }
         }
         return null;
     }
+
+    /**
+     * Gets the deepest node of this subtree that contains the specified block coordinate.
+     * <p>
+     * The caller must already know that this node contains the coordinate.
+     *
+     * @param world the world UUID to check
+     * @param x     the block x-coordinate
+     * @param y     the block y-coordinate
+     * @param z     the block z-coordinate
+     * @return this node or one of its descendants
+     */
+    public @NotNull DominionNode getDeepestNodeAt(@NotNull UUID world, int x, int y, int z) {
+        DominionNode node = this;
+        DominionNode child;
+        while ((child = node.childIndex.find(world, x, y, z)) != null) {
+            node = child;
+        }
+        return node;
+    }
 }
@@ -0,0 +1,299 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.configuration.Configuration;
+import cn.lunadeer.dominion.utils.AutoTimer;
+import cn.lunadeer.dominion.utils.LongObjectHashMap;
+import cn.lunadeer.dominion.utils.XLogger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The DominionNodeGrid class indexes the top-level dominion nodes of each world by grid cell.
+ * <p>
+ * Every cell (by default one chunk, 16x16 blocks) maps to the few nodes whose cuboid overlaps it,
+ * so a lookup only tests those nodes instead of scanning a whole world quadrant like
+ * {@link DominionNodeSectored}. Dominions that would span more than {@link #MAX_CELLS_PER_NODE}
+ * cells are kept in a small per-world list that is tested after the cell, this keeps the memory
+ * of the grid bounded for huge (e.g. server-wide) dominions.
+ * <p>
+ * Single nodes can be inserted or removed after the build, only the cells under the node are
+ * rewritten and only the cached results under it are dropped.
+ */
+public class DominionNodeGrid implements DominionNodeIndex {
+
+    static final int MAX_CELLS_PER_NODE = 4096;
+    private static final int NO_DOMINION_ID = Integer.MIN_VALUE;
+    private static final int LOCATION_CACHE_MAX_SIZE = 65536;
+    private static final DominionNode[] EMPTY = new DominionNode[0];
+    private static final WorldGrid EMPTY_GRID = new WorldGrid(new LongObjectHashMap<>(), EMPTY, ChunkBitmap.EMPTY);
+
+    private final int cellShift;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), new LocationCache(LOCATION_CACHE_MAX_SIZE));
+
+    /**
+     * @param cells     packed cell coordinate -> the nodes overlapping the cell
+     * @param oversized the nodes too large to be stored per cell
+     * @param chunks    the chunks that may hold a dominion, tested before anything else
+     */
+    private record WorldGrid(LongObjectHashMap<DominionNode[]> cells,
+                             DominionNode[] oversized,
+                             ChunkBitmap chunks) {
+    }
+
+    private record Snapshot(Map<UUID, WorldGrid> worlds, LocationCache locationCache) {
+    }
+
+    /**
+     * @param cellSize the edge length of a cell in blocks, rounded up to a power of two (minimum 16)
+     */
+    public DominionNodeGrid(int cellSize) {
+        this.cellShift = cellShift(cellSize);
+    }
+
+    /**
+     * Converts a cell size in blocks to the shift used to turn block coordinates into cell coordinates.
+     *
+     * @param cellSize the cell size in blocks
+     * @return the shift, at least 4 (one chunk)
+     */
+    public static int cellShift(int cellSize) {
+        int size = Math.max(cellSize, 16);
+        return 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    /**
+     * Packs two cell coordinates into one long key.
+     *
+     * @param cellX the cell x-coordinate
+     * @param cellZ the cell z-coordinate
+     * @return the packed key
+     */
+    public static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public DominionDTO getDominionByLocation(@NotNull UUID world, int x, int y, int z) {
+        try (AutoTimer ignored = new AutoTimer(Configuration.timer)) {
+            Snapshot current = snapshot;
+            WorldGrid grid = current.worlds.get(world);
+            if (grid == null || !grid.chunks.mayContain(x >> 4, z >> 4)) {
+                return null;  // wilderness, not worth a cache entry
+            }
+            LocationCache locationCache = current.locationCache;
+            // full-height results are cached per (x, z) column, so they hit for every y of the world
+            int cachedDominionId = locationCache.getColumn(world, x, z);
+            if (cachedDominionId != LocationCache.MISS) {
+                if (cachedDominionId == NO_DOMINION_ID) return null;
+                DominionDTO dominion = CacheManager.instance.getDominion(cachedDominionId);
+                // y beyond the world height is outside the dominion, resolve it per block
+                if (dominion != null && dominion.getCuboid().contain(x, y, z)) return dominion;
+            }
+            cachedDominionId = locationCache.get(world, x, y, z);
+            if (cachedDominionId != LocationCache.MISS) {
+                return cachedDominionId == NO_DOMINION_ID ? null : CacheManager.instance.getDominion(cachedDominionId);
+            }
+
+            // the epoch is read before the snapshot the result is computed from, so an insert or remove published
+            // in between invalidates the entry; if the snapshot carries a new cache the entry goes to the old one
+            int epoch = locationCache.epoch();
+            current = snapshot;
+            grid = current.worlds.get(world);
+            if (grid == null) {
+                return null;
+            }
+            DominionNode[] cell = cellAt(grid, x, z);
+            DominionNode node = getDominionNodeByLocation(grid, cell, world, x, y, z);
+            int dominionId = node == null ? NO_DOMINION_ID : node.getDominionId();
+            if (node == null ? !crossesColumn(grid, cell, x, z) : node.ownsColumn(x, z)) {
+                locationCache.putColumn(world, x, z, dominionId, epoch);
+            } else {
+                locationCache.put(world, x, y, z, dominionId, epoch);
+            }
+            return dominionId == NO_DOMINION_ID ? null : CacheManager.instance.getDominion(dominionId);
+        }
+    }
+
+    private DominionNode[] cellAt(WorldGrid grid, int x, int z) {
+        DominionNode[] cell = grid.cells.get(cellKey(x >> cellShift, z >> cellShift));
+        return cell == null ? EMPTY : cell;
+    }
+
+    private static @Nullable DominionNode getDominionNodeByLocation(WorldGrid grid, DominionNode[] cell, UUID world, int x, int y, int z) {
+        DominionNode found = findIn(cell, world, x, y, z);
+        if (found == null) {
+            found = findIn(grid.oversized, world, x, y, z);
+        }
+        return found;
+    }
+
+    private static boolean crossesColumn(WorldGrid grid, DominionNode[] cell, int x, int z) {
+        for (DominionNode node : cell) {
+            if (node.containsColumn(x, z)) return true;
+        }
+        for (DominionNode node : grid.oversized) {
+            if (node.containsColumn(x, z)) return true;
+        }
+        return false;
+    }
+
+    private static DominionNode findIn(DominionNode[] nodes, UUID world, int x, int y, int z) {
+        for (DominionNode node : nodes) {
+            if (node.contains(world, x, y, z)) {
+                return node.getDeepestNodeAt(world, x, y, z);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void clearLocationCache() {
+        snapshot.locationCache.clear();
+    }
+
+    @Override
+    public boolean isChunkFree(@NotNull UUID world, int chunkX, int chunkZ) {
+        WorldGrid grid = snapshot.worlds.get(world);
+        return grid == null || !grid.chunks.mayContain(chunkX, chunkZ);
+    }
+
+    @Override
+    public void invalidate(@NotNull UUID world, int x1, int z1, int x2, int z2) {
+        snapshot.locationCache.invalidate(world, x1, z1, x2, z2);
+    }
+
+    @Override
+    public synchronized void insert(@NotNull DominionNode node) {
+        Snapshot current = snapshot;
+        WorldGrid grid = current.worlds.getOrDefault(node.getWorldUid(), EMPTY_GRID);
+        LongObjectHashMap<DominionNode[]> cells = new LongObjectHashMap<>(grid.cells);
+        DominionNode[] oversized = grid.oversized;
+        if (!forEachCell(node, cellKey -> {
+            DominionNode[] cell = cells.get(cellKey);
+            cells.put(cellKey, cell == null ? new DominionNode[]{node} : append(cell, node));
+        })) {
+            oversized = append(oversized, node);
+        }
+        publish(current, node.getWorldUid(), new WorldGrid(cells, oversized, grid.chunks.with(node)));
+        invalidate(node);
+    }
+
+    @Override
+    public synchronized void remove(@NotNull DominionNode node) {
+        Snapshot current = snapshot;
+        WorldGrid grid = current.worlds.get(node.getWorldUid());
+        if (grid == null) {
+            return;
+        }
+        LongObjectHashMap<DominionNode[]> cells = new LongObjectHashMap<>(grid.cells);
+        DominionNode[] oversized = grid.oversized;
+        if (!forEachCell(node, cellKey -> {
+            DominionNode[] cell = cells.get(cellKey);
+            if (cell == null) return;
+            DominionNode[] remaining = without(cell, node);
+            if (remaining.length == 0) {
+                cells.remove(cellKey);
+            } else {
+                cells.put(cellKey, remaining);
+            }
+        })) {
+            oversized = without(oversized, node);
+        }
+        // the chunk bits are kept, a stale bit only costs a full lookup until the next build
+        publish(current, node.getWorldUid(), new WorldGrid(cells, oversized, grid.chunks));
+        invalidate(node);
+    }
+
+    private void invalidate(DominionNode node) {
+        invalidate(node.getWorldUid(), node.x1(), node.z1(), node.x2(), node.z2());
+    }
+
+    private void publish(Snapshot current, UUID world, WorldGrid grid) {
+        Map<UUID, WorldGrid> worlds = new HashMap<>(current.worlds);
+        worlds.put(world, grid);
+        snapshot = new Snapshot(Map.copyOf(worlds), current.locationCache);
+    }
+
+    @Override
+    public CompletableFuture<Void> buildAsync(CopyOnWriteArrayList<DominionNode> nodes) {
+        return CompletableFuture.runAsync(() -> {
+            try (AutoTimer ignored = new AutoTimer(Configuration.timer)) {
+                Map<UUID, List<DominionNode>> nodesByWorld = new HashMap<>();
+                for (DominionNode node : nodes) {
+                    node.markFullHeight();
+                    nodesByWorld.computeIfAbsent(node.getWorldUid(), k -> new ArrayList<>()).add(node);
+                }
+                Map<UUID, WorldGrid> worlds = new HashMap<>();
+                nodesByWorld.forEach((world, worldNodes) -> worlds.put(world, buildWorld(worldNodes)));
+                // Atomically publish the new grid
+                synchronized (this) {
+                    snapshot = new Snapshot(Map.copyOf(worlds), new LocationCache(LOCATION_CACHE_MAX_SIZE));
+                }
+            }
+        }, ForkJoinPool.commonPool());
+    }
+
+    private WorldGrid buildWorld(List<DominionNode> worldNodes) {
+        LongObjectHashMap<DominionNode[]> cells = new LongObjectHashMap<>(worldNodes.size() * 4);
+        DominionNode[] oversized = EMPTY;
+        for (DominionNode node : worldNodes) {
+            if (!forEachCell(node, cellKey -> {
+                DominionNode[] cell = cells.get(cellKey);
+                cells.put(cellKey, cell == null ? new DominionNode[]{node} : append(cell, node));
+            })) {
+                oversized = append(oversized, node);
+            }
+        }
+        XLogger.debug("Cache grid built: {0} nodes, {1} cells, {2} oversized.", worldNodes.size(), cells.size(), oversized.length);
+        return new WorldGrid(cells, oversized, ChunkBitmap.of(worldNodes));
+    }
+
+    /**
+     * Calls the action for every cell covered by the node.
+     *
+     * @return false if the node spans more than {@link #MAX_CELLS_PER_NODE} cells, the action is then not called
+     */
+    private boolean forEachCell(DominionNode node, CellAction action) {
+        // x2/z2 are treated inclusively so the covered cells are a superset of the cuboid
+        int minCellX = node.x1() >> cellShift, maxCellX = node.x2() >> cellShift;
+        int minCellZ = node.z1() >> cellShift, maxCellZ = node.z2() >> cellShift;
+        long cellCount = ((long) maxCellX - minCellX + 1) * ((long) maxCellZ - minCellZ + 1);
+        if (cellCount > MAX_CELLS_PER_NODE) {
+            return false;
+        }
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                action.accept(cellKey(cellX, cellZ));
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface CellAction {
+        void accept(long cellKey);
+    }
+
+    private static DominionNode[] append(DominionNode[] array, DominionNode node) {
+        DominionNode[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = node;
+        return result;
+    }
+
+    private static DominionNode[] without(DominionNode[] array, DominionNode node) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != node) continue;
+            DominionNode[] result = new DominionNode[array.length - 1];
+            System.arraycopy(array, 0, result, 0, i);
+            System.arraycopy(array, i + 1, result, i, array.length - i - 1);
+            return result;
+        }
+        return array;
+    }
+}
@@ -0,0 +1,123 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.configuration.Configuration;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A location index over the top-level dominion nodes of one server.
+ * <p>
+ * Implementations resolve a block coordinate to the deepest dominion containing it.
+ * The implementation in use is selected by {@link Configuration.SpatialIndex#mode}.
+ */
+public interface DominionNodeIndex {
+
+    /**
+     * Creates the index implementation configured in {@link Configuration#spatialIndex}.
+     *
+     * @return a new, empty index
+     */
+    static @NotNull DominionNodeIndex create() {
+        if (Configuration.spatialIndex.mode.equalsIgnoreCase("SECTORED")) {
+            return new DominionNodeSectored();
+        }
+        return new DominionNodeGrid(Configuration.spatialIndex.cellSize);
+    }
+
+    /**
+     * Gets the DominionDTO for a given location.
+     *
+     * @param loc the location to check
+     * @return the DominionDTO if found, otherwise null
+     */
+    default DominionDTO getDominionByLocation(@NotNull Location loc) {
+        return getDominionByLocation(loc.getWorld(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+    }
+
+    /**
+     * Gets the DominionDTO for a given block coordinate.
+     *
+     * @param world the world to check
+     * @param x     the block x-coordinate
+     * @param y     the block y-coordinate
+     * @param z     the block z-coordinate
+     * @return the DominionDTO if found, otherwise null
+     */
+    default DominionDTO getDominionByLocation(@NotNull World world, int x, int y, int z) {
+        return getDominionByLocation(world.getUID(), x, y, z);
+    }
+
+    /**
+     * Gets the DominionDTO for a given block coordinate.
+     *
+     * @param world the world UUID to check
+     * @param x     the block x-coordinate
+     * @param y     the block y-coordinate
+     * @param z     the block z-coordinate
+     * @return the DominionDTO if found, otherwise null
+     */
+    DominionDTO getDominionByLocation(@NotNull UUID world, int x, int y, int z);
+
+    /**
+     * Checks whether no dominion of this index intersects a chunk.
+     * <p>
+     * A cheap negative test for hot paths, a false result only means the chunk may hold a dominion.
+     *
+     * @param world  the world UUID to check
+     * @param chunkX the chunk x-coordinate
+     * @param chunkZ the chunk z-coordinate
+     * @return true if the chunk is known to hold no dominion
+     */
+    boolean isChunkFree(@NotNull UUID world, int chunkX, int chunkZ);
+
+    /**
+     * Drops every cached location result of this index.
+     */
+    void clearLocationCache();
+
+    /**
+     * Drops the cached location results of one world inside {@code [x1, x2) x [z1, z2)}.
+     * <p>
+     * Must be called after the node tree under that area has changed.
+     *
+     * @param world the world UUID
+     * @param x1    the min x-coordinate, inclusive
+     * @param z1    the min z-coordinate, inclusive
+     * @param x2    the max x-coordinate, exclusive
+     * @param z2    the max z-coordinate, exclusive
+     */
+    void invalidate(@NotNull UUID world, int x1, int z1, int x2, int z2);
+
+    /**
+     * Adds a top-level node to the built index and drops the cached results under it.
+     * <p>
+     * The node must already be marked, see {@link DominionNode#markFullHeight(DominionDTO)}: the index does not
+     * look up its dominion, which is not published in the cache yet.
+     *
+     * @param node the top-level DominionNode to add
+     */
+    void insert(@NotNull DominionNode node);
+
+    /**
+     * Removes a top-level node from the built index and drops the cached results under it.
+     *
+     * @param node the top-level DominionNode to remove
+     */
+    void remove(@NotNull DominionNode node);
+
+    /**
+     * Builds the index asynchronously from the top-level dominion nodes.
+     * <p>
+     * The previous index stays readable until the new one is published.
+     *
+     * @param nodes the top-level DominionNodes
+     * @return CompletableFuture that completes when the build operation is finished
+     */
+    CompletableFuture<Void> buildAsync(CopyOnWriteArrayList<DominionNode> nodes);
+}
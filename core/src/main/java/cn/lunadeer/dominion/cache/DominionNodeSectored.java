@@ -8,20 +8,23 @@ import org.bukkit.Location;
 import org.bukkit.World;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static cn.lunadeer.dominion.cache.DominionNode.getDominionNodeByLocation;
 
 /**
  * The DominionNodeSectored class manages the dominion nodes in different sectors of the world
  * with thread-safe operations.
+ * <p>
+ * This is the legacy index, kept as a fallback for {@link DominionNodeGrid}.
  */
-public class DominionNodeSectored {
+public class DominionNodeSectored implements DominionNodeIndex {
     /*
         D | C
         --+--
@@ -37,49 +40,24 @@ public class DominionNodeSectored {
      * @param sectorB x <= originX, z >= originZ
      * @param sectorC x >= originX, z <= originZ
      * @param sectorD x <= originX, z <= originZ
+     * @param chunks  world UUID -> the chunks that may hold a dominion
      */
     private record Snapshot(ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> sectorA,
                             ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> sectorB,
                             ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> sectorC,
                             ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> sectorD,
-                            ConcurrentHashMap<UUID, ConcurrentHashMap<BlockKey, Integer>> locationCache,
-                            AtomicInteger locationCacheSize,
+                            ConcurrentHashMap<UUID, ChunkBitmap> chunks,
+                            LocationCache locationCache,
                             int originX,
                             int originZ) {
 
         private static Snapshot empty() {
             return new Snapshot(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
                     new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
-                    new AtomicInteger(), 0, 0);
+                    new LocationCache(LOCATION_CACHE_MAX_SIZE), 0, 0);
         }
     }
 
-    private record BlockKey(int x, int y, int z) {
-    }
-
-    /**
-     * Gets the DominionDTO for a given location.
-     *
-     * @param loc the location to check
-     * @return the DominionDTO if found, otherwise null
-     */
-    public DominionDTO getDominionByLocation(@NotNull Location loc) {
-        return getDominionByLocation(loc.getWorld(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-    }
-
-    /**
-     * Gets the DominionDTO for a given block coordinate.
-     *
-     * @param world the world to check
-     * @param x     the block x-coordinate
-     * @param y     the block y-coordinate
-     * @param z     the block z-coordinate
-     * @return the DominionDTO if found, otherwise null
-     */
-    public DominionDTO getDominionByLocation(@NotNull World world, int x, int y, int z) {
-        return getDominionByLocation(world.getUID(), x, y, z);
-    }
-
     /**
      * Gets the DominionDTO for a given block coordinate.
      *
@@ -89,23 +67,43 @@ public class DominionNodeSectored {
      * @param z     the block z-coordinate
      * @return the DominionDTO if found, otherwise null
      */
+    @Override
     public DominionDTO getDominionByLocation(@NotNull UUID world, int x, int y, int z) {
         try (AutoTimer ignored = new AutoTimer(Configuration.timer)) {
             Snapshot current = snapshot;
-            BlockKey blockKey = new BlockKey(x, y, z);
-            Integer cachedDominionId = getCachedDominionId(current, world, blockKey);
-            if (cachedDominionId != null) {
+            if (isChunkFree(current, world, x >> 4, z >> 4)) {
+                return null;  // wilderness, not worth a cache entry
+            }
+            LocationCache locationCache = current.locationCache;
+            // full-height results are cached per (x, z) column, so they hit for every y of the world
+            int cachedDominionId = locationCache.getColumn(world, x, z);
+            if (cachedDominionId != LocationCache.MISS) {
+                if (cachedDominionId == NO_DOMINION_ID) return null;
+                DominionDTO dominion = CacheManager.instance.getDominion(cachedDominionId);
+                // y beyond the world height is outside the dominion, resolve it per block
+                if (dominion != null && dominion.getCuboid().contain(x, y, z)) return dominion;
+            }
+            cachedDominionId = locationCache.get(world, x, y, z);
+            if (cachedDominionId != LocationCache.MISS) {
                 return cachedDominionId == NO_DOMINION_ID ? null : CacheManager.instance.getDominion(cachedDominionId);
             }
 
+            // the epoch is read before the snapshot the result is computed from, so an insert or remove published
+            // in between invalidates the entry; if the snapshot carries a new cache the entry goes to the old one
+            int epoch = locationCache.epoch();
+            current = snapshot;
             CopyOnWriteArrayList<DominionNode> nodes = getNodes(current, world, x, z);
             if (nodes == null || nodes.isEmpty()) {
-                cacheDominionId(current, world, blockKey, NO_DOMINION_ID);
+                locationCache.putColumn(world, x, z, NO_DOMINION_ID, epoch);
                 return null;
             }
             DominionNode dominionNode = getDominionNodeByLocation(nodes, world, x, y, z);
             int dominionId = dominionNode == null ? NO_DOMINION_ID : dominionNode.getDominionId();
-            cacheDominionId(current, world, blockKey, dominionId);
+            if (dominionNode == null ? !crossesColumn(nodes, x, z) : dominionNode.ownsColumn(x, z)) {
+                locationCache.putColumn(world, x, z, dominionId, epoch);
+            } else {
+                locationCache.put(world, x, y, z, dominionId, epoch);
+            }
             return dominionId == NO_DOMINION_ID ? null : CacheManager.instance.getDominion(dominionId);
         }
     }
@@ -157,28 +155,60 @@ public class DominionNodeSectored {
         return current.sectorD.get(world);
     }
 
-    private Integer getCachedDominionId(Snapshot current, UUID world, BlockKey blockKey) {
-        ConcurrentHashMap<BlockKey, Integer> worldCache = current.locationCache.get(world);
-        return worldCache == null ? null : worldCache.get(blockKey);
+    private static boolean crossesColumn(CopyOnWriteArrayList<DominionNode> nodes, int x, int z) {
+        for (DominionNode node : nodes) {
+            if (node.containsColumn(x, z)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private void cacheDominionId(Snapshot current, UUID world, BlockKey blockKey, int dominionId) {
-        if (current.locationCacheSize.get() >= LOCATION_CACHE_MAX_SIZE) {
-            current.locationCache.clear();
-            current.locationCacheSize.set(0);
-        }
+    @Override
+    public void clearLocationCache() {
+        snapshot.locationCache.clear();
+    }
 
-        ConcurrentHashMap<BlockKey, Integer> worldCache = current.locationCache.computeIfAbsent(world, ignored -> new ConcurrentHashMap<>());
-        Integer previous = worldCache.putIfAbsent(blockKey, dominionId);
-        if (previous == null) {
-            current.locationCacheSize.incrementAndGet();
-        }
+    @Override
+    public boolean isChunkFree(@NotNull UUID world, int chunkX, int chunkZ) {
+        return isChunkFree(snapshot, world, chunkX, chunkZ);
     }
 
-    public void clearLocationCache() {
+    private static boolean isChunkFree(Snapshot current, UUID world, int chunkX, int chunkZ) {
+        ChunkBitmap chunks = current.chunks.get(world);
+        return chunks == null || !chunks.mayContain(chunkX, chunkZ);
+    }
+
+    @Override
+    public void invalidate(@NotNull UUID world, int x1, int z1, int x2, int z2) {
+        snapshot.locationCache.invalidate(world, x1, z1, x2, z2);
+    }
+
+    @Override
+    public synchronized void insert(@NotNull DominionNode node) {
         Snapshot current = snapshot;
-        current.locationCache.clear();
-        current.locationCacheSize.set(0);
+        UUID world = node.getWorldUid();
+        current.sectorA.computeIfAbsent(world, k -> new CopyOnWriteArrayList<>());
+        current.sectorB.computeIfAbsent(world, k -> new CopyOnWriteArrayList<>());
+        current.sectorC.computeIfAbsent(world, k -> new CopyOnWriteArrayList<>());
+        current.sectorD.computeIfAbsent(world, k -> new CopyOnWriteArrayList<>());
+        placeDominionInSectors(node, current.originX, current.originZ,
+                current.sectorA, current.sectorB, current.sectorC, current.sectorD);
+        current.chunks.compute(world, (k, chunks) -> (chunks == null ? ChunkBitmap.EMPTY : chunks).with(node));
+        invalidate(world, node.x1(), node.z1(), node.x2(), node.z2());
+    }
+
+    @Override
+    public synchronized void remove(@NotNull DominionNode node) {
+        Snapshot current = snapshot;
+        UUID world = node.getWorldUid();
+        for (ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> sector :
+                List.of(current.sectorA, current.sectorB, current.sectorC, current.sectorD)) {
+            CopyOnWriteArrayList<DominionNode> nodes = sector.get(world);
+            if (nodes != null) nodes.remove(node);
+        }
+        // the chunk bits are kept, a stale bit only costs a full lookup until the next build
+        invalidate(world, node.x1(), node.z1(), node.x2(), node.z2());
     }
 
     /**
@@ -188,6 +218,7 @@ public class DominionNodeSectored {
      * @param nodes the list of DominionNodes to initialize
      * @return CompletableFuture that completes when the build operation is finished
      */
+    @Override
     public CompletableFuture<Void> buildAsync(CopyOnWriteArrayList<DominionNode> nodes) {
         return CompletableFuture.runAsync(() -> {
             try (AutoTimer ignored = new AutoTimer(Configuration.timer)) {
@@ -198,72 +229,78 @@ public class DominionNodeSectored {
                 ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> tempSectorD = new ConcurrentHashMap<>();
 
                 // calculate the section origin point
-                int max_x = nodes.parallelStream().mapToInt(n -> n.getDominion().getCuboid().x2()).max().orElse(0);
-                int min_x = nodes.parallelStream().mapToInt(n -> n.getDominion().getCuboid().x1()).min().orElse(0);
-                int max_z = nodes.parallelStream().mapToInt(n -> n.getDominion().getCuboid().z2()).max().orElse(0);
-                int min_z = nodes.parallelStream().mapToInt(n -> n.getDominion().getCuboid().z1()).min().orElse(0);
+                int max_x = nodes.parallelStream().mapToInt(DominionNode::x2).max().orElse(0);
+                int min_x = nodes.parallelStream().mapToInt(DominionNode::x1).min().orElse(0);
+                int max_z = nodes.parallelStream().mapToInt(DominionNode::z2).max().orElse(0);
+                int min_z = nodes.parallelStream().mapToInt(DominionNode::z1).min().orElse(0);
                 int tempOriginX = (max_x + min_x) / 2;
                 int tempOriginZ = (max_z + min_z) / 2;
                 XLogger.debug("Cache init section origin: {0}, {1}", tempOriginX, tempOriginZ);
 
                 // Process nodes in parallel for better performance
                 nodes.parallelStream().forEach(n -> {
-                    DominionDTO d = n.getDominion();
+                    n.markFullHeight();
                     // Ensure world sectors exist
-                    tempSectorA.computeIfAbsent(d.getWorldUid(), k -> new CopyOnWriteArrayList<>());
-                    tempSectorB.computeIfAbsent(d.getWorldUid(), k -> new CopyOnWriteArrayList<>());
-                    tempSectorC.computeIfAbsent(d.getWorldUid(), k -> new CopyOnWriteArrayList<>());
-                    tempSectorD.computeIfAbsent(d.getWorldUid(), k -> new CopyOnWriteArrayList<>());
+                    tempSectorA.computeIfAbsent(n.getWorldUid(), k -> new CopyOnWriteArrayList<>());
+                    tempSectorB.computeIfAbsent(n.getWorldUid(), k -> new CopyOnWriteArrayList<>());
+                    tempSectorC.computeIfAbsent(n.getWorldUid(), k -> new CopyOnWriteArrayList<>());
+                    tempSectorD.computeIfAbsent(n.getWorldUid(), k -> new CopyOnWriteArrayList<>());
 
                     // Place dominions into appropriate sectors
-                    placeDominionInSectors(n, d, tempOriginX, tempOriginZ, tempSectorA, tempSectorB, tempSectorC, tempSectorD);
+                    placeDominionInSectors(n, tempOriginX, tempOriginZ, tempSectorA, tempSectorB, tempSectorC, tempSectorD);
                 });
 
-                // Atomically publish a new immutable snapshot
-                snapshot = new Snapshot(tempSectorA, tempSectorB, tempSectorC, tempSectorD,
-                        new ConcurrentHashMap<>(), new AtomicInteger(), tempOriginX, tempOriginZ);
+                ConcurrentHashMap<UUID, ChunkBitmap> tempChunks = new ConcurrentHashMap<>();
+                nodes.stream().collect(Collectors.groupingBy(DominionNode::getWorldUid))
+                        .forEach((world, worldNodes) -> tempChunks.put(world, ChunkBitmap.of(worldNodes)));
+
+                // Atomically publish the new snapshot
+                synchronized (this) {
+                    snapshot = new Snapshot(tempSectorA, tempSectorB, tempSectorC, tempSectorD, tempChunks,
+                            new LocationCache(LOCATION_CACHE_MAX_SIZE), tempOriginX, tempOriginZ);
+                }
             }
         }, ForkJoinPool.commonPool());
     }
 
     /**
-     * Helper method to place a dominion node into the appropriate sectors.
+     * Helper method to place a dominion node into the appropriate sectors, by the bounds kept in the node.
      */
-    private void placeDominionInSectors(DominionNode n, DominionDTO d, int tempOriginX, int tempOriginZ,
+    private void placeDominionInSectors(DominionNode n, int tempOriginX, int tempOriginZ,
                                         ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> tempSectorA,
                                         ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> tempSectorB,
                                         ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> tempSectorC,
                                         ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> tempSectorD) {
-        if (d.getCuboid().x1() >= tempOriginX && d.getCuboid().z1() >= tempOriginZ) {
-            tempSectorA.get(d.getWorldUid()).add(n);
-        } else if (d.getCuboid().x1() <= tempOriginX && d.getCuboid().z1() >= tempOriginZ) {
-            if (d.getCuboid().x2() >= tempOriginX) {
-                tempSectorA.get(d.getWorldUid()).add(n);
-                tempSectorB.get(d.getWorldUid()).add(n);
+        if (n.x1() >= tempOriginX && n.z1() >= tempOriginZ) {
+            tempSectorA.get(n.getWorldUid()).add(n);
+        } else if (n.x1() <= tempOriginX && n.z1() >= tempOriginZ) {
+            if (n.x2() >= tempOriginX) {
+                tempSectorA.get(n.getWorldUid()).add(n);
+                tempSectorB.get(n.getWorldUid()).add(n);
             } else {
-                tempSectorB.get(d.getWorldUid()).add(n);
+                tempSectorB.get(n.getWorldUid()).add(n);
             }
-        } else if (d.getCuboid().x1() >= tempOriginX && d.getCuboid().z1() <= tempOriginZ) {
-            if (d.getCuboid().z2() >= tempOriginZ) {
-                tempSectorA.get(d.getWorldUid()).add(n);
-                tempSectorC.get(d.getWorldUid()).add(n);
+        } else if (n.x1() >= tempOriginX && n.z1() <= tempOriginZ) {
+            if (n.z2() >= tempOriginZ) {
+                tempSectorA.get(n.getWorldUid()).add(n);
+                tempSectorC.get(n.getWorldUid()).add(n);
             } else {
-                tempSectorC.get(d.getWorldUid()).add(n);
+                tempSectorC.get(n.getWorldUid()).add(n);
             }
         } else {
-            if (d.getCuboid().x2() >= tempOriginX && d.getCuboid().z2() >= tempOriginZ) {
-                tempSectorA.get(d.getWorldUid()).add(n);
-                tempSectorB.get(d.getWorldUid()).add(n);
-                tempSectorC.get(d.getWorldUid()).add(n);
-                tempSectorD.get(d.getWorldUid()).add(n);
-            } else if (d.getCuboid().x2() >= tempOriginX && d.getCuboid().z2() <= tempOriginZ) {
-                tempSectorC.get(d.getWorldUid()).add(n);
-                tempSectorD.get(d.getWorldUid()).add(n);
-            } else if (d.getCuboid().z2() >= tempOriginZ && d.getCuboid().x2() <= tempOriginX) {
-                tempSectorB.get(d.getWorldUid()).add(n);
-                tempSectorD.get(d.getWorldUid()).add(n);
+            if (n.x2() >= tempOriginX && n.z2() >= tempOriginZ) {
+                tempSectorA.get(n.getWorldUid()).add(n);
+                tempSectorB.get(n.getWorldUid()).add(n);
+                tempSectorC.get(n.getWorldUid()).add(n);
+                tempSectorD.get(n.getWorldUid()).add(n);
+            } else if (n.x2() >= tempOriginX && n.z2() <= tempOriginZ) {
+                tempSectorC.get(n.getWorldUid()).add(n);
+                tempSectorD.get(n.getWorldUid()).add(n);
+            } else if (n.z2() >= tempOriginZ && n.x2() <= tempOriginX) {
+                tempSectorB.get(n.getWorldUid()).add(n);
+                tempSectorD.get(n.getWorldUid()).add(n);
             } else {
-                tempSectorD.get(d.getWorldUid()).add(n);
+                tempSectorD.get(n.getWorldUid()).add(n);
             }
         }
     }
@@ -0,0 +1,258 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.utils.LongObjectHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed-size, allocation-free cache of block position -> dominion id.
+ * <p>
+ * Entries are keyed by a primitive long packing the world index (4 bits), x (24 bits), z (24 bits)
+ * and y (12 bits), and stored in a 4-way set-associative table. When a set is full an entry is
+ * evicted with the clock (second-chance) policy, so the cache never needs to be cleared because
+ * it is full. Positions that cannot be packed (|x| or |z| beyond 8388608, y beyond +-2047, more
+ * than {@link #MAX_WORLDS} worlds) are simply not cached.
+ * <p>
+ * Besides single blocks the cache holds column entries, which answer for every y of an (x, z)
+ * column. They share the same table and use the otherwise invalid y value -2048 in their key.
+ * <p>
+ * The cache is safe for concurrent use without locks: a writer claims a slot with a CAS before
+ * writing its value, and readers validate the key around reading the value.
+ */
+public class LocationCache {
+    public static final int MISS = Integer.MAX_VALUE;
+
+    static final int MAX_WORLDS = 15;
+    private static final int WAYS = 4;
+    private static final long EMPTY = -1L;  // world index 15 is never assigned
+    private static final long BUSY = -2L;
+    private static final int COORDINATE_LIMIT = 1 << 23;
+    private static final int Y_LIMIT = 1 << 11;
+    private static final int COLUMN_Y = -Y_LIMIT;
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final long[] keys;
+    private final int[] values;
+    private final byte[] referenced;
+    private final byte[] hands;
+    private final int setMask;
+    private final ConcurrentHashMap<UUID, Integer> worldIndexes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextWorldIndex = new AtomicInteger();
+    private final AtomicInteger epoch = new AtomicInteger();
+
+    /**
+     * @param capacity the number of entries, rounded up to a power of two (minimum 64)
+     */
+    public LocationCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 63)) << 1;
+        keys = new long[size];
+        values = new int[size];
+        referenced = new byte[size];
+        hands = new byte[size / WAYS];
+        setMask = size / WAYS - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Gets the current epoch, pass it to {@link #put} so that a value computed before a
+     * {@link #clear()} is not cached after it.
+     *
+     * @return the current epoch
+     */
+    public int epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Gets the cached dominion id of a block.
+     *
+     * @param world the world UUID
+     * @param x     the block x-coordinate
+     * @param y     the block y-coordinate
+     * @param z     the block z-coordinate
+     * @return the cached value, or {@link #MISS}
+     */
+    public int get(@NotNull UUID world, int x, int y, int z) {
+        long key = y == COLUMN_Y ? EMPTY : key(world, x, y, z, false);
+        return key == EMPTY ? MISS : get(key);
+    }
+
+    /**
+     * Caches the dominion id of a block.
+     *
+     * @param world      the world UUID
+     * @param x          the block x-coordinate
+     * @param y          the block y-coordinate
+     * @param z          the block z-coordinate
+     * @param dominionId the value to cache, must not be {@link #MISS}
+     * @param epoch      the {@link #epoch()} read before the value was computed
+     */
+    public void put(@NotNull UUID world, int x, int y, int z, int dominionId, int epoch) {
+        long key = y == COLUMN_Y ? EMPTY : key(world, x, y, z, true);
+        if (key != EMPTY) {
+            put(key, dominionId, epoch);
+        }
+    }
+
+    /**
+     * Gets the cached dominion id shared by every block of an (x, z) column.
+     *
+     * @param world the world UUID
+     * @param x     the block x-coordinate
+     * @param z     the block z-coordinate
+     * @return the cached value, or {@link #MISS}
+     */
+    public int getColumn(@NotNull UUID world, int x, int z) {
+        long key = key(world, x, COLUMN_Y, z, false);
+        return key == EMPTY ? MISS : get(key);
+    }
+
+    /**
+     * Caches the dominion id of a whole (x, z) column.
+     * <p>
+     * Only valid when every y of the column resolves to the same dominion (or to none).
+     *
+     * @param world      the world UUID
+     * @param x          the block x-coordinate
+     * @param z          the block z-coordinate
+     * @param dominionId the value to cache, must not be {@link #MISS}
+     * @param epoch      the {@link #epoch()} read before the value was computed
+     */
+    public void putColumn(@NotNull UUID world, int x, int z, int dominionId, int epoch) {
+        long key = key(world, x, COLUMN_Y, z, true);
+        if (key != EMPTY) {
+            put(key, dominionId, epoch);
+        }
+    }
+
+    /**
+     * Drops every entry. Concurrent {@link #put} calls that started before are discarded.
+     */
+    public void clear() {
+        epoch.incrementAndGet();
+        for (int i = 0; i < keys.length; i++) {
+            KEYS.setVolatile(keys, i, EMPTY);
+        }
+    }
+
+    /**
+     * Drops the block and column entries of one world whose (x, z) lies in {@code [x1, x2) x [z1, z2)}.
+     * <p>
+     * Concurrent {@link #put} calls that started before are discarded, as with {@link #clear()}.
+     * Costs one pass over the table, but every entry outside the area stays cached.
+     *
+     * @param world the world UUID
+     * @param x1    the min x-coordinate, inclusive
+     * @param z1    the min z-coordinate, inclusive
+     * @param x2    the max x-coordinate, exclusive
+     * @param z2    the max z-coordinate, exclusive
+     */
+    public void invalidate(@NotNull UUID world, int x1, int z1, int x2, int z2) {
+        epoch.incrementAndGet();
+        Integer worldIndex = worldIndexes.get(world);
+        if (worldIndex == null) {
+            return;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            long key = (long) KEYS.getVolatile(keys, i);
+            if (key == BUSY) {
+                // a write in progress may hold a value computed before the change
+                KEYS.compareAndSet(keys, i, BUSY, EMPTY);
+                continue;
+            }
+            if (key == EMPTY || (int) (key >>> 60) != worldIndex) continue;
+            int x = (int) (key << 4 >> 40);
+            int z = (int) (key << 28 >> 40);
+            if (x >= x1 && x < x2 && z >= z1 && z < z2) {
+                KEYS.compareAndSet(keys, i, key, EMPTY);
+            }
+        }
+    }
+
+    private int get(long key) {
+        int base = set(key) * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            if ((long) KEYS.getAcquire(keys, i) != key) continue;
+            int value = (int) VALUES.getAcquire(values, i);
+            // re-check the key, the slot may have been taken over while reading the value
+            if ((long) KEYS.getAcquire(keys, i) != key) return MISS;
+            referenced[i] = 1;
+            return value;
+        }
+        return MISS;
+    }
+
+    private void put(long key, int value, int expectedEpoch) {
+        int set = set(key);
+        int slot = victim(set, key);
+        long current = (long) KEYS.getVolatile(keys, slot);
+        if (current == BUSY || !KEYS.compareAndSet(keys, slot, current, BUSY)) {
+            return;  // another writer owns the slot, caching is best-effort
+        }
+        if (expectedEpoch != epoch.get()) {
+            KEYS.compareAndSet(keys, slot, BUSY, EMPTY);
+            return;
+        }
+        VALUES.setRelease(values, slot, value);
+        referenced[slot] = 0;
+        // fails if clear() wiped the slot meanwhile, the entry is then dropped
+        KEYS.compareAndSet(keys, slot, BUSY, key);
+    }
+
+    /**
+     * Picks the slot of a set to write: the slot already holding the key, an empty slot, or the
+     * first slot the clock hand finds without its referenced bit.
+     */
+    private int victim(int set, long key) {
+        int base = set * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            long current = (long) KEYS.getAcquire(keys, i);
+            if (current == key || current == EMPTY) return i;
+        }
+        int hand = hands[set];
+        for (int step = 0; step < WAYS * 2; step++) {
+            int i = base + ((hand + step) & (WAYS - 1));
+            if (referenced[i] == 0) {
+                hands[set] = (byte) ((hand + step + 1) & (WAYS - 1));
+                return i;
+            }
+            referenced[i] = 0;
+        }
+        return base + hand;
+    }
+
+    private int set(long key) {
+        return LongObjectHashMap.hash(key) & setMask;
+    }
+
+    private long key(UUID world, int x, int y, int z, boolean assign) {
+        if (x < -COORDINATE_LIMIT || x >= COORDINATE_LIMIT || z < -COORDINATE_LIMIT || z >= COORDINATE_LIMIT
+                || y < -Y_LIMIT || y >= Y_LIMIT) {
+            return EMPTY;
+        }
+        int worldIndex = worldIndex(world, assign);
+        if (worldIndex < 0) {
+            return EMPTY;
+        }
+        return ((long) worldIndex << 60)
+                | ((long) (x & 0xFFFFFF) << 36)
+                | ((long) (z & 0xFFFFFF) << 12)
+                | (y & 0xFFF);
+    }
+
+    private int worldIndex(UUID world, boolean assign) {
+        Integer index = worldIndexes.get(world);
+        if (index != null) return index;
+        if (!assign || nextWorldIndex.get() >= MAX_WORLDS) return -1;
+        index = worldIndexes.computeIfAbsent(world, k -> nextWorldIndex.getAndIncrement());
+        return index < MAX_WORLDS ? index : -1;
+    }
+}
@@ -0,0 +1,93 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.configuration.Configuration;
+import cn.lunadeer.dominion.configuration.Limitation;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static cn.lunadeer.dominion.Dominion.adminPermission;
+
+/**
+ * Caches the permission-derived state of online players: the admin permission and the resolved {@link Limitation}.
+ * <p>
+ * With a permission plugin every {@code hasPermission} call goes through its resolution, and resolving a limitation
+ * takes two per limitation group. A snapshot is taken when the player joins and dropped when the player changes
+ * world or leaves, a second after a command of a permission plugin (which may apply it asynchronously), and after
+ * a configuration reload. Snapshots also expire after {@link #TTL}, for permissions changed by other plugins.
+ * <p>
+ * Operator status is a plain field of the player, it is always checked live.
+ */
+public class PermissionCache {
+
+    /**
+     * How long a snapshot is used before it is taken again, in milliseconds.
+     */
+    public static final long TTL = 1000 * 10L;
+
+    private record Snapshot(boolean admin, @NotNull Limitation limitation, long takenAt) {
+    }
+
+    private final ConcurrentHashMap<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * @param player the player
+     * @return whether the player has the admin permission
+     */
+    public boolean isAdmin(@NotNull Player player) {
+        return snapshot(player).admin();
+    }
+
+    /**
+     * @param player the player
+     * @return the limitation of the player, see {@link Configuration#resolvePlayerLimitation(Player)}
+     */
+    public @NotNull Limitation getLimitation(@NotNull Player player) {
+        return snapshot(player).limitation();
+    }
+
+    /**
+     * Takes a new snapshot of a player.
+     *
+     * @param player the player
+     */
+    public void refresh(@NotNull Player player) {
+        snapshots.put(player.getUniqueId(), take(player));
+    }
+
+    /**
+     * Drops the snapshot of a player, the next check takes a new one.
+     *
+     * @param player the UUID of the player
+     */
+    public void invalidate(@NotNull UUID player) {
+        snapshots.remove(player);
+    }
+
+    /**
+     * Drops all snapshots.
+     */
+    public void invalidateAll() {
+        snapshots.clear();
+    }
+
+    private Snapshot snapshot(Player player) {
+        Snapshot snapshot = snapshots.get(player.getUniqueId());
+        if (snapshot == null || snapshot.takenAt() + TTL < System.currentTimeMillis()) {
+            snapshot = take(player);
+            // offline players, e.g. during a join that was cancelled, are not kept
+            if (player.isOnline()) {
+                snapshots.put(player.getUniqueId(), snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    private static Snapshot take(Player player) {
+        return new Snapshot(player.hasPermission(adminPermission),
+                Configuration.resolvePlayerLimitation(player),
+                System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,113 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.api.dtos.GroupDTO;
+import cn.lunadeer.dominion.api.dtos.MemberDTO;
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.doos.FlagBits;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the effective privileges of a player in a dominion.
+ * <p>
+ * Resolving a privilege flag means an owner compare, a member lookup, a group lookup and the admin flags
+ * of both, for every check. The result only depends on the dominion, its members and groups, so it is
+ * resolved once per (dominion, player) and kept until one of them changes: the caches and the DOO setters
+ * call {@link #invalidate(Integer)} for the changed dominion, or {@link #invalidateAll()} after a full load.
+ * <p>
+ * The server-wide admin bypass is a property of the player, not of the dominion, and is not part of the entries.
+ */
+public class PrivilegeCache {
+
+    /**
+     * The resolved privileges of a player in a dominion.
+     *
+     * @param admin whether the player is the owner or an admin of the dominion, who has every privilege
+     * @param guest whether the player is not a member, so the flags are the guest flags of the dominion
+     * @param flags the flags of the player's group if any, else of the member, else the guest flags
+     */
+    public record Privileges(boolean admin, boolean guest, @NotNull FlagBits<PriFlag> flags) {
+
+        /**
+         * @param flag the privilege flag
+         * @return whether the player has the privilege
+         */
+        public boolean has(@NotNull PriFlag flag) {
+            if (admin) return true;
+            // member and group flags fall back to the flag default, guest flags to false
+            return flags.get(flag, !guest && flag.getDefaultValue());
+        }
+    }
+
+    private static final Privileges ADMIN = new Privileges(true, false, new FlagBits<>());
+
+    // Dominion ID -> (Player UUID -> Privileges)
+    private final ConcurrentHashMap<Integer, ConcurrentHashMap<UUID, Privileges>> privileges = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the privileges of a player in a dominion, resolving them on the first call.
+     *
+     * @param dominion the dominion
+     * @param player   the UUID of the player
+     * @return the privileges of the player in the dominion
+     */
+    public @NotNull Privileges get(@NotNull DominionDTO dominion, @NotNull UUID player) {
+        // an invalidation removes the whole dominion map, so an entry resolved
+        // from data that changed meanwhile lands in a map no one reads anymore
+        ConcurrentHashMap<UUID, Privileges> players = privileges.computeIfAbsent(dominion.getId(), k -> new ConcurrentHashMap<>());
+        Privileges result = players.get(player);
+        if (result == null) {
+            result = resolve(dominion, player);
+            players.put(player, result);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the privileges of all players in a dominion, call it after the dominion, one of its members
+     * or one of its groups changed.
+     *
+     * @param dominionId the ID of the dominion
+     */
+    public void invalidate(Integer dominionId) {
+        privileges.remove(dominionId);
+    }
+
+    /**
+     * Drops all privileges, call it after a full cache load.
+     */
+    public void invalidateAll() {
+        privileges.clear();
+    }
+
+    /**
+     * Drops the privileges of a player in all dominions, when the player leaves.
+     *
+     * @param player the UUID of the player
+     */
+    public void invalidatePlayer(@NotNull UUID player) {
+        privileges.values().forEach(players -> players.remove(player));
+    }
+
+    private static Privileges resolve(DominionDTO dominion, UUID player) {
+        if (dominion.getOwner().equals(player)) {
+            return ADMIN;
+        }
+        MemberDTO member = CacheManager.instance.getMember(dominion, player);
+        if (member == null) {
+            return new Privileges(false, true, new FlagBits<>(dominion.getGuestPrivilegeFlagValue()));
+        }
+        GroupDTO group = CacheManager.instance.getGroup(member.getGroupId());
+        if ((group != null && group.getFlagValue(Flags.ADMIN)) || member.getFlagValue(Flags.ADMIN)) {
+            return ADMIN;
+        }
+        if (member.getGroupId() != -1 && group != null) {
+            return new Privileges(false, false, new FlagBits<>(group.getFlagsValue()));
+        }
+        return new Privileges(false, false, new FlagBits<>(member.getFlagsValue()));
+    }
+}
@@ -0,0 +1,144 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.api.dtos.PlayerDTO;
+import cn.lunadeer.dominion.cache.server.PlayerCache;
+import cn.lunadeer.dominion.cache.server.ServerCache;
+import cn.lunadeer.dominion.doos.DominionDOO;
+import cn.lunadeer.dominion.doos.GroupDOO;
+import cn.lunadeer.dominion.doos.MemberDOO;
+import cn.lunadeer.dominion.doos.PlayerDOO;
+import cn.lunadeer.dominion.utils.XLogger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the player cache and the caches of every server at startup.
+ * <p>
+ * The queries run concurrently on a small pool, at most one thread per database connection: the players, the
+ * dominions of every server, and the members and groups, which are read once and shared by all servers instead of
+ * once per server. Every cache is built as soon as the rows it needs are fetched. Members and groups are filtered by
+ * the server of their dominion, so they wait for the dominions of every server (a dominion missing from the caches
+ * would be fetched from the database one by one); members of unknown players are deleted, so members also wait for
+ * the players. A failed stage skips the stages depending on it.
+ * <p>
+ * The time of every stage is logged when the load completes.
+ */
+final class StartupCacheLoader {
+
+    private static final int MAX_THREADS = 4;
+
+    private record Timing(String stage, long nanos) {
+        @Override
+        public String toString() {
+            return stage + " " + TimeUnit.NANOSECONDS.toMillis(nanos) + "ms";
+        }
+    }
+
+    @FunctionalInterface
+    private interface Stage<T> {
+        T run() throws Exception;
+    }
+
+    private final Executor executor;
+    private final Queue<Timing> timings = new ConcurrentLinkedQueue<>();
+
+    StartupCacheLoader(@NotNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Loads the caches on a pool sized to the database connections, returns when every stage is done.
+     *
+     * @param connections the size of the connection pool
+     * @param playerCache the player cache
+     * @param servers     the caches of this server and of the other servers
+     */
+    static void load(int connections, @NotNull PlayerCache playerCache, @NotNull List<ServerCache> servers) {
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(MAX_THREADS, connections)), runnable -> {
+            Thread thread = new Thread(runnable, "Dominion-CacheLoader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            new StartupCacheLoader(pool).load(playerCache, servers);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Loads the caches, returns when every stage is done.
+     *
+     * @param playerCache the player cache
+     * @param servers     the caches of this server and of the other servers
+     */
+    void load(@NotNull PlayerCache playerCache, @NotNull List<ServerCache> servers) {
+        long start = System.nanoTime();
+        try {
+            CompletableFuture<List<PlayerDTO>> players = query("players", PlayerDOO::all);
+            CompletableFuture<List<MemberDOO>> members = query("members", MemberDOO::select);
+            CompletableFuture<List<GroupDOO>> groups = query("groups", GroupDOO::select);
+
+            List<CompletableFuture<Void>> stages = new ArrayList<>();
+            CompletableFuture<Void> playersReady = players.thenAcceptAsync(
+                    rows -> build("player cache", () -> playerCache.load(rows)), executor);
+            stages.add(playersReady);
+            List<CompletableFuture<Void>> dominionStages = new ArrayList<>();
+            for (ServerCache server : servers) {
+                int serverId = server.getServerId();
+                dominionStages.add(query("dominions of server " + serverId, () -> DominionDOO.selectAll(serverId))
+                        .thenAcceptAsync(rows -> build("dominion cache of server " + serverId,
+                                () -> server.getDominionCache().load(rows)), executor));
+            }
+            stages.addAll(dominionStages);
+
+            // the groups look up the dominions of every server, the members also the players
+            CompletableFuture<Void> dominionsReady = CompletableFuture.allOf(dominionStages.toArray(CompletableFuture[]::new));
+            CompletableFuture<Void> membersReady = CompletableFuture.allOf(dominionsReady, playersReady);
+            for (ServerCache server : servers) {
+                int serverId = server.getServerId();
+                stages.add(members.thenAcceptBothAsync(membersReady, (rows, ignored) -> build(
+                        "member cache of server " + serverId, () -> server.getMemberCache().load(rows)), executor));
+                stages.add(groups.thenAcceptBothAsync(dominionsReady, (rows, ignored) -> build(
+                        "group cache of server " + serverId, () -> server.getGroupCache().load(rows)), executor));
+            }
+            CompletableFuture.allOf(stages.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            XLogger.error("Some caches failed to load, see the errors above");
+        }
+        XLogger.info("Loaded caches of {0} server(s) in {1}ms: {2}", servers.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                timings.stream().map(Timing::toString).collect(Collectors.joining(", ")));
+    }
+
+    private <T> CompletableFuture<T> query(String rows, Stage<T> query) {
+        return CompletableFuture.supplyAsync(() -> timed("query " + rows, query), executor);
+    }
+
+    private void build(String cache, Runnable build) {
+        timed("build " + cache, () -> {
+            build.run();
+            return null;
+        });
+    }
+
+    private <T> T timed(String stage, Stage<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.run();
+        } catch (Exception e) {
+            XLogger.error("Failed to {0}", stage);
+            XLogger.error(e);
+            throw new CompletionException(e);
+        } finally {
+            timings.add(new Timing(stage, System.nanoTime() - start));
+        }
+    }
+}
@@ -25,7 +25,7 @@ public abstract class Cache {
     }
 
     public void delete(Integer idToDelete) {
-        if (getLastTaskTimeStamp() + UPDATE_INTERVAL < System.currentTimeMillis()) {
+        if (isIncremental() || getLastTaskTimeStamp() + UPDATE_INTERVAL < System.currentTimeMillis()) {
             XLogger.debug("run loadExecution immediately");
             resetLastTaskTimeStamp();
             try {
@@ -57,7 +57,7 @@ public abstract class Cache {
     }
 
     public void load(Integer idToLoad) {
-        if (getLastTaskTimeStamp() + UPDATE_INTERVAL < System.currentTimeMillis()) {
+        if (isIncremental() || getLastTaskTimeStamp() + UPDATE_INTERVAL < System.currentTimeMillis()) {
             resetLastTaskTimeStamp();
             try {
                 loadExecution(idToLoad);
@@ -81,12 +81,41 @@ public abstract class Cache {
         }
     }
 
+    @FunctionalInterface
+    interface Execution {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs a full load from rows the caller already fetched, with the bookkeeping of {@link #load()}.
+     *
+     * @param execution the load
+     */
+    void loadFrom(Execution execution) {
+        resetLastTaskTimeStamp();
+        try {
+            execution.run();
+        } catch (Exception e) {
+            XLogger.error(e);
+        }
+    }
+
     abstract void loadExecution() throws Exception;
 
     abstract void loadExecution(Integer idToLoad) throws Exception;
 
     abstract void deleteExecution(Integer idToDelete) throws Exception;
 
+    /**
+     * Whether single-entry loads and deletes are cheap enough to always run immediately,
+     * instead of being coalesced into a full load when they come in bursts.
+     *
+     * @return true if {@link #loadExecution(Integer)} and {@link #deleteExecution(Integer)} are incremental
+     */
+    boolean isIncremental() {
+        return false;
+    }
+
 
     private final AtomicLong lastTask = new AtomicLong(0);
     private final AtomicBoolean taskScheduled = new AtomicBoolean(false);
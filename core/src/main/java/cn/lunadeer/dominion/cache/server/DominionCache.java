@@ -1,39 +1,67 @@
 package cn.lunadeer.dominion.cache.server;
 
+import cn.lunadeer.dominion.api.dtos.CuboidDTO;
 import cn.lunadeer.dominion.api.dtos.DominionDTO;
 import cn.lunadeer.dominion.api.dtos.GroupDTO;
 import cn.lunadeer.dominion.api.dtos.MemberDTO;
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.cache.CacheManager;
 import cn.lunadeer.dominion.cache.DominionNode;
-import cn.lunadeer.dominion.cache.DominionNodeSectored;
+import cn.lunadeer.dominion.cache.DominionNodeIndex;
 import cn.lunadeer.dominion.doos.DominionDOO;
 import cn.lunadeer.dominion.misc.DominionException;
+import cn.lunadeer.dominion.utils.XLogger;
 import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class DominionCache extends Cache {
     private final Integer serverId;
 
-    private volatile ConcurrentHashMap<Integer, DominionDTO> idDominions;            // Dominion ID -> DominionDTO
-    private volatile ConcurrentHashMap<Integer, CopyOnWriteArrayList<Integer>> dominionChildrenMap;  // Dominion ID -> Children Dominion ID
-    private volatile ConcurrentHashMap<String, Integer> dominionNameToId;            // Dominion name -> Dominion ID
-    private volatile ConcurrentHashMap<UUID, CopyOnWriteArrayList<Integer>> playerOwnDominions;          // Player UUID -> Dominion ID
-    private volatile ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> playerDominionNodes;  // Player UUID -> DominionNode
-    private volatile ConcurrentHashMap<Integer, DominionNode> dominionNodeMap;        // Dominion ID -> DominionNode
+    // the dominions and their lookups, replaced as a whole on every change, see DominionCacheData
+    private volatile DominionCacheData data = DominionCacheData.EMPTY;
 
-    // dominion nodes sectored by location, for fast location-based dominion lookup
-    private final DominionNodeSectored dominionNodeSectored = new DominionNodeSectored();
+    // dominion nodes indexed by location, for fast location-based dominion lookup
+    private volatile DominionNodeIndex dominionNodeIndex = DominionNodeIndex.create();
+    // index updates run in order after the pending full build, guarded by this
+    private CompletableFuture<Void> indexUpdates = CompletableFuture.completedFuture(null);
+    // the index updates of the batch being applied, run once it is published, guarded by this
+    private final List<Consumer<DominionNodeIndex>> indexChanges = new ArrayList<>();
+    // bumped after every change of a dominion or of the index, invalidates the areas handed out before
+    private final AtomicLong version = new AtomicLong();
+    private static final int RECENT_AREAS = 8;
+
+    /**
+     * A box of blocks that all resolve to the same dominion (or to none).
+     * <p>
+     * Bounds are inclusive. The area is only valid while {@link #getVersion()} still returns its version.
+     *
+     * @param dominion the dominion of every block in the box, null for none
+     * @param world    the world UUID of the box
+     * @param version  the cache version the area was resolved at
+     */
+    public record Area(@Nullable DominionDTO dominion, @NotNull UUID world,
+                       int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+                       long version) {
+
+        public boolean contains(@NotNull UUID world, int x, int y, int z) {
+            return x >= minX && x <= maxX && z >= minZ && z <= maxZ && y >= minY && y <= maxY
+                    && this.world.equals(world);
+        }
+    }
 
     public DominionCache(Integer serverId) {
         this.serverId = serverId;
@@ -47,8 +75,7 @@ public class DominionCache extends Cache {
      * @throws DominionException if the dominion ID is not found
      */
     public @Nullable DominionDTO getDominion(@NotNull Integer id) {
-        ConcurrentHashMap<Integer, DominionDTO> currentIdDominions = idDominions;
-        return currentIdDominions != null ? currentIdDominions.get(id) : null;
+        return data.dominion(id);
     }
 
     /**
@@ -59,16 +86,16 @@ public class DominionCache extends Cache {
      * @throws DominionException if the dominion name is not found
      */
     public @Nullable DominionDTO getDominion(String name) {
-        ConcurrentHashMap<String, Integer> currentDominionNameToId = dominionNameToId;
-        if (currentDominionNameToId == null) return null;
+        DominionCacheData current = data;
+        if (current == DominionCacheData.EMPTY) return null;
 
-        Integer id = currentDominionNameToId.get(name);
+        Integer id = current.nameToId().get(name);
         try {
             if (id == null) return DominionDOO.select(name);
         } catch (Exception e) {
             return null;
         }
-        return getDominion(id);
+        return current.dominion(id);
     }
 
     /**
@@ -78,7 +105,7 @@ public class DominionCache extends Cache {
      * @return the DominionDTO associated with the given location, or null if not found
      */
     public @Nullable DominionDTO getDominion(@NotNull Location location) {
-        return dominionNodeSectored.getDominionByLocation(location);
+        return dominionNodeIndex.getDominionByLocation(location);
     }
 
     /**
@@ -91,7 +118,160 @@ public class DominionCache extends Cache {
      * @return the DominionDTO associated with the given block, or null if not found
      */
     public @Nullable DominionDTO getDominion(@NotNull World world, int x, int y, int z) {
-        return dominionNodeSectored.getDominionByLocation(world, x, y, z);
+        return dominionNodeIndex.getDominionByLocation(world, x, y, z);
+    }
+
+    /**
+     * Gets the current version of this cache, see {@link Area}. It changes with every dominion loaded or deleted
+     * and with every change of the environment flags of a dominion, see {@link #envFlagsChanged()}, so the
+     * decisions taken from the flags can be kept by version too.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Marks a change of the environment flags of a cached dominion. The flags are set on the cached
+     * {@link DominionDOO} in place, without reloading it, so only the version changes.
+     */
+    public void envFlagsChanged() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Resolves the dominion of a block together with a box around the block that resolves to the same dominion.
+     * <p>
+     * Inside a dominion the box is its cuboid minus its sub-dominions (cut along the axis with the widest gap),
+     * in a chunk without any dominion it is the whole chunk, otherwise it is the single block.
+     *
+     * @param world the world UUID of the block
+     * @param x     the block x-coordinate
+     * @param y     the block y-coordinate
+     * @param z     the block z-coordinate
+     * @return the area containing the block
+     */
+    public @NotNull Area resolveArea(@NotNull UUID world, int x, int y, int z) {
+        long currentVersion = version.get();
+        DominionNodeIndex index = dominionNodeIndex;
+        if (index.isChunkFree(world, x >> 4, z >> 4)) {
+            return new Area(null, world, x & ~15, Integer.MIN_VALUE, z & ~15, x | 15, Integer.MAX_VALUE, z | 15, currentVersion);
+        }
+        DominionDTO dominion = index.getDominionByLocation(world, x, y, z);
+        DominionNode node = dominion == null ? null : data.node(dominion.getId());
+        if (node == null) {
+            return new Area(dominion, world, x, y, z, x, y, z, currentVersion);
+        }
+        // min and max per axis x, y, z, inclusive
+        int[] box = {node.x1(), node.y1(), node.z1(), node.x2() - 1, node.y2() - 1, node.z2() - 1};
+        int[] position = {x, y, z};
+        for (DominionNode child : node.getChildren()) {
+            int[] childBox = {child.x1(), child.y1(), child.z1(), child.x2() - 1, child.y2() - 1, child.z2() - 1};
+            int bestAxis = -1, bestGap = 0;
+            boolean overlaps = true;
+            for (int axis = 0; axis < 3; axis++) {
+                if (childBox[axis + 3] < box[axis] || childBox[axis] > box[axis + 3]) {
+                    overlaps = false;
+                    break;
+                }
+                int gap = Math.max(childBox[axis] - position[axis], position[axis] - childBox[axis + 3]);
+                if (gap > bestGap) {
+                    bestGap = gap;
+                    bestAxis = axis;
+                }
+            }
+            if (!overlaps || bestAxis < 0) {
+                continue;  // bestAxis < 0 means the block is inside the child, which the lookup rules out
+            }
+            if (childBox[bestAxis] > position[bestAxis]) {
+                box[bestAxis + 3] = childBox[bestAxis] - 1;
+            } else {
+                box[bestAxis] = childBox[bestAxis + 3] + 1;
+            }
+        }
+        return new Area(dominion, world, box[0], box[1], box[2], box[3], box[4], box[5], currentVersion);
+    }
+
+    /**
+     * Resolves the dominions of many blocks at once, e.g. the block list of an explosion.
+     * <p>
+     * Neighbouring blocks usually share a dominion (or a wilderness chunk), so the {@link Area}s resolved
+     * for the previous blocks are tried first, and only a block outside all of them needs a lookup.
+     *
+     * @param blocks the blocks to resolve
+     * @param face   the offset applied to every block, {@link BlockFace#SELF} for none
+     * @return the dominion of each block by index, null for none
+     */
+    public DominionDTO[] getDominions(@NotNull List<Block> blocks, @NotNull BlockFace face) {
+        DominionDTO[] dominions = new DominionDTO[blocks.size()];
+        Area[] recent = new Area[RECENT_AREAS];
+        int nextRecent = 0;
+        World lastWorld = null;
+        UUID worldUid = null;
+        for (int i = 0; i < dominions.length; i++) {
+            Block block = blocks.get(i);
+            if (block.getWorld() != lastWorld) {
+                lastWorld = block.getWorld();
+                worldUid = lastWorld.getUID();
+            }
+            int x = block.getX() + face.getModX(), y = block.getY() + face.getModY(), z = block.getZ() + face.getModZ();
+            Area area = null;
+            for (Area candidate : recent) {
+                if (candidate != null && candidate.contains(worldUid, x, y, z)) {
+                    area = candidate;
+                    break;
+                }
+            }
+            if (area == null) {
+                area = resolveArea(worldUid, x, y, z);
+                // a single block area is of no use for the neighbours
+                if (area.minX() != area.maxX() || area.minY() != area.maxY() || area.minZ() != area.maxZ()) {
+                    recent[nextRecent] = area;
+                    nextRecent = (nextRecent + 1) % RECENT_AREAS;
+                }
+            }
+            dominions[i] = area.dominion();
+        }
+        return dominions;
+    }
+
+    /**
+     * Resolves an {@link Area} that holds a whole box of blocks, e.g. the bounding box of an explosion.
+     * <p>
+     * If no chunk under the box holds a dominion the box itself is returned as wilderness, otherwise the
+     * area of one corner is resolved and returned if it also holds the opposite corner. Bounds are inclusive.
+     *
+     * @param world the world UUID of the box
+     * @return the area containing the whole box, or null if the box crosses a dominion border
+     */
+    public @Nullable Area resolveBox(@NotNull UUID world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        long currentVersion = version.get();
+        DominionNodeIndex index = dominionNodeIndex;
+        boolean free = true;
+        for (int chunkX = minX >> 4; free && chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                if (!index.isChunkFree(world, chunkX, chunkZ)) {
+                    free = false;
+                    break;
+                }
+            }
+        }
+        if (free) {
+            return new Area(null, world, minX, minY, minZ, maxX, maxY, maxZ, currentVersion);
+        }
+        Area area = resolveArea(world, minX, minY, minZ);
+        return area.contains(world, maxX, maxY, maxZ) ? area : null;
+    }
+
+    /**
+     * Checks whether no dominion intersects the chunk of a location.
+     *
+     * @param location the location to check
+     * @return true if the chunk is known to hold no dominion
+     */
+    public boolean isDominionFreeChunk(@NotNull Location location) {
+        return dominionNodeIndex.isChunkFree(location.getWorld().getUID(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
     }
 
     /**
@@ -101,8 +281,7 @@ public class DominionCache extends Cache {
      * @return a list of DominionNode objects managed by the player
      */
     public @NotNull CopyOnWriteArrayList<DominionNode> getPlayerDominionNodes(UUID player) {
-        ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> currentPlayerDominionNodes = playerDominionNodes;
-        return currentPlayerDominionNodes != null ? currentPlayerDominionNodes.getOrDefault(player, new CopyOnWriteArrayList<>()) : new CopyOnWriteArrayList<>();
+        return new CopyOnWriteArrayList<>(data.ownedTops(player));
     }
 
     /**
@@ -111,8 +290,7 @@ public class DominionCache extends Cache {
      * @return a list of all DominionNode objects
      */
     public @NotNull List<DominionNode> getAllDominionNodes() {
-        ConcurrentHashMap<Integer, DominionNode> currentDominionNodeMap = dominionNodeMap;
-        return currentDominionNodeMap != null ? new ArrayList<>(currentDominionNodeMap.values()) : new ArrayList<>();
+        return data.topNodes();
     }
 
     /**
@@ -122,12 +300,8 @@ public class DominionCache extends Cache {
      * @return a list of DominionDTO objects representing the children of the given dominion
      */
     public @NotNull List<DominionDTO> getChildrenOf(Integer id) {
-        ConcurrentHashMap<Integer, CopyOnWriteArrayList<Integer>> currentDominionChildrenMap = dominionChildrenMap;
-        if (currentDominionChildrenMap != null && currentDominionChildrenMap.containsKey(id)) {
-            return currentDominionChildrenMap.get(id).stream().map(this::getDominion).filter(Objects::nonNull).toList();
-        } else {
-            return new ArrayList<>();
-        }
+        DominionCacheData current = data;
+        return Arrays.stream(current.childIds(id)).mapToObj(current::dominion).filter(Objects::nonNull).toList();
     }
 
     /**
@@ -136,8 +310,7 @@ public class DominionCache extends Cache {
      * @return a list of all dominion names
      */
     public List<String> getAllDominionNames() {
-        ConcurrentHashMap<String, Integer> currentDominionNameToId = dominionNameToId;
-        return currentDominionNameToId != null ? new ArrayList<>(currentDominionNameToId.keySet()) : new ArrayList<>();
+        return new ArrayList<>(data.nameToId().keySet());
     }
 
     /**
@@ -147,18 +320,15 @@ public class DominionCache extends Cache {
      * @return a list of DominionDTOs owned by the player
      */
     public CopyOnWriteArrayList<DominionDTO> getPlayerOwnDominionDTOs(UUID player) {
-        ConcurrentHashMap<UUID, CopyOnWriteArrayList<Integer>> currentPlayerOwnDominions = playerOwnDominions;
-        if (currentPlayerOwnDominions == null) return new CopyOnWriteArrayList<>();
-
-        CopyOnWriteArrayList<Integer> dominionIds = currentPlayerOwnDominions.getOrDefault(player, new CopyOnWriteArrayList<>());
-        CopyOnWriteArrayList<DominionDTO> dominions = new CopyOnWriteArrayList<>();
-        for (Integer id : dominionIds) {
-            DominionDTO dominion = getDominion(id);
+        DominionCacheData current = data;
+        List<DominionDTO> dominions = new ArrayList<>();
+        for (int id : current.ownedIds(player)) {
+            DominionDTO dominion = current.dominion(id);
             if (dominion != null) {
                 dominions.add(dominion);
             }
         }
-        return dominions;
+        return new CopyOnWriteArrayList<>(dominions);
     }
 
     /**
@@ -218,45 +388,52 @@ public class DominionCache extends Cache {
     }
 
     public @NotNull List<DominionDTO> getAllDominions() {
-        ConcurrentHashMap<Integer, DominionDTO> currentIdDominions = idDominions;
-        return currentIdDominions != null ? new ArrayList<>(currentIdDominions.values()) : new ArrayList<>();
+        return data.allDominions();
+    }
+
+    /**
+     * Loads the cache from the dominions of this server fetched by the caller.
+     *
+     * @param rows all dominions of this server
+     */
+    public void load(@NotNull List<DominionDOO> rows) {
+        loadFrom(() -> loadExecution(rows));
     }
 
     @Override
     void loadExecution() throws Exception {
-        // Create temporary maps to avoid race conditions
-        ConcurrentHashMap<Integer, DominionDTO> tempIdDominions = new ConcurrentHashMap<>();
-        ConcurrentHashMap<Integer, CopyOnWriteArrayList<Integer>> tempDominionChildrenMap = new ConcurrentHashMap<>();
-        ConcurrentHashMap<String, Integer> tempDominionNameToId = new ConcurrentHashMap<>();
-        ConcurrentHashMap<UUID, CopyOnWriteArrayList<Integer>> tempPlayerOwnDominions = new ConcurrentHashMap<>();
-        ConcurrentHashMap<Integer, DominionNode> tempDominionNodeMap = new ConcurrentHashMap<>();
-        ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> tempPlayerDominionNodes = new ConcurrentHashMap<>();
-
-        CopyOnWriteArrayList<DominionDTO> dominions = new CopyOnWriteArrayList<>(DominionDOO.selectAll(serverId));
-
-        dominions.forEach(dominion -> tempIdDominions.put(dominion.getId(), dominion));
-
-        // build other caches
-        dominions.forEach(dominion -> {
-            tempDominionNameToId.put(dominion.getName(), dominion.getId());
-            tempPlayerOwnDominions.computeIfAbsent(dominion.getOwner(), k -> new CopyOnWriteArrayList<>()).add(dominion.getId());
-            tempDominionChildrenMap.computeIfAbsent(dominion.getParentDomId(), k -> new CopyOnWriteArrayList<>()).add(dominion.getId());
-        });
+        loadExecution(DominionDOO.selectAll(serverId));
+    }
+
+    private void loadExecution(List<DominionDOO> rows) throws Exception {
+        CopyOnWriteArrayList<DominionDTO> dominions = new CopyOnWriteArrayList<>(rows);
 
-        // Build tree synchronously using temporary cache
+        // Build tree and lookups off the published state
         CopyOnWriteArrayList<DominionNode> nodeTree = DominionNode.BuildNodeTree(-1, dominions);
-        parseNodeTree(tempPlayerDominionNodes, tempDominionNodeMap, nodeTree, tempIdDominions);
+        DominionCacheData newData = DominionCacheData.of(dominions, nodeTree);
 
         // Atomically replace all cache data
         synchronized (this) {
-            dominionNodeSectored.clearLocationCache();
-            idDominions = tempIdDominions;
-            dominionChildrenMap = tempDominionChildrenMap;
-            dominionNameToId = tempDominionNameToId;
-            playerOwnDominions = tempPlayerOwnDominions;
-            dominionNodeMap = tempDominionNodeMap;
-            playerDominionNodes = tempPlayerDominionNodes;
-            dominionNodeSectored.buildAsync(nodeTree);
+            boolean firstLoad = data == DominionCacheData.EMPTY;
+            dominionNodeIndex.clearLocationCache();
+            data = newData;
+            CacheManager.instance.getPrivilegeCache().invalidateAll();
+            // a full load may follow a configuration reload, so re-create the index in the configured mode
+            // and swap it in only when it is built, the old index keeps serving lookups meanwhile
+            DominionNodeIndex newIndex = DominionNodeIndex.create();
+            indexUpdates = newIndex.buildAsync(nodeTree).exceptionallyCompose(e -> {
+                // the updates queued meanwhile apply to the index in use, which must hold this tree, so build again
+                XLogger.error("Failed to build the dominion index of server {0}, building it again: {1}", serverId, e.getMessage());
+                return newIndex.buildAsync(nodeTree);
+            }).thenRun(() -> {
+                dominionNodeIndex = newIndex;
+                version.incrementAndGet();
+            });
+            version.incrementAndGet();
+            if (firstLoad) {
+                // there is no index yet to serve lookups meanwhile, so the startup waits for this one
+                indexUpdates.join();
+            }
         }
     }
 
@@ -266,83 +443,213 @@ public class DominionCache extends Cache {
         if (dominion == null) {
             return;
         }
-        dominionNodeSectored.clearLocationCache();
-        DominionDTO oldData = idDominions.put(dominion.getId(), dominion);
-        // remove old data
-        if (oldData != null) {
-            dominionNameToId.entrySet().removeIf(entry -> entry.getValue().equals(oldData.getId()));
-            playerOwnDominions.computeIfAbsent(oldData.getOwner(), k -> new CopyOnWriteArrayList<>()).remove(oldData.getId());
-            dominionChildrenMap.computeIfAbsent(oldData.getParentDomId(), k -> new CopyOnWriteArrayList<>()).remove(oldData.getId());
-        }
-        // update data
-        dominionNameToId.put(dominion.getName(), dominion.getId());
-        playerOwnDominions.computeIfAbsent(dominion.getOwner(), k -> new CopyOnWriteArrayList<>()).add(dominion.getId());
-        dominionChildrenMap.computeIfAbsent(dominion.getParentDomId(), k -> new CopyOnWriteArrayList<>()).add(dominion.getId());
-        // update node tree
-        rebuildTreeAsync();
+        update(batch -> {
+            DominionDTO oldData = batch.putDominion(dominion);
+            updateLookups(batch, oldData, dominion);
+            replaceNode(batch, oldData, dominion);
+        });
+        CacheManager.instance.getPrivilegeCache().invalidate(idToLoad);
     }
 
     @Override
     void deleteExecution(Integer idToDelete) throws Exception {
-        dominionNodeSectored.clearLocationCache();
-        DominionDTO dominionToDelete = idDominions.remove(idToDelete);
-        if (dominionToDelete == null) {
-            return;
+        update(batch -> {
+            DominionDTO dominionToDelete = batch.removeDominion(idToDelete);
+            if (dominionToDelete == null) {
+                return;
+            }
+            batch.removeChildren(idToDelete);
+            updateLookups(batch, dominionToDelete, null);
+            replaceNode(batch, dominionToDelete, null);
+        });
+        CacheManager.instance.getPrivilegeCache().invalidate(idToDelete);
+    }
+
+    @Override
+    boolean isIncremental() {
+        return true;
+    }
+
+    public void dominionNameUpdate(String oldName, String newName, Integer id) {
+        update(batch -> {
+            batch.removeName(oldName, id);
+            batch.putName(newName, id);
+        });
+    }
+
+    /**
+     * Applies a batch of changes and publishes the resulting state.
+     * <p>
+     * Changes are serialized, readers keep seeing the previous state until the new one is published.
+     */
+    private synchronized void update(Consumer<DominionCacheData.Batch> changes) {
+        if (data == DominionCacheData.EMPTY) {
+            return;  // not loaded yet, the full load will pick the change up
+        }
+        try {
+            DominionCacheData.Batch batch = data.edit();
+            changes.accept(batch);
+            data = batch.commit();
+            // after the commit, so the index never leads to nodes whose dominions are not published yet
+            indexChanges.forEach(this::updateIndex);
+        } finally {
+            indexChanges.clear();
+            // the dominion object itself changed even if its node did not
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Moves a dominion between the name, owner and children lookups, only where the attribute changed.
+     *
+     * @param oldData the dominion before the change, null if it is new
+     * @param newData the dominion after the change, null if it was deleted
+     */
+    private static void updateLookups(DominionCacheData.Batch batch, @Nullable DominionDTO oldData, @Nullable DominionDTO newData) {
+        if (oldData != null && (newData == null || !oldData.getName().equals(newData.getName()))) {
+            batch.removeName(oldData.getName(), oldData.getId());
+        }
+        if (newData != null && (oldData == null || !newData.getName().equals(oldData.getName()))) {
+            batch.putName(newData.getName(), newData.getId());
         }
-        // remove children map
-        dominionChildrenMap.remove(idToDelete);
-        if (dominionChildrenMap.containsKey(dominionToDelete.getParentDomId())) {
-            dominionChildrenMap.get(dominionToDelete.getParentDomId()).remove(idToDelete);
+        if (oldData != null && (newData == null || !oldData.getOwner().equals(newData.getOwner()))) {
+            batch.removeOwned(oldData.getOwner(), oldData.getId());
         }
-        // remove name map
-        dominionNameToId.entrySet().removeIf(entry -> entry.getValue().equals(idToDelete));
-        if (playerOwnDominions.containsKey(dominionToDelete.getOwner())) {
-            // remove player dominion map
-            playerOwnDominions.get(dominionToDelete.getOwner()).remove(idToDelete);
+        if (newData != null && (oldData == null || !newData.getOwner().equals(oldData.getOwner()))) {
+            batch.addOwned(newData.getOwner(), newData.getId());
+        }
+        if (oldData != null && (newData == null || !oldData.getParentDomId().equals(newData.getParentDomId()))) {
+            batch.removeChild(oldData.getParentDomId(), oldData.getId());
+        }
+        if (newData != null && (oldData == null || !newData.getParentDomId().equals(oldData.getParentDomId()))) {
+            batch.addChild(newData.getParentDomId(), newData.getId());
         }
-        // update node tree
-        dominionNodeMap.remove(idToDelete);
-        rebuildTreeAsync();
     }
 
-    public void dominionNameUpdate(String oldName, String newName, Integer id) {
-        if (dominionNameToId != null) {
-            dominionNameToId.remove(oldName);
-            dominionNameToId.put(newName, id);
+    /**
+     * Applies the change of one dominion to the node tree and the location index.
+     * <p>
+     * Only the node of the dominion is replaced, and only the cached lookups under its old and
+     * new cuboid are dropped. A change that keeps the cuboid and the parent (flags, name, owner...)
+     * leaves the tree and the location cache untouched.
+     *
+     * @param oldData the dominion before the change, null if it is new
+     * @param newData the dominion after the change, null if it was deleted
+     */
+    private void replaceNode(DominionCacheData.Batch batch, @Nullable DominionDTO oldData, @Nullable DominionDTO newData) {
+        Integer id = newData != null ? newData.getId() : Objects.requireNonNull(oldData).getId();
+        DominionNode oldNode = batch.node(id);
+        if (oldNode != null && oldData != null && newData != null
+                && sameGeometry(oldNode, newData) && oldData.getParentDomId().equals(newData.getParentDomId())) {
+            if (newData.getParentDomId() == -1 && !oldData.getOwner().equals(newData.getOwner())) {
+                batch.removeOwnedTop(oldData.getOwner(), oldNode);
+                batch.addOwnedTop(newData.getOwner(), oldNode);
+            }
+            return;
         }
+        if (oldNode != null && oldData != null) {
+            detachNode(batch, oldNode, oldData);
+        }
+        if (newData == null) {
+            batch.removeNode(id);
+            return;
+        }
+        DominionNode node = new DominionNode(newData);
+        if (oldNode != null) {
+            // the sub-dominions stay in place, they are re-parented to the new node
+            node.getChildren().addAll(oldNode.getChildren());
+            node.indexChildren();
+        }
+        batch.putNode(id, node);
+        attachNode(batch, node, newData);
     }
 
-    private CompletableFuture<Void> rebuildTreeAsync() {
-        return CompletableFuture.runAsync(() -> {
-            synchronized (this) {
-                ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> tempPlayerDominionNodes = new ConcurrentHashMap<>();
-                ConcurrentHashMap<Integer, DominionNode> tempDominionNodeMap = new ConcurrentHashMap<>();
+    private void detachNode(DominionCacheData.Batch batch, DominionNode node, DominionDTO dominion) {
+        if (dominion.getParentDomId() == -1) {
+            batch.removeOwnedTop(dominion.getOwner(), node);
+            indexChanges.add(index -> index.remove(node));
+            return;
+        }
+        DominionNode parent = batch.node(dominion.getParentDomId());
+        if (parent != null) {
+            parent = editable(batch, parent);
+            parent.getChildren().remove(node);
+            parent.indexChildren();
+        }
+        indexChanges.add(index -> index.invalidate(node.getWorldUid(), node.x1(), node.z1(), node.x2(), node.z2()));
+    }
 
-                CopyOnWriteArrayList<DominionNode> nodeTree = DominionNode.BuildNodeTree(-1, new CopyOnWriteArrayList<>(idDominions.values()));
-                parseNodeTree(tempPlayerDominionNodes, tempDominionNodeMap, nodeTree, idDominions);
+    private void attachNode(DominionCacheData.Batch batch, DominionNode node, DominionDTO dominion) {
+        // from the given dominion, looking it up would miss the unpublished batch and query the database
+        node.markFullHeight(dominion);
+        if (dominion.getParentDomId() == -1) {
+            batch.addOwnedTop(dominion.getOwner(), node);
+            indexChanges.add(index -> index.insert(node));
+            return;
+        }
+        DominionNode parent = batch.node(dominion.getParentDomId());
+        if (parent == null) {
+            return;  // orphans are not reachable in the tree, same as in a full build
+        }
+        parent = editable(batch, parent);
+        parent.getChildren().add(node);
+        parent.indexChildren();
+        indexChanges.add(index -> index.invalidate(node.getWorldUid(), node.x1(), node.z1(), node.x2(), node.z2()));
+    }
 
-                dominionNodeSectored.clearLocationCache();
-                playerDominionNodes = tempPlayerDominionNodes;
-                dominionNodeMap = tempDominionNodeMap;
-                dominionNodeSectored.buildAsync(nodeTree);
+    /**
+     * Gets a node whose children the batch may change. A node of the published state is copied, the copy takes
+     * its place in the batch and in its parent, which is copied the same way, up to the top-level node.
+     */
+    private DominionNode editable(DominionCacheData.Batch batch, DominionNode node) {
+        if (batch.isNew(node)) {
+            return node;
+        }
+        DominionNode copy = node.copy();
+        batch.putNode(copy.getDominionId(), copy);
+        DominionDTO dominion = batch.dominion(copy.getDominionId());
+        if (dominion == null || dominion.getParentDomId() == -1) {
+            if (dominion != null) {
+                batch.removeOwnedTop(dominion.getOwner(), node);
+                batch.addOwnedTop(dominion.getOwner(), copy);
             }
-        });
+            indexChanges.add(index -> {
+                index.remove(node);
+                index.insert(copy);
+            });
+            return copy;
+        }
+        DominionNode parent = batch.node(dominion.getParentDomId());
+        if (parent != null) {
+            parent = editable(batch, parent);
+            parent.getChildren().replaceAll(child -> child == node ? copy : child);
+            parent.indexChildren();
+        }
+        return copy;
     }
 
-    private static void parseNodeTree(ConcurrentHashMap<UUID, CopyOnWriteArrayList<DominionNode>> tempPlayerDominionNodes, ConcurrentHashMap<Integer, DominionNode> tempDominionNodeMap, CopyOnWriteArrayList<DominionNode> nodeTree, ConcurrentHashMap<Integer, DominionDTO> idDominions) {
-        nodeTree.forEach(node -> {
-            Integer dominionId = node.getDominionId();
-            DominionDTO dominionDTO = idDominions.get(dominionId);
-            if (dominionDTO != null) {
-                tempDominionNodeMap.put(dominionId, node);
-                tempPlayerDominionNodes.computeIfAbsent(dominionDTO.getOwner(), k -> new CopyOnWriteArrayList<>()).add(node);
-            }
+    /**
+     * Runs an index update after the pending full build (if any), on the index in use by then.
+     */
+    private void updateIndex(Consumer<DominionNodeIndex> update) {
+        indexUpdates = indexUpdates.exceptionally(e -> {
+            XLogger.error(e);
+            return null;
+        }).thenRun(() -> {
+            update.accept(dominionNodeIndex);
+            version.incrementAndGet();
         });
     }
 
+    private static boolean sameGeometry(DominionNode node, DominionDTO dominion) {
+        CuboidDTO cuboid = dominion.getCuboid();
+        return node.getWorldUid().equals(dominion.getWorldUid())
+                && node.x1() == cuboid.x1() && node.y1() == cuboid.y1() && node.z1() == cuboid.z1()
+                && node.x2() == cuboid.x2() && node.y2() == cuboid.y2() && node.z2() == cuboid.z2();
+    }
+
     public Integer count() {
-        ConcurrentHashMap<Integer, DominionDTO> currentIdDominions = idDominions;
-        return currentIdDominions != null ? currentIdDominions.size() : 0;
+        return data.dominions().size();
     }
 
     public List<DominionDTO> getDominionsByWorld(@NotNull World world) {
@@ -0,0 +1,286 @@
+package cn.lunadeer.dominion.cache.server;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.cache.DominionNode;
+import cn.lunadeer.dominion.utils.LongObjectHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An immutable state of a {@link DominionCache}, the dominions of one server and the lookups derived from them.
+ * <p>
+ * A state is never modified once published. Changes go through a {@link Batch}, which copies each map
+ * on its first change only and produces the next state, that the cache then publishes with a single
+ * reference swap. Readers holding a state always see all its maps consistent with each other, without locking.
+ * <p>
+ * The DominionNodes are shared between states, and the nodes of a published state are never changed either:
+ * a batch changing the children of a node changes a copy of it and of its ancestors, see {@link Batch#isNew}.
+ *
+ * @param dominions dominion ID -> DominionDTO
+ * @param children  dominion ID -> IDs of its direct children, -1 for the top-level dominions
+ * @param nameToId  dominion name -> dominion ID
+ * @param ownedIds  owner UUID -> IDs of the owned dominions
+ * @param ownedTops owner UUID -> owned top-level DominionNodes
+ * @param nodes     dominion ID -> DominionNode (any level)
+ */
+record DominionCacheData(LongObjectHashMap<DominionDTO> dominions,
+                         LongObjectHashMap<int[]> children,
+                         Map<String, Integer> nameToId,
+                         Map<UUID, int[]> ownedIds,
+                         Map<UUID, DominionNode[]> ownedTops,
+                         LongObjectHashMap<DominionNode> nodes) {
+
+    private static final int[] NO_IDS = new int[0];
+    private static final DominionNode[] NO_NODES = new DominionNode[0];
+
+    /**
+     * The state before the first load.
+     */
+    static final DominionCacheData EMPTY = new DominionCacheData(new LongObjectHashMap<>(), new LongObjectHashMap<>(),
+            Map.of(), Map.of(), Map.of(), new LongObjectHashMap<>());
+
+    /**
+     * Builds the state of a full load.
+     *
+     * @param dominionList the dominions of the server
+     * @param nodeTree     the top-level DominionNodes built from them
+     * @return the state
+     */
+    static @NotNull DominionCacheData of(@NotNull List<DominionDTO> dominionList, @NotNull List<DominionNode> nodeTree) {
+        LongObjectHashMap<DominionDTO> dominions = new LongObjectHashMap<>(dominionList.size());
+        Map<Integer, List<Integer>> children = new HashMap<>();
+        Map<String, Integer> nameToId = new HashMap<>(dominionList.size() * 2);
+        Map<UUID, List<Integer>> ownedIds = new HashMap<>();
+        for (DominionDTO dominion : dominionList) {
+            dominions.put(dominion.getId(), dominion);
+            nameToId.put(dominion.getName(), dominion.getId());
+            ownedIds.computeIfAbsent(dominion.getOwner(), k -> new ArrayList<>()).add(dominion.getId());
+            children.computeIfAbsent(dominion.getParentDomId(), k -> new ArrayList<>()).add(dominion.getId());
+        }
+        Map<UUID, List<DominionNode>> ownedTops = new HashMap<>();
+        for (DominionNode node : nodeTree) {
+            DominionDTO dominion = dominions.get(node.getDominionId());
+            if (dominion != null) {
+                ownedTops.computeIfAbsent(dominion.getOwner(), k -> new ArrayList<>()).add(node);
+            }
+        }
+        LongObjectHashMap<DominionNode> nodes = new LongObjectHashMap<>(dominionList.size());
+        mapAllNodes(nodes, nodeTree);
+
+        LongObjectHashMap<int[]> childIds = new LongObjectHashMap<>(children.size());
+        children.forEach((parent, ids) -> childIds.put(parent, toArray(ids)));
+        Map<UUID, int[]> ownedIdArrays = new HashMap<>(ownedIds.size() * 2);
+        ownedIds.forEach((owner, ids) -> ownedIdArrays.put(owner, toArray(ids)));
+        Map<UUID, DominionNode[]> ownedTopArrays = new HashMap<>(ownedTops.size() * 2);
+        ownedTops.forEach((owner, tops) -> ownedTopArrays.put(owner, tops.toArray(NO_NODES)));
+        return new DominionCacheData(dominions, childIds, nameToId, ownedIdArrays, ownedTopArrays, nodes);
+    }
+
+    private static void mapAllNodes(LongObjectHashMap<DominionNode> nodes, List<DominionNode> tree) {
+        for (DominionNode node : tree) {
+            nodes.put(node.getDominionId(), node);
+            mapAllNodes(nodes, node.getChildren());
+        }
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        int[] result = new int[ids.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(i);
+        }
+        return result;
+    }
+
+    @Nullable DominionDTO dominion(int id) {
+        return dominions.get(id);
+    }
+
+    int[] childIds(int id) {
+        int[] ids = children.get(id);
+        return ids == null ? NO_IDS : ids;
+    }
+
+    int[] ownedIds(@NotNull UUID owner) {
+        return ownedIds.getOrDefault(owner, NO_IDS);
+    }
+
+    DominionNode[] ownedTops(@NotNull UUID owner) {
+        return ownedTops.getOrDefault(owner, NO_NODES);
+    }
+
+    @Nullable DominionNode node(int id) {
+        return nodes.get(id);
+    }
+
+    /**
+     * @return the top-level DominionNodes
+     */
+    @NotNull List<DominionNode> topNodes() {
+        int[] ids = childIds(-1);
+        List<DominionNode> tops = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            DominionNode node = nodes.get(id);
+            if (node != null) tops.add(node);
+        }
+        return tops;
+    }
+
+    /**
+     * @return all DominionDTOs, in no particular order
+     */
+    @NotNull List<DominionDTO> allDominions() {
+        List<DominionDTO> all = new ArrayList<>(dominions.size());
+        dominions.forEach((id, dominion) -> all.add(dominion));
+        return all;
+    }
+
+    @NotNull Batch edit() {
+        return new Batch(this);
+    }
+
+    /**
+     * A copy-on-write batch of changes producing the next state, not thread-safe.
+     */
+    static final class Batch {
+        private final DominionCacheData base;
+        private LongObjectHashMap<DominionDTO> dominions;
+        private LongObjectHashMap<int[]> children;
+        private Map<String, Integer> nameToId;
+        private Map<UUID, int[]> ownedIds;
+        private Map<UUID, DominionNode[]> ownedTops;
+        private LongObjectHashMap<DominionNode> nodes;
+        // the nodes put by this batch, not published yet, so they may be changed in place
+        private final Set<DominionNode> created = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private Batch(DominionCacheData base) {
+            this.base = base;
+        }
+
+        /**
+         * @return the state with all changes of this batch
+         */
+        @NotNull DominionCacheData commit() {
+            return new DominionCacheData(
+                    dominions != null ? dominions : base.dominions,
+                    children != null ? children : base.children,
+                    nameToId != null ? nameToId : base.nameToId,
+                    ownedIds != null ? ownedIds : base.ownedIds,
+                    ownedTops != null ? ownedTops : base.ownedTops,
+                    nodes != null ? nodes : base.nodes);
+        }
+
+        @Nullable DominionDTO putDominion(@NotNull DominionDTO dominion) {
+            if (dominions == null) dominions = new LongObjectHashMap<>(base.dominions);
+            return dominions.put(dominion.getId(), dominion);
+        }
+
+        @Nullable DominionDTO removeDominion(int id) {
+            if (dominions == null) dominions = new LongObjectHashMap<>(base.dominions);
+            return dominions.remove(id);
+        }
+
+        void addChild(int parentId, int id) {
+            if (children == null) children = new LongObjectHashMap<>(base.children);
+            int[] ids = children.get(parentId);
+            children.put(parentId, append(ids == null ? NO_IDS : ids, id));
+        }
+
+        void removeChild(int parentId, int id) {
+            int[] ids = (children != null ? children : base.children).get(parentId);
+            if (ids == null) return;
+            if (children == null) children = new LongObjectHashMap<>(base.children);
+            children.put(parentId, without(ids, id));
+        }
+
+        void removeChildren(int parentId) {
+            if (!(children != null ? children : base.children).containsKey(parentId)) return;
+            if (children == null) children = new LongObjectHashMap<>(base.children);
+            children.remove(parentId);
+        }
+
+        void putName(@NotNull String name, int id) {
+            if (nameToId == null) nameToId = new HashMap<>(base.nameToId);
+            nameToId.put(name, id);
+        }
+
+        void removeName(@NotNull String name, int id) {
+            Integer mapped = (nameToId != null ? nameToId : base.nameToId).get(name);
+            if (mapped == null || mapped != id) return;
+            if (nameToId == null) nameToId = new HashMap<>(base.nameToId);
+            nameToId.remove(name);
+        }
+
+        void addOwned(@NotNull UUID owner, int id) {
+            if (ownedIds == null) ownedIds = new HashMap<>(base.ownedIds);
+            ownedIds.put(owner, append(ownedIds.getOrDefault(owner, NO_IDS), id));
+        }
+
+        void removeOwned(@NotNull UUID owner, int id) {
+            int[] ids = (ownedIds != null ? ownedIds : base.ownedIds).get(owner);
+            if (ids == null) return;
+            if (ownedIds == null) ownedIds = new HashMap<>(base.ownedIds);
+            ownedIds.put(owner, without(ids, id));
+        }
+
+        void addOwnedTop(@NotNull UUID owner, @NotNull DominionNode node) {
+            if (ownedTops == null) ownedTops = new HashMap<>(base.ownedTops);
+            DominionNode[] tops = ownedTops.getOrDefault(owner, NO_NODES);
+            DominionNode[] result = Arrays.copyOf(tops, tops.length + 1);
+            result[tops.length] = node;
+            ownedTops.put(owner, result);
+        }
+
+        void removeOwnedTop(@NotNull UUID owner, @NotNull DominionNode node) {
+            DominionNode[] tops = (ownedTops != null ? ownedTops : base.ownedTops).get(owner);
+            if (tops == null) return;
+            if (ownedTops == null) ownedTops = new HashMap<>(base.ownedTops);
+            ownedTops.put(owner, Arrays.stream(tops).filter(top -> top != node).toArray(DominionNode[]::new));
+        }
+
+        @Nullable DominionNode node(int id) {
+            return (nodes != null ? nodes : base.nodes).get(id);
+        }
+
+        @Nullable DominionDTO dominion(int id) {
+            return (dominions != null ? dominions : base.dominions).get(id);
+        }
+
+        void putNode(int id, @NotNull DominionNode node) {
+            if (nodes == null) nodes = new LongObjectHashMap<>(base.nodes);
+            nodes.put(id, node);
+            created.add(node);
+        }
+
+        /**
+         * @param node a node of this batch
+         * @return true if the node was put by this batch, false if it belongs to the published state
+         */
+        boolean isNew(@NotNull DominionNode node) {
+            return created.contains(node);
+        }
+
+        void removeNode(int id) {
+            if (nodes == null) nodes = new LongObjectHashMap<>(base.nodes);
+            nodes.remove(id);
+        }
+
+        private static int[] append(int[] ids, int id) {
+            int[] result = Arrays.copyOf(ids, ids.length + 1);
+            result[ids.length] = id;
+            return result;
+        }
+
+        private static int[] without(int[] ids, int id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] != id) continue;
+                int[] result = new int[ids.length - 1];
+                System.arraycopy(ids, 0, result, 0, i);
+                System.arraycopy(ids, i + 1, result, i, ids.length - i - 1);
+                return result;
+            }
+            return ids;
+        }
+    }
+}
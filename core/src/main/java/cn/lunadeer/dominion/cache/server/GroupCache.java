@@ -55,13 +55,26 @@ public class GroupCache extends Cache {
         return groups;
     }
 
+    /**
+     * Loads the cache from the groups of every server fetched by the caller, the groups of this server are kept.
+     * Needs the dominions loaded, like {@link #load()}.
+     *
+     * @param allGroups all groups
+     */
+    public void load(@NotNull List<GroupDOO> allGroups) {
+        loadFrom(() -> loadExecution(allGroups));
+    }
+
     @Override
     void loadExecution() throws Exception {
+        loadExecution(GroupDOO.select());
+    }
+
+    private void loadExecution(List<GroupDOO> allGroups) throws Exception {
         // Create temporary maps to avoid race conditions
         ConcurrentHashMap<Integer, GroupDTO> tempIdGroups = new ConcurrentHashMap<>();
         ConcurrentHashMap<Integer, CopyOnWriteArrayList<Integer>> tempDominionGroupsMap = new ConcurrentHashMap<>();
 
-        List<GroupDOO> allGroups = GroupDOO.select();
         for (GroupDOO group : allGroups) {
             DominionDTO dominion = CacheManager.instance.getDominion(group.getDomID());
             if (dominion == null || !Objects.equals(dominion.getServerId(), serverId)) continue;
@@ -76,6 +89,7 @@ public class GroupCache extends Cache {
             idGroups = tempIdGroups;
             dominionGroupsMap = tempDominionGroupsMap;
         }
+        CacheManager.instance.getPrivilegeCache().invalidateAll();
     }
 
     @Override
@@ -86,6 +100,9 @@ public class GroupCache extends Cache {
             synchronized (this) {
                 if (idGroups != null) {
                     GroupDTO removed = idGroups.remove(idToLoad);
+                    if (removed != null) {
+                        CacheManager.instance.getPrivilegeCache().invalidate(removed.getDomID());
+                    }
                     if (removed != null && dominionGroupsMap != null) {
                         CopyOnWriteArrayList<Integer> groupList = dominionGroupsMap.get(removed.getDomID());
                         if (groupList != null) {
@@ -108,6 +125,7 @@ public class GroupCache extends Cache {
 
             // Remove old group from dominion mapping if it existed and was in different dominion
             if (old != null && !Objects.equals(old.getDomID(), group.getDomID())) {
+                CacheManager.instance.getPrivilegeCache().invalidate(old.getDomID());
                 CopyOnWriteArrayList<Integer> oldGroupList = dominionGroupsMap.get(old.getDomID());
                 if (oldGroupList != null) {
                     oldGroupList.remove(old.getId());
@@ -118,6 +136,7 @@ public class GroupCache extends Cache {
             dominionGroupsMap.computeIfAbsent(group.getDomID(), k -> new CopyOnWriteArrayList<>())
                     .addIfAbsent(group.getId());
         }
+        CacheManager.instance.getPrivilegeCache().invalidate(group.getDomID());
     }
 
     @Override
@@ -129,6 +148,7 @@ public class GroupCache extends Cache {
         synchronized (this) {
             GroupDTO group = idGroups.remove(idToDelete);
             if (group != null) {
+                CacheManager.instance.getPrivilegeCache().invalidate(group.getDomID());
                 CopyOnWriteArrayList<Integer> groupList = dominionGroupsMap.get(group.getDomID());
                 if (groupList != null) {
                     groupList.remove(group.getId());
@@ -116,15 +116,28 @@ public class MemberCache extends Cache {
         return getMembersByIDs(groupId, currentGroupMembersMap);
     }
 
+    /**
+     * Loads the cache from the members of every server fetched by the caller, the members of this server are kept.
+     * Needs the player cache and the dominions loaded, like {@link #load()}.
+     *
+     * @param allMembers all members
+     */
+    public void load(@NotNull List<MemberDOO> allMembers) {
+        loadFrom(() -> loadExecution(allMembers));
+    }
+
     @Override
     void loadExecution() throws Exception {
+        loadExecution(MemberDOO.select());
+    }
+
+    private void loadExecution(List<MemberDOO> allMembers) throws Exception {
         // Create temporary maps to avoid race conditions
         ConcurrentHashMap<Integer, MemberDTO> tempIdMembers = new ConcurrentHashMap<>();
         ConcurrentHashMap<Integer, CopyOnWriteArrayList<Integer>> tempDominionMembersMap = new ConcurrentHashMap<>();
         ConcurrentHashMap<UUID, Map<Integer, Integer>> tempPlayerDominionMemberMap = new ConcurrentHashMap<>();
         ConcurrentHashMap<Integer, CopyOnWriteArrayList<Integer>> tempGroupMembersMap = new ConcurrentHashMap<>();
 
-        List<MemberDOO> allMembers = MemberDOO.select();
         for (MemberDOO member : allMembers) {
             PlayerDTO player = CacheManager.instance.getPlayer(member.getPlayerUUID());
             if (player == null) {
@@ -154,6 +167,7 @@ public class MemberCache extends Cache {
             playerDominionMemberMap = tempPlayerDominionMemberMap;
             groupMembersMap = tempGroupMembersMap;
         }
+        CacheManager.instance.getPrivilegeCache().invalidateAll();
     }
 
     @Override
@@ -166,6 +180,7 @@ public class MemberCache extends Cache {
                     MemberDTO removed = idMembers.remove(idToLoad);
                     if (removed != null) {
                         removeFromMappings(removed);
+                        CacheManager.instance.getPrivilegeCache().invalidate(removed.getDomID());
                     }
                 }
             }
@@ -185,11 +200,15 @@ public class MemberCache extends Cache {
             // Remove old member from all mappings if it existed
             if (old != null) {
                 removeFromMappings(old);
+                if (!Objects.equals(old.getDomID(), member.getDomID())) {
+                    CacheManager.instance.getPrivilegeCache().invalidate(old.getDomID());
+                }
             }
 
             // Add new member to all mappings
             addToMappings(member);
         }
+        CacheManager.instance.getPrivilegeCache().invalidate(member.getDomID());
     }
 
     @Override
@@ -202,6 +221,7 @@ public class MemberCache extends Cache {
             MemberDTO member = idMembers.remove(idToDelete);
             if (member != null) {
                 removeFromMappings(member);
+                CacheManager.instance.getPrivilegeCache().invalidate(member.getDomID());
             }
         }
     }
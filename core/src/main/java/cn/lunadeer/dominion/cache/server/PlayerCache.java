@@ -6,6 +6,7 @@ import cn.lunadeer.dominion.api.dtos.PlayerDTO;
 import cn.lunadeer.dominion.cache.CacheManager;
 import cn.lunadeer.dominion.configuration.Configuration;
 import cn.lunadeer.dominion.doos.PlayerDOO;
+import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -25,8 +26,21 @@ public class PlayerCache extends Cache {
     public PlayerCache() {
     }
 
+    /**
+     * Loads the cache from the players fetched by the caller.
+     *
+     * @param players all players
+     */
+    public void load(@NotNull List<PlayerDTO> players) {
+        loadFrom(() -> loadExecution(players));
+    }
+
     @Override
     void loadExecution() throws Exception {
+        loadExecution(PlayerDOO.all());
+    }
+
+    private void loadExecution(List<PlayerDTO> players) throws Exception {
         // Create temporary maps to avoid race conditions
         ConcurrentHashMap<UUID, String> tempPlayerNameCache = new ConcurrentHashMap<>();
         ConcurrentHashMap<String, Integer> tempPlayerNameToId = new ConcurrentHashMap<>();
@@ -34,7 +48,6 @@ public class PlayerCache extends Cache {
         ConcurrentHashMap<UUID, Integer> tempPlayerUsingTitleId = new ConcurrentHashMap<>();
         ConcurrentHashMap<Integer, PlayerDTO> tempPlayerCache = new ConcurrentHashMap<>();
 
-        List<PlayerDTO> players = PlayerDOO.all();
         for (PlayerDTO player : players) {
             tempPlayerIdCache.put(player.getUuid(), player.getId());
             tempPlayerNameToId.put(player.getLastKnownName(), player.getId());
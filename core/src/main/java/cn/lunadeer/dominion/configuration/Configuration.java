@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.configuration;
 
 import cn.lunadeer.dominion.Dominion;
+import cn.lunadeer.dominion.cache.CacheManager;
 import cn.lunadeer.dominion.utils.MessageDisplay;
 import cn.lunadeer.dominion.utils.Notification;
 import cn.lunadeer.dominion.utils.XLogger;
@@ -189,6 +190,26 @@ public class Configuration extends ConfigurationFile {
         public double boundaryParticlesPerEdgeBlock = 4.0;
     }
 
+    @Comments({
+            "The settings of the index used to find the dominion at a location.",
+            "Changes take effect after the cache is reloaded."
+    })
+    public static SpatialIndex spatialIndex = new SpatialIndex();
+
+    public static class SpatialIndex extends ConfigurationPart {
+        @Comments({
+                "Supported modes: GRID, SECTORED",
+                "GRID buckets dominions by cell so a lookup only tests the dominions overlapping that cell.",
+                "SECTORED is the legacy index that splits each world into four quadrants, use it as a fallback."
+        })
+        public String mode = "GRID";
+        @Comments({
+                "The cell size of GRID mode in blocks, rounded up to a power of two.",
+                "Minimum 16 (one chunk). Bigger cells use less memory but test more dominions per lookup."
+        })
+        public int cellSize = 16;
+    }
+
     @Comments("Weather the player can migrate residence data to dominion.")
     public static boolean residenceMigration = false;
 
@@ -271,6 +292,17 @@ public class Configuration extends ConfigurationFile {
             pluginMessage.enterLeaveDisplayPlace = "ACTION_BAR";
         }
 
+        if (!spatialIndex.mode.equalsIgnoreCase("GRID") && !spatialIndex.mode.equalsIgnoreCase("SECTORED")) {
+            XLogger.warn("Invalid spatial-index.mode value: {0}; using GRID.", spatialIndex.mode);
+            spatialIndex.mode = "GRID";
+        } else {
+            spatialIndex.mode = spatialIndex.mode.toUpperCase(Locale.ROOT);
+        }
+
+        if (spatialIndex.cellSize < 16) {
+            spatialIndex.cellSize = 16;
+        }
+
         if (!ui.defaultUi.equalsIgnoreCase("CHEST") && !ui.defaultUi.equalsIgnoreCase("DIALOG")) {
             XLogger.warn("Invalid ui.default value: {0}; using CHEST.", ui.defaultUi);
             ui.defaultUi = "CHEST";
@@ -349,11 +381,26 @@ public class Configuration extends ConfigurationFile {
     /**
      * Gets the limitation for a player based on their permissions.
      * If the player has multiple limitations, the one with the lowest priority is returned.
+     * <p>
+     * The limitation of an online player is taken from its permission snapshot, see {@link cn.lunadeer.dominion.cache.PermissionCache}.
      *
      * @param player the player whose limitation is to be retrieved, or null to get the default limitation
      * @return the limitation for the player, or the default limitation if the player is null or has no specific limitations
      */
     public static @NotNull Limitation getPlayerLimitation(@Nullable Player player) {
+        if (player != null && CacheManager.instance != null) {
+            return CacheManager.instance.getPermissionCache().getLimitation(player);
+        }
+        return resolvePlayerLimitation(player);
+    }
+
+    /**
+     * Resolves the limitation for a player from their permissions, without the permission snapshot.
+     *
+     * @param player the player whose limitation is to be resolved, or null to get the default limitation
+     * @return the limitation for the player, or the default limitation if the player is null or has no specific limitations
+     */
+    public static @NotNull Limitation resolvePlayerLimitation(@Nullable Player player) {
         if (player == null) {
             return limitations.get("default");
         }
@@ -403,6 +450,9 @@ public class Configuration extends ConfigurationFile {
         handleLegacyConfiguration();
         // configuration
         ConfigurationManager.load(Configuration.class, new File(Dominion.instance.getDataFolder(), "config.yml"), "version");
+        if (CacheManager.instance != null) {
+            CacheManager.instance.getPermissionCache().invalidateAll();  // limitations are reloaded
+        }
         Notification.info(sender != null ? sender : Dominion.instance.getServer().getConsoleSender()
                 , Language.configurationText.loadConfiguration);
         // language
@@ -4,6 +4,7 @@ import cn.lunadeer.dominion.Dominion;
 import cn.lunadeer.dominion.api.dtos.flag.FlagGroups;
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.events.EventsRegister;
 import cn.lunadeer.dominion.storage.DatabaseManager;
 import cn.lunadeer.dominion.uis.DominionUi;
 import cn.lunadeer.dominion.utils.scheduler.Scheduler;
@@ -71,6 +72,7 @@ public final class FlagApplyCoordinator {
             Scheduler.runTask(() -> {
                 try {
                     DominionUi.reload();
+                    EventsRegister.instance.refresh();
                     uiReload.complete(null);
                 } catch (Throwable throwable) {
                     uiReload.completeExceptionally(throwable);
@@ -7,6 +7,7 @@ import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
 import cn.lunadeer.dominion.cache.CacheManager;
 import cn.lunadeer.dominion.cache.CacheSyncManager;
+import cn.lunadeer.dominion.cache.server.ServerCache;
 import cn.lunadeer.dominion.configuration.Configuration;
 import cn.lunadeer.dominion.storage.repository.DominionRepository;
 import org.bukkit.Color;
@@ -29,8 +30,8 @@ public class DominionDOO implements DominionDTO {
     private Integer parentDomId = -1;
     private String joinMessage = "";
     private String leaveMessage = "";
-    private final Map<EnvFlag, Boolean> envFlags = new HashMap<>();
-    private final Map<PriFlag, Boolean> preFlags = new HashMap<>();
+    private final FlagBits<EnvFlag> envFlags = new FlagBits<>();
+    private final FlagBits<PriFlag> preFlags = new FlagBits<>();
     private String tp_location = "default";
     private String color = "#00BFFF";
     private UUID world_uid;
@@ -61,7 +62,9 @@ public class DominionDOO implements DominionDTO {
     }
 
     public static List<DominionDOO> selectAll(Integer serverId) throws SQLException {
-        return DominionRepository.selectAll(serverId).stream().map(DominionDOO::parse).toList();
+        List<DominionDOO> dominions = new ArrayList<>();
+        DominionRepository.selectAll(serverId, row -> dominions.add(parse(row)));
+        return dominions;
     }
 
     public static DominionDOO rootDominion() {
@@ -146,10 +149,10 @@ public class DominionDOO implements DominionDTO {
         this.leaveMessage = Configuration.pluginMessage.defaultLeaveMessage;
         this.serverId = Configuration.multiServer.serverId;
         for (EnvFlag flag : Flags.getAllEnvFlagsEnable()) {
-            this.envFlags.put(flag, flag.getDefaultValue());
+            this.envFlags.set(flag, flag.getDefaultValue());
         }
         for (PriFlag flag : Flags.getAllPriFlagsEnable()) {
-            this.preFlags.put(flag, flag.getDefaultValue());
+            this.preFlags.set(flag, flag.getDefaultValue());
         }
     }
 
@@ -157,7 +160,7 @@ public class DominionDOO implements DominionDTO {
         return new DominionRepository.DominionRow(
                 id, owner, name, world_uid,
                 cuboid.x1(), cuboid.y1(), cuboid.z1(), cuboid.x2(), cuboid.y2(), cuboid.z2(),
-                parentDomId, joinMessage, leaveMessage, envFlags, preFlags, tp_location, color, serverId
+                parentDomId, joinMessage, leaveMessage, envFlags.asMap(), preFlags.asMap(), tp_location, color, serverId
         );
     }
 
@@ -281,10 +284,7 @@ public class DominionDOO implements DominionDTO {
     @Override
     public @NotNull DominionDOO setJoinMessage(String joinMessage) throws SQLException {
         this.joinMessage = joinMessage;
-        DominionRepository.updateJoinMessage(id, joinMessage);
-        if (CacheSyncManager.instance != null) {
-            CacheSyncManager.instance.notifyDominion(getId());
-        }
+        DominionRepository.updateJoinMessage(id, joinMessage, this::notifyUpdated);
         return this;
     }
 
@@ -296,16 +296,13 @@ public class DominionDOO implements DominionDTO {
     @Override
     public @NotNull DominionDOO setLeaveMessage(String leaveMessage) throws SQLException {
         this.leaveMessage = leaveMessage;
-        DominionRepository.updateLeaveMessage(id, leaveMessage);
-        if (CacheSyncManager.instance != null) {
-            CacheSyncManager.instance.notifyDominion(getId());
-        }
+        DominionRepository.updateLeaveMessage(id, leaveMessage, this::notifyUpdated);
         return this;
     }
 
     @Override
     public @NotNull Map<EnvFlag, Boolean> getEnvironmentFlagValue() {
-        return envFlags;
+        return envFlags.asMap();
     }
 
     /**
@@ -316,12 +313,12 @@ public class DominionDOO implements DominionDTO {
      */
     @Override
     public boolean getEnvFlagValue(@NotNull EnvFlag flag) {
-        return envFlags.getOrDefault(flag, false);
+        return envFlags.get(flag, false);
     }
 
     @Override
     public @NotNull Map<PriFlag, Boolean> getGuestPrivilegeFlagValue() {
-        return preFlags;
+        return preFlags.asMap();
     }
 
     /**
@@ -332,29 +329,25 @@ public class DominionDOO implements DominionDTO {
      */
     @Override
     public boolean getGuestFlagValue(@NotNull PriFlag flag) {
-        if (preFlags.equals(Flags.ADMIN)) { // guest's admin flag is always false
+        if (flag.equals(Flags.ADMIN)) { // guest's admin flag is always false
             return false;
         }
-        return preFlags.getOrDefault(flag, false);
+        return preFlags.get(flag, false);
     }
 
     @Override
     public @NotNull DominionDOO setEnvFlagValue(@NotNull EnvFlag flag, @NotNull Boolean value) throws SQLException {
-        envFlags.put(flag, value);
-        DominionRepository.updateEnvFlag(id, flag, value);
-        if (CacheSyncManager.instance != null) {
-            CacheSyncManager.instance.notifyDominion(getId());
-        }
+        envFlags.set(flag, value);
+        DominionRepository.updateEnvFlag(id, flag, value, this::notifyUpdated);
+        envFlagsChanged();
         return this;
     }
 
     @Override
     public @NotNull DominionDOO setGuestFlagValue(@NotNull PriFlag flag, @NotNull Boolean value) throws SQLException {
-        preFlags.put(flag, value);
-        DominionRepository.updateGuestFlag(id, flag, value);
-        if (CacheSyncManager.instance != null) {
-            CacheSyncManager.instance.notifyDominion(getId());
-        }
+        preFlags.set(flag, value);
+        DominionRepository.updateGuestFlag(id, flag, value, this::notifyUpdated);
+        CacheManager.instance.getPrivilegeCache().invalidate(id);
         return this;
     }
 
@@ -387,20 +380,29 @@ public class DominionDOO implements DominionDTO {
     @Override
     public @NotNull DominionDOO setTpLocation(Location loc) throws SQLException {
         this.tp_location = loc.getBlockX() + ":" + loc.getBlockY() + ":" + loc.getBlockZ() + ":" + loc.getYaw() + ":" + loc.getPitch();
-        DominionRepository.updateTpLocation(id, this.tp_location);
-        if (CacheSyncManager.instance != null) {
-            CacheSyncManager.instance.notifyDominion(getId());
-        }
+        DominionRepository.updateTpLocation(id, this.tp_location, this::notifyUpdated);
         return this;
     }
 
     public @NotNull DominionDOO setColor(@NotNull Color color) throws SQLException {
         this.color = String.format("#%02x%02x%02x", color.getRed(), color.getGreen(), color.getBlue());
-        DominionRepository.updateColor(id, this.color);
+        DominionRepository.updateColor(id, this.color, this::notifyUpdated);
+        return this;
+    }
+
+    // the decisions cached by the version of the dominion cache depend on the flags, set after the new values
+    private void envFlagsChanged() {
+        ServerCache serverCache = CacheManager.instance.getCache(getServerId());
+        if (serverCache != null) {
+            serverCache.getDominionCache().envFlagsChanged();
+        }
+    }
+
+    // runs once the change is written, see WriteBehindQueue
+    private void notifyUpdated() {
         if (CacheSyncManager.instance != null) {
             CacheSyncManager.instance.notifyDominion(getId());
         }
-        return this;
     }
 
     @Override
@@ -0,0 +1,276 @@
+package cn.lunadeer.dominion.doos;
+
+import cn.lunadeer.dominion.api.dtos.flag.Flag;
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Flag values of a DOO stored as bits.
+ * <p>
+ * Every flag gets a stable index the first time it is registered, keyed by its flag name, so the
+ * same flag maps to the same bit for the whole lifetime of the server, also across flag reloads.
+ * A set keeps two bitsets: the values, and the mask of the flags explicitly set, which tells a
+ * flag set to false apart from a flag that was never set (and falls back to a default).
+ * <p>
+ * {@link #asMap()} exposes the set as a {@code Map<F, Boolean>} of the explicitly set flags, this is
+ * what the DTO getters return. Like the HashMaps it replaces, a set is not thread-safe for writes.
+ *
+ * @param <F> the flag type
+ */
+public final class FlagBits<F extends Flag> {
+
+    // guarded by the class lock
+    private static final Map<String, Integer> INDEX = new HashMap<>();
+    // flag instance -> index, copied on write so the hot path reads it without locking or hashing a name
+    private static volatile Map<Flag, Integer> INSTANCES = new IdentityHashMap<>();
+    private static volatile Flag[] FLAGS = new Flag[0];
+
+    static {
+        // register the built-in flags first, so their indices follow the declaration order
+        for (Flag flag : Flags.getAllFlags()) {
+            indexOf(flag);
+        }
+    }
+
+    /**
+     * Gets the stable index of a flag, registering the flag on the first call.
+     *
+     * @param flag the flag
+     * @return the index of the flag
+     */
+    public static int indexOf(@NotNull Flag flag) {
+        Integer index = INSTANCES.get(flag);
+        return index != null ? index : register(flag, true);
+    }
+
+    /**
+     * Maps a flag instance to the index of its name, the first instance of a name gets a new index.
+     * A reloaded flag is a new instance of a known name, it becomes the instance the map views return.
+     *
+     * @return the index, or -1 if the name is unknown and {@code create} is false
+     */
+    private static synchronized int register(Flag flag, boolean create) {
+        Integer index = INSTANCES.get(flag);
+        if (index != null) return index;  // registered meanwhile
+        index = INDEX.get(flag.getFlagName());
+        if (index == null) {
+            if (!create) return -1;
+            index = FLAGS.length;
+            INDEX.put(flag.getFlagName(), index);
+        }
+        Flag[] flags = Arrays.copyOf(FLAGS, Math.max(FLAGS.length, index + 1));
+        flags[index] = flag;
+        Map<Flag, Integer> instances = new IdentityHashMap<>(INSTANCES);
+        instances.put(flag, index);
+        FLAGS = flags;
+        INSTANCES = instances;
+        return index;
+    }
+
+    private long[] values = new long[0];
+    private long[] explicit = new long[0];
+    private int size = 0;
+    private Map<F, Boolean> view;
+
+    public FlagBits() {
+    }
+
+    public FlagBits(@Nullable Map<? extends F, Boolean> flags) {
+        putAll(flags);
+    }
+
+    /**
+     * @param flag the flag
+     * @return whether the flag is explicitly set
+     */
+    public boolean isSet(@NotNull F flag) {
+        return isSet(indexOf(flag));
+    }
+
+    /**
+     * @param flag         the flag
+     * @param defaultValue the value if the flag is not explicitly set
+     * @return the value of the flag
+     */
+    public boolean get(@NotNull F flag, boolean defaultValue) {
+        int index = indexOf(flag);
+        if (!isSet(index)) return defaultValue;
+        return (values[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets a flag explicitly.
+     *
+     * @param flag  the flag
+     * @param value the value of the flag
+     */
+    public void set(@NotNull F flag, boolean value) {
+        set(indexOf(flag), value);
+    }
+
+    void putAll(@Nullable Map<? extends F, Boolean> flags) {
+        if (flags == null) return;
+        if (flags instanceof FlagBits<?>.View view) {
+            FlagBits<?> source = view.bits();
+            if (size == 0 && source != this) {
+                values = source.values.clone();
+                explicit = source.explicit.clone();
+                size = source.size;
+                return;
+            }
+        }
+        flags.forEach((flag, value) -> {
+            if (value != null) set(flag, value);
+        });
+    }
+
+    /**
+     * @return a live map view of the explicitly set flags
+     */
+    public @NotNull Map<F, Boolean> asMap() {
+        if (view == null) view = new View();
+        return view;
+    }
+
+    private boolean isSet(int index) {
+        int word = index >>> 6;
+        return word < explicit.length && (explicit[word] & (1L << index)) != 0;
+    }
+
+    private void set(int index, boolean value) {
+        int word = index >>> 6;
+        if (word >= explicit.length) {
+            values = Arrays.copyOf(values, word + 1);
+            explicit = Arrays.copyOf(explicit, word + 1);
+        }
+        long bit = 1L << index;
+        if ((explicit[word] & bit) == 0) size++;
+        explicit[word] |= bit;
+        if (value) values[word] |= bit;
+        else values[word] &= ~bit;
+    }
+
+    private void unset(int index) {
+        if (!isSet(index)) return;
+        int word = index >>> 6;
+        long bit = 1L << index;
+        explicit[word] &= ~bit;
+        values[word] &= ~bit;
+        size--;
+    }
+
+    private int nextSet(int from) {
+        int word = from >>> 6;
+        if (word >= explicit.length) return -1;
+        long bits = explicit[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) return (word << 6) + Long.numberOfTrailingZeros(bits);
+            if (++word >= explicit.length) return -1;
+            bits = explicit[word];
+        }
+    }
+
+    /**
+     * @return the index of a map key, or -1 if the key is not a registered flag
+     */
+    private static int indexOfKey(Object key) {
+        if (!(key instanceof Flag flag)) return -1;
+        Integer index = INSTANCES.get(flag);
+        return index != null ? index : register(flag, false);
+    }
+
+    private final class View extends AbstractMap<F, Boolean> {
+
+        FlagBits<F> bits() {
+            return FlagBits.this;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            int index = indexOfKey(key);
+            return index >= 0 && isSet(index);
+        }
+
+        @Override
+        public Boolean get(Object key) {
+            int index = indexOfKey(key);
+            if (index < 0 || !isSet(index)) return null;
+            return (values[index >>> 6] & (1L << index)) != 0;
+        }
+
+        @Override
+        public Boolean getOrDefault(Object key, Boolean defaultValue) {
+            Boolean value = get(key);
+            return value == null ? defaultValue : value;
+        }
+
+        @Override
+        public Boolean put(F key, Boolean value) {
+            Boolean previous = get(key);
+            set(key, Objects.requireNonNull(value));
+            return previous;
+        }
+
+        @Override
+        public Boolean remove(Object key) {
+            Boolean previous = get(key);
+            if (previous != null) unset(indexOfKey(key));
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(values, 0);
+            Arrays.fill(explicit, 0);
+            size = 0;
+        }
+
+        @Override
+        public @NotNull Set<Entry<F, Boolean>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public @NotNull Iterator<Entry<F, Boolean>> iterator() {
+                    return new Iterator<>() {
+                        private int next = nextSet(0);
+                        private int last = -1;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next >= 0;
+                        }
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public Entry<F, Boolean> next() {
+                            if (next < 0) throw new NoSuchElementException();
+                            last = next;
+                            next = nextSet(last + 1);
+                            F flag = (F) FLAGS[last];
+                            return new SimpleImmutableEntry<>(flag, (values[last >>> 6] & (1L << last)) != 0);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last < 0) throw new IllegalStateException();
+                            unset(last);
+                            last = -1;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -22,7 +22,7 @@ public class GroupDOO implements GroupDTO {
     private Integer dom_id;
     private String name_raw;
     private String name_color;
-    private final Map<PriFlag, Boolean> flags = new HashMap<>();
+    private final FlagBits<PriFlag> flags = new FlagBits<>();
 
     private static GroupDOO parse(GroupRepository.GroupRow row) {
         if (row == null) return null;
@@ -71,33 +71,35 @@ public class GroupDOO implements GroupDTO {
 
     @Override
     public @NotNull Boolean getFlagValue(@NotNull PriFlag flag) {
-        return flags.getOrDefault(flag, flag.getDefaultValue());
+        return flags.get(flag, flag.getDefaultValue());
     }
 
     @Override
     public @NotNull Map<PriFlag, Boolean> getFlagsValue() {
-        return flags;
+        return flags.asMap();
     }
 
     @Override
     public @NotNull GroupDOO setName(@NotNull String name) throws SQLException {
         this.name_color = name;
         this.name_raw = ColorParser.getPlainText(name);
-        GroupRepository.updateName(id, name_raw, name_color);
-        if (CacheSyncManager.instance != null) {
-            CacheSyncManager.instance.notifyGroup(getId());
-        }
+        GroupRepository.updateName(id, name_raw, name_color, this::notifyUpdated);
         return this;
     }
 
     @Override
     public @NotNull GroupDOO setFlagValue(@NotNull PriFlag flag, @NotNull Boolean value) throws SQLException {
-        flags.put(flag, value);
-        GroupRepository.updateFlag(id, flag, value);
+        flags.set(flag, value);
+        GroupRepository.updateFlag(id, flag, value, this::notifyUpdated);
+        CacheManager.instance.getPrivilegeCache().invalidate(dom_id);
+        return this;
+    }
+
+    // runs once the change is written, see WriteBehindQueue
+    private void notifyUpdated() {
         if (CacheSyncManager.instance != null) {
             CacheSyncManager.instance.notifyGroup(getId());
         }
-        return this;
     }
 
     @Override
@@ -116,7 +118,7 @@ public class GroupDOO implements GroupDTO {
 
     public static GroupDOO create(String name, DominionDTO dominionDTO) throws SQLException {
         GroupDOO group = new GroupDOO(name, dominionDTO.getId());
-        GroupDOO inserted = parse(GroupRepository.create(group.dom_id, group.name_raw, group.name_color, group.flags));
+        GroupDOO inserted = parse(GroupRepository.create(group.dom_id, group.name_raw, group.name_color, group.flags.asMap()));
         if (inserted == null) {
             throw new SQLException("Failed to insert dominion.");
         }
@@ -141,7 +143,9 @@ public class GroupDOO implements GroupDTO {
     }
 
     public static List<GroupDOO> select() throws SQLException {
-        return GroupRepository.select().stream().map(GroupDOO::parse).toList();
+        List<GroupDOO> groups = new ArrayList<>();
+        GroupRepository.select(row -> groups.add(parse(row)));
+        return groups;
     }
 
     public static GroupDOO select(Integer id) throws SQLException {
@@ -157,7 +161,7 @@ public class GroupDOO implements GroupDTO {
         this.name_raw = ColorParser.getPlainText(name);
         this.name_color = name;
         for (PriFlag f : Flags.getAllPriFlagsEnable()) {
-            flags.put(f, f.getDefaultValue());
+            flags.set(f, f.getDefaultValue());
         }
     }
 
@@ -19,7 +19,7 @@ public class MemberDOO implements MemberDTO {
     private UUID playerUUID;
     private Integer domID;
     private Integer groupId;
-    private final Map<PriFlag, Boolean> flags = new HashMap<>();
+    private final FlagBits<PriFlag> flags = new FlagBits<>();
 
     private static MemberDOO parse(MemberRepository.MemberRow row) {
         if (row == null) return null;
@@ -27,7 +27,7 @@ public class MemberDOO implements MemberDTO {
     }
 
     public static MemberDOO insert(MemberDOO player) throws SQLException {
-        MemberDOO inserted = parse(MemberRepository.insert(player.playerUUID, player.domID, player.flags));
+        MemberDOO inserted = parse(MemberRepository.insert(player.playerUUID, player.domID, player.flags.asMap()));
         CacheManager.instance.getCache().getMemberCache().load(inserted.getId());
         if (CacheSyncManager.instance != null) {
             CacheSyncManager.instance.notifyMember(inserted.getId());
@@ -36,7 +36,9 @@ public class MemberDOO implements MemberDTO {
     }
 
     public static List<MemberDOO> select() throws SQLException {
-        return MemberRepository.select().stream().map(MemberDOO::parse).toList();
+        List<MemberDOO> members = new ArrayList<>();
+        MemberRepository.select(row -> members.add(parse(row)));
+        return members;
     }
 
     public static MemberDOO select(Integer id) throws SQLException {
@@ -82,22 +84,19 @@ public class MemberDOO implements MemberDTO {
 
     @Override
     public @NotNull Boolean getFlagValue(PriFlag flag) {
-        if (!flags.containsKey(flag)) return flag.getDefaultValue();
-        return flags.get(flag);
+        return flags.get(flag, flag.getDefaultValue());
     }
 
     @Override
     public @NotNull Map<PriFlag, Boolean> getFlagsValue() {
-        return flags;
+        return flags.asMap();
     }
 
     @Override
     public MemberDOO setFlagValue(@NotNull PriFlag flag, @NotNull Boolean value) throws SQLException {
-        flags.put(flag, value);
-        MemberRepository.updateFlag(id, flag, value);
-        if (CacheSyncManager.instance != null) {
-            CacheSyncManager.instance.notifyMember(getId());
-        }
+        flags.set(flag, value);
+        MemberRepository.updateFlag(id, flag, value, this::notifyUpdated);
+        CacheManager.instance.getPrivilegeCache().invalidate(domID);
         return this;
     }
 
@@ -108,18 +107,28 @@ public class MemberDOO implements MemberDTO {
 
     public MemberDOO setGroupId(Integer groupId) throws SQLException {
         this.groupId = groupId;
-        MemberRepository.updateGroupId(id, groupId);
-        if (CacheSyncManager.instance != null) {
-            CacheSyncManager.instance.notifyMember(getId());
-        }
+        MemberRepository.updateGroupId(id, groupId, this::notifyUpdated);
+        CacheManager.instance.getPrivilegeCache().invalidate(domID);
+        return this;
+    }
+
+    public MemberDOO setFlagValues(@NotNull Map<PriFlag, Boolean> flags) throws SQLException {
+        flags.forEach(this.flags::set);
+        MemberRepository.updateFlags(id, flags, this::notifyUpdated);
+        CacheManager.instance.getPrivilegeCache().invalidate(domID);
         return this;
     }
 
     public void applyTemplate(TemplateDOO template) throws SQLException {
+        Map<PriFlag, Boolean> values = new HashMap<>();
         for (PriFlag flag : Flags.getAllPriFlagsEnable()) {
-            this.flags.put(flag, template.getFlagValue(flag));
+            values.put(flag, template.getFlagValue(flag));
         }
-        MemberRepository.updateFlags(id, flags);
+        setFlagValues(values);
+    }
+
+    // runs once the change is written, see WriteBehindQueue
+    private void notifyUpdated() {
         if (CacheSyncManager.instance != null) {
             CacheSyncManager.instance.notifyMember(getId());
         }
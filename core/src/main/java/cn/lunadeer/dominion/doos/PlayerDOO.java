@@ -12,9 +12,9 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public class PlayerDOO implements PlayerDTO {
 
@@ -38,7 +38,9 @@ public class PlayerDOO implements PlayerDTO {
     }
 
     public static List<PlayerDTO> all() throws SQLException {
-        return PlayerRepository.all().stream().map(PlayerDOO::parse).collect(Collectors.toList());
+        List<PlayerDTO> players = new ArrayList<>();
+        PlayerRepository.all(row -> players.add(parse(row)));
+        return players;
     }
 
     public static PlayerDOO selectById(Integer id) throws SQLException {
@@ -14,7 +14,7 @@ public class TemplateDOO implements TemplateDTO {
     private Integer id;
     private UUID creator;
     private String name;
-    private final Map<PriFlag, Boolean> flags;
+    private final FlagBits<PriFlag> flags;
 
     private static TemplateDOO parse(TemplateRepository.TemplateRow row) {
         if (row == null) return null;
@@ -45,7 +45,7 @@ public class TemplateDOO implements TemplateDTO {
         this.id = id;
         this.creator = creator;
         this.name = name;
-        this.flags = flags;
+        this.flags = new FlagBits<>(flags);
     }
 
     public Integer getId() {
@@ -61,17 +61,16 @@ public class TemplateDOO implements TemplateDTO {
     }
 
     public Boolean getFlagValue(PriFlag flag) {
-        if (!flags.containsKey(flag)) return flag.getDefaultValue();
-        return flags.get(flag);
+        return flags.get(flag, flag.getDefaultValue());
     }
 
     @Override
     public Map<PriFlag, Boolean> getFlagsValue() {
-        return Map.copyOf(flags);
+        return Map.copyOf(flags.asMap());
     }
 
     public TemplateDOO setFlagValue(PriFlag flag, Boolean value) throws SQLException {
-        flags.put(flag, value);
+        flags.set(flag, value);
         TemplateRepository.updateFlag(id, flag, value);
         return this;
     }
@@ -0,0 +1,39 @@
+package cn.lunadeer.dominion.events;
+
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import org.bukkit.Material;
+import org.bukkit.event.block.Action;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A privilege flag guarding the blocks a player interacts with.
+ * <p>
+ * Instead of a {@code PlayerInteractEvent} listener each, these rules are collected by {@link EventsRegister}
+ * into one {@link InteractRouter}, that looks up the rules of the clicked block in a table and checks only those.
+ * A rule class is picked up from the event packages like a listener, and the version annotations apply the same.
+ */
+public interface BlockInteractRule {
+
+    /**
+     * @return the privilege flag to check
+     */
+    @NotNull PriFlag flag();
+
+    /**
+     * Called once per block material when the dispatch table is built, not per event.
+     *
+     * @param material the material of a block
+     * @return whether interacting with blocks of this material is guarded by the flag
+     */
+    boolean matches(@NotNull Material material);
+
+    /**
+     * @return the actions the rule applies to, right-clicking a block by default
+     */
+    default @NotNull Set<Action> actions() {
+        return EnumSet.of(Action.RIGHT_CLICK_BLOCK);
+    }
+}
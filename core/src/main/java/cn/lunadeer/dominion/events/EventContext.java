@@ -0,0 +1,259 @@
+package cn.lunadeer.dominion.events;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
+import cn.lunadeer.dominion.api.dtos.flag.Flag;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.misc.Others;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.entity.TNTPrimed;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * What the listeners of one event instance resolve, shared by all of them.
+ * <p>
+ * Busy events such as {@code EntityDamageByEntityEvent} or {@code CreatureSpawnEvent} are handled by a dozen
+ * listeners, each checking its own flag at the same location. The context of an event memoizes the dominion
+ * lookup per block, the attacking player and the flag results, so the listeners after the first one get them
+ * for free.
+ * <p>
+ * The listeners of an event run one after the other on the thread that fired it, so every thread keeps one
+ * context, reset when {@link #of(Event)} is called with another event. Nothing is allocated per event.
+ */
+public final class EventContext {
+
+    private static final int SLOTS = 4;
+    private static final int RESULTS = 8;
+    private static final ThreadLocal<EventContext> CURRENT = ThreadLocal.withInitial(EventContext::new);
+
+    /**
+     * Gets the context of an event, call it from the listener of the event.
+     *
+     * @param event the event being handled
+     * @return the context of the event
+     */
+    public static @NotNull EventContext of(@NotNull Event event) {
+        EventContext context = CURRENT.get();
+        if (context.event != event) {
+            context.reset(event);
+        }
+        return context;
+    }
+
+    private Event event;
+
+    // dominion lookups, by block position
+    private final UUID[] worlds = new UUID[SLOTS];
+    private final int[] xs = new int[SLOTS];
+    private final int[] ys = new int[SLOTS];
+    private final int[] zs = new int[SLOTS];
+    private final DominionDTO[] dominions = new DominionDTO[SLOTS];
+    private int slotCount;
+
+    // flag results, by position slot, flag and player (null for environment flags)
+    private final int[] resultSlots = new int[RESULTS];
+    private final Flag[] resultFlags = new Flag[RESULTS];
+    private final UUID[] resultPlayers = new UUID[RESULTS];
+    private final boolean[] resultValues = new boolean[RESULTS];
+    private final boolean[] resultNotified = new boolean[RESULTS];
+    private int resultCount;
+
+    private Entity damager;
+    private Player attacker;
+
+    private EventContext() {
+    }
+
+    private void reset(Event event) {
+        this.event = event;
+        Arrays.fill(worlds, 0, slotCount, null);
+        Arrays.fill(dominions, 0, slotCount, null);
+        slotCount = 0;
+        Arrays.fill(resultFlags, 0, resultCount, null);
+        Arrays.fill(resultPlayers, 0, resultCount, null);
+        resultCount = 0;
+        damager = null;
+        attacker = null;
+    }
+
+    /**
+     * @param location the location
+     * @return the dominion at the location, null for none
+     */
+    public @Nullable DominionDTO dominion(@NotNull Location location) {
+        int slot = slot(location);
+        return slot < 0 ? lookup(location) : dominions[slot];
+    }
+
+    /**
+     * Unwraps the player behind a damager: the player itself, the shooter of a projectile, or the source of a TNT.
+     *
+     * @param damager the damaging entity
+     * @return the player behind the damager, null if none
+     */
+    public @Nullable Player attacker(@NotNull Entity damager) {
+        if (this.damager != damager) {
+            this.damager = damager;
+            attacker = null;
+            if (damager instanceof Player p) {
+                attacker = p;
+            } else if (damager instanceof Projectile projectile && projectile.getShooter() instanceof Player p) {
+                attacker = p;
+            } else if (damager instanceof TNTPrimed tnt && tnt.getSource() instanceof Player p) {
+                attacker = p;
+            }
+        }
+        return attacker;
+    }
+
+    /**
+     * Same as {@link Others#checkPrivilegeFlag(Location, PriFlag, Player, Cancellable)}, memoized for the event.
+     * A denial already reported to the player in this event is not reported again.
+     */
+    public boolean checkPrivilegeFlag(@NotNull Location location, @NotNull PriFlag flag, @NotNull Player player, @Nullable Cancellable event) {
+        if (!flag.getEnable()) {
+            return true;
+        }
+        int result = privilege(location, flag, player);
+        if (result < 0) {
+            // not memoized, fall back to a plain check
+            return Others.checkPrivilegeFlag(location, dominion(location), flag, player, event);
+        }
+        if (resultValues[result]) {
+            return true;
+        }
+        if (event != null) {
+            event.setCancelled(true);
+        }
+        if (!resultNotified[result]) {
+            resultNotified[result] = true;
+            Others.showNoPermissionMessage(player, flag);
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link Others#checkPrivilegeFlagSilence(Location, PriFlag, Player, Cancellable)}, memoized for the event.
+     */
+    public boolean checkPrivilegeFlagSilence(@NotNull Location location, @NotNull PriFlag flag, @NotNull Player player, @Nullable Cancellable event) {
+        if (!flag.getEnable()) {
+            return true;
+        }
+        int result = privilege(location, flag, player);
+        if (result < 0) {
+            return Others.checkPrivilegeFlagSilence(location, dominion(location), flag, player, event);
+        }
+        if (!resultValues[result] && event != null) {
+            event.setCancelled(true);
+        }
+        return resultValues[result];
+    }
+
+    /**
+     * Same as {@link Others#checkEnvironmentFlag(Location, EnvFlag, Cancellable)}, memoized for the event.
+     */
+    public boolean checkEnvironmentFlag(@NotNull Location location, @NotNull EnvFlag flag, @Nullable Cancellable event) {
+        if (!flag.getEnable()) {
+            return true;
+        }
+        int slot = slot(location);
+        if (slot < 0) {
+            return Others.checkEnvironmentFlag(location, lookup(location), flag, event);
+        }
+        int result = find(slot, flag, null);
+        if (result < 0) {
+            boolean value = Others.checkEnvironmentFlag(location, dominions[slot], flag, null);
+            result = store(slot, flag, null, value);
+            if (result < 0) {
+                if (!value && event != null) event.setCancelled(true);
+                return value;
+            }
+        }
+        if (!resultValues[result] && event != null) {
+            event.setCancelled(true);
+        }
+        return resultValues[result];
+    }
+
+    /**
+     * @return the index of the memoized result, resolving it first, or -1 if it cannot be memoized
+     */
+    private int privilege(Location location, PriFlag flag, Player player) {
+        int slot = slot(location);
+        if (slot < 0) {
+            return -1;
+        }
+        UUID uuid = player.getUniqueId();
+        int result = find(slot, flag, uuid);
+        if (result < 0) {
+            boolean value = Others.checkPrivilegeFlagSilence(location, dominions[slot], flag, player, null);
+            result = store(slot, flag, uuid, value);
+        }
+        return result;
+    }
+
+    /**
+     * @return the slot of the block position of the location, looking up its dominion first, or -1 if all slots are taken
+     */
+    private int slot(Location location) {
+        World world = location.getWorld();
+        if (world == null) {
+            return -1;
+        }
+        UUID uid = world.getUID();
+        int x = location.getBlockX(), y = location.getBlockY(), z = location.getBlockZ();
+        for (int i = 0; i < slotCount; i++) {
+            if (xs[i] == x && zs[i] == z && ys[i] == y && worlds[i].equals(uid)) {
+                return i;
+            }
+        }
+        if (slotCount == SLOTS) {
+            return -1;
+        }
+        int slot = slotCount++;
+        worlds[slot] = uid;
+        xs[slot] = x;
+        ys[slot] = y;
+        zs[slot] = z;
+        dominions[slot] = lookup(location);
+        return slot;
+    }
+
+    private int find(int slot, Flag flag, UUID player) {
+        for (int i = 0; i < resultCount; i++) {
+            if (resultSlots[i] == slot && resultFlags[i] == flag && (resultPlayers[i] == null ? player == null : resultPlayers[i].equals(player))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int store(int slot, Flag flag, UUID player, boolean value) {
+        if (resultCount == RESULTS) {
+            return -1;
+        }
+        int result = resultCount++;
+        resultSlots[result] = slot;
+        resultFlags[result] = flag;
+        resultPlayers[result] = player;
+        resultValues[result] = value;
+        resultNotified[result] = false;
+        return result;
+    }
+
+    private static DominionDTO lookup(Location location) {
+        // wilderness chunks go straight to the world-wide flags
+        return CacheManager.instance.isDominionFreeChunk(location) ? null : CacheManager.instance.getDominion(location);
+    }
+}
@@ -1,13 +1,17 @@
 package cn.lunadeer.dominion.events;
 
+import cn.lunadeer.dominion.api.dtos.flag.Flag;
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.handler.*;
 import cn.lunadeer.dominion.utils.XLogger;
 import cn.lunadeer.dominion.utils.XVersionManager;
 import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static cn.lunadeer.dominion.utils.Misc.isPaper;
@@ -15,9 +19,35 @@ import static cn.lunadeer.dominion.utils.Misc.listClassOfPackage;
 
 public class EventsRegister {
 
+    public static EventsRegister instance;
+
     private final JavaPlugin plugin;
     public XVersionManager.ImplementationVersion version;
     public Implementation implementation;
+    private final InteractRouter interactRouter = new InteractRouter();
+    private boolean interactRouterRegistered = false;
+    private final List<GuardedListener> guardedListeners = new ArrayList<>();
+
+    /**
+     * A listener annotated with {@link GuardedFlags}, registered only while one of its flags is enabled.
+     * It is instantiated the first time it is registered.
+     */
+    private static final class GuardedListener {
+        private final Class<?> clazz;
+        private final List<Flag> flags;
+        private Listener listener;
+        private boolean registered;
+
+        private GuardedListener(Class<?> clazz, List<Flag> flags) {
+            this.clazz = clazz;
+            this.flags = flags;
+        }
+
+        private boolean isEnabled() {
+            // a listener without resolvable flags is always registered
+            return flags.isEmpty() || flags.stream().anyMatch(Flag::getEnable);
+        }
+    }
 
     public enum Implementation {
         SPIGOT,
@@ -25,12 +55,14 @@ public class EventsRegister {
     }
 
     public EventsRegister(JavaPlugin plugin) {
+        instance = this;
         this.plugin = plugin;
         this.version = XVersionManager.VERSION;
         this.implementation = isPaper() ? Implementation.PAPER : Implementation.SPIGOT;
         try {
             XLogger.debug("Load API version: {0}:{1}", implementation.name().toLowerCase(), version.name());
             registerVersion();
+            refresh();
         } catch (ClassNotFoundException | IllegalAccessException | InstantiationException | InvocationTargetException |
                  NoSuchMethodException e) {
             XLogger.error("Failed to register events: {0}", e.getMessage());
@@ -51,7 +83,7 @@ public class EventsRegister {
 
     public void registerEvents(String className) throws ClassNotFoundException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
         Class<?> clazz = Class.forName(className);
-        if (!Listener.class.isAssignableFrom(clazz)) {
+        if (!Listener.class.isAssignableFrom(clazz) && !BlockInteractRule.class.isAssignableFrom(clazz)) {
             return;
         }
         if (implementation == Implementation.PAPER && clazz.isAnnotationPresent(SpigotOnly.class)) {
@@ -76,8 +108,33 @@ public class EventsRegister {
                 return;
             }
         }
-        Listener listener = (Listener) clazz.getDeclaredConstructor().newInstance();
-        Bukkit.getPluginManager().registerEvents(listener, plugin);
+        if (clazz.isAnnotationPresent(GuardedFlags.class)) {
+            guardedListeners.add(new GuardedListener(clazz, resolveFlags(clazz)));
+            return;
+        }
+        Object instance = clazz.getDeclaredConstructor().newInstance();
+        if (instance instanceof BlockInteractRule rule) {
+            interactRouter.add(rule);
+        }
+        if (instance instanceof Listener listener) {
+            Bukkit.getPluginManager().registerEvents(listener, plugin);
+        }
+    }
+
+    private static List<Flag> resolveFlags(Class<?> clazz) {
+        List<Flag> flags = new ArrayList<>();
+        for (String name : clazz.getAnnotation(GuardedFlags.class).value()) {
+            try {
+                if (Flags.class.getField(name).get(null) instanceof Flag flag) {
+                    flags.add(flag);
+                    continue;
+                }
+            } catch (NoSuchFieldException | IllegalAccessException ignored) {
+            }
+            XLogger.warn("Unknown flag {0} guarding {1}, it will always be registered", name, clazz.getName());
+            return List.of();
+        }
+        return flags;
     }
 
     public void registerPackageEvents(String packageName) throws ClassNotFoundException, IllegalAccessException, InstantiationException, InvocationTargetException, NoSuchMethodException {
@@ -97,4 +154,45 @@ public class EventsRegister {
         }
     }
 
+    /**
+     * Registers the guarded listeners whose flags are enabled and unregisters the others, and rebuilds the
+     * {@link InteractRouter} with the enabled {@link BlockInteractRule}s. Call it after the flags are reloaded.
+     * <p>
+     * Disabled flags then cost nothing, not even the dispatch of their events.
+     */
+    public void refresh() {
+        int skipped = 0;
+        for (GuardedListener guarded : guardedListeners) {
+            boolean enabled = guarded.isEnabled();
+            if (enabled && !guarded.registered) {
+                try {
+                    if (guarded.listener == null) {
+                        guarded.listener = (Listener) guarded.clazz.getDeclaredConstructor().newInstance();
+                    }
+                } catch (ReflectiveOperationException e) {
+                    XLogger.error("Failed to register events: {0}", e.getMessage());
+                    continue;
+                }
+                Bukkit.getPluginManager().registerEvents(guarded.listener, plugin);
+                guarded.registered = true;
+            } else if (!enabled && guarded.registered) {
+                HandlerList.unregisterAll(guarded.listener);
+                guarded.registered = false;
+            }
+            if (!enabled) {
+                skipped++;
+            }
+        }
+        XLogger.debug("Skipped {0} listeners of disabled flags", skipped);
+
+        boolean anyRule = !interactRouter.isEmpty() && interactRouter.compile();
+        if (anyRule && !interactRouterRegistered) {
+            Bukkit.getPluginManager().registerEvents(interactRouter, plugin);
+            interactRouterRegistered = true;
+        } else if (!anyRule && interactRouterRegistered) {
+            HandlerList.unregisterAll(interactRouter);
+            interactRouterRegistered = false;
+        }
+    }
+
 }
@@ -0,0 +1,61 @@
+package cn.lunadeer.dominion.events;
+
+import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
+import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.cache.server.DominionCache;
+import cn.lunadeer.dominion.misc.Others;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Applies an environment flag to the block list of an explosion.
+ * <p>
+ * Most explosions happen entirely in the wilderness or entirely inside one dominion. The bounding box of the
+ * blocks is resolved first with {@link CacheManager#resolveBox}: if one {@link DominionCache.Area} holds it the
+ * flag is checked once and the list is kept or cleared as a whole. Only explosions crossing a dominion border
+ * are resolved per block, with {@link Others#filterEnvironmentFlag(List, EnvFlag)}.
+ */
+public final class ExplosionGuard {
+
+    private ExplosionGuard() {
+    }
+
+    /**
+     * Removes the blocks where the environment flag is disabled from the block list of an explosion.
+     *
+     * @param blocks the mutable block list
+     * @param flag   the environment flag to check
+     */
+    public static void filter(@NotNull List<Block> blocks, @NotNull EnvFlag flag) {
+        if (!flag.getEnable() || blocks.isEmpty()) {
+            return;
+        }
+        Block first = blocks.get(0);
+        World world = first.getWorld();
+        int minX = first.getX(), minY = first.getY(), minZ = first.getZ();
+        int maxX = minX, maxY = minY, maxZ = minZ;
+        for (Block block : blocks) {
+            if (block.getWorld() != world) {
+                Others.filterEnvironmentFlag(blocks, flag);
+                return;
+            }
+            minX = Math.min(minX, block.getX());
+            minY = Math.min(minY, block.getY());
+            minZ = Math.min(minZ, block.getZ());
+            maxX = Math.max(maxX, block.getX());
+            maxY = Math.max(maxY, block.getY());
+            maxZ = Math.max(maxZ, block.getZ());
+        }
+        DominionCache.Area area = CacheManager.instance.resolveBox(world.getUID(), minX, minY, minZ, maxX, maxY, maxZ);
+        if (area == null) {
+            Others.filterEnvironmentFlag(blocks, flag);
+            return;
+        }
+        if (!Others.checkEnvironmentFlag(first.getLocation(), area.dominion(), flag, null)) {
+            blocks.clear();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package cn.lunadeer.dominion.events;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * The flags a listener checks, by their field name in {@code Flags}.
+ * <p>
+ * {@link EventsRegister} only registers the listener while at least one of them is enabled.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GuardedFlags {
+    String[] value();
+}
@@ -0,0 +1,121 @@
+package cn.lunadeer.dominion.events;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
+import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.utils.LongObjectHashMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.Cancellable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Checks an environment flag against item moves between two containers, for {@code InventoryMoveItemEvent}.
+ * <p>
+ * A move is denied if the source is inside a dominion with the flag disabled and the destination is outside
+ * of that dominion. Hoppers move items between the same two blocks every few ticks, so the decision is kept
+ * by the packed source block together with its destination block, and dropped whenever the dominion cache
+ * version changes (any dominion loaded or deleted, or environment flag set). The steady-state cost of a
+ * hopper is one map probe.
+ * <p>
+ * Moves may be fired on several region threads, every thread keeps its own decisions.
+ */
+public class HopperGuard {
+
+    /**
+     * How many decisions one thread keeps per world at most, before they are all dropped.
+     */
+    public static final int MAX_DECISIONS = 65536;
+
+    private record Decision(long destination, boolean allowed) {
+    }
+
+    private static final class Decisions {
+        private long version = -1;
+        private final Map<UUID, LongObjectHashMap<Decision>> worlds = new HashMap<>();
+        private World lastWorld;
+        private LongObjectHashMap<Decision> lastDecisions;
+
+        private LongObjectHashMap<Decision> of(World world) {
+            if (world != lastWorld) {
+                lastWorld = world;
+                lastDecisions = worlds.computeIfAbsent(world.getUID(), k -> new LongObjectHashMap<>());
+            }
+            return lastDecisions;
+        }
+    }
+
+    private final EnvFlag flag;
+    private final ThreadLocal<Decisions> decisions = ThreadLocal.withInitial(Decisions::new);
+
+    public HopperGuard(@NotNull EnvFlag flag) {
+        this.flag = flag;
+    }
+
+    /**
+     * Checks whether items may move from the source container to the destination, cancelling the event if not.
+     *
+     * @param source      the location of the source container
+     * @param destination the location of the destination container
+     * @param event       the event to cancel, null for none
+     * @return whether the flag allows the move
+     */
+    public boolean check(@NotNull Location source, @NotNull Location destination, @Nullable Cancellable event) {
+        if (!flag.getEnable()) {
+            return true;
+        }
+        World world = source.getWorld();
+        boolean allowed;
+        if (world == null || world != destination.getWorld()) {
+            allowed = evaluate(source, destination);
+        } else {
+            Decisions local = decisions.get();
+            long version = CacheManager.instance.getCache().getDominionCache().getVersion();
+            if (local.version != version) {
+                local.version = version;
+                local.worlds.clear();
+                local.lastWorld = null;
+            }
+            LongObjectHashMap<Decision> byWorld = local.of(world);
+            long sourceKey = pack(source.getBlockX(), source.getBlockY(), source.getBlockZ());
+            long destinationKey = pack(destination.getBlockX(), destination.getBlockY(), destination.getBlockZ());
+            Decision decision = byWorld.get(sourceKey);
+            if (decision == null || decision.destination() != destinationKey) {
+                decision = new Decision(destinationKey, evaluate(source, destination));
+                if (byWorld.size() >= MAX_DECISIONS) {
+                    byWorld.clear();
+                }
+                byWorld.put(sourceKey, decision);
+            }
+            allowed = decision.allowed();
+        }
+        if (!allowed && event != null) {
+            event.setCancelled(true);
+        }
+        return allowed;
+    }
+
+    private boolean evaluate(Location source, Location destination) {
+        DominionDTO sourceDom = CacheManager.instance.getDominion(
+                source.getWorld(), source.getBlockX(), source.getBlockY(), source.getBlockZ());
+        if (sourceDom == null) {
+            return true;
+        }
+        DominionDTO destinationDom = CacheManager.instance.getDominion(
+                destination.getWorld(), destination.getBlockX(), destination.getBlockY(), destination.getBlockZ());
+        if (destinationDom != null && destinationDom.getId().equals(sourceDom.getId())) {
+            return true;
+        }
+        return sourceDom.getEnvFlagValue(flag);
+    }
+
+    // x and z in 26 bits, y in 12 bits, like the block positions of the server
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+}
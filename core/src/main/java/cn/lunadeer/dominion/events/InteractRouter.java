@@ -0,0 +1,102 @@
+package cn.lunadeer.dominion.events;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.cache.CacheManager;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+
+/**
+ * The single {@code PlayerInteractEvent} listener for all {@link BlockInteractRule}s.
+ * <p>
+ * The rules are compiled into a table of action and block material to the flags guarding them, so an
+ * interaction costs one table lookup, and the dominion is looked up only when a flag applies.
+ */
+public class InteractRouter implements Listener {
+
+    private final List<BlockInteractRule> rules = new ArrayList<>();
+    private volatile PriFlag[][][] table = new PriFlag[Action.values().length][][];
+
+    public void add(@NotNull BlockInteractRule rule) {
+        rules.add(rule);
+    }
+
+    /**
+     * @return whether any rule was added
+     */
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * Builds the dispatch table from the added rules whose flag is enabled, in the order they were added.
+     *
+     * @return whether any rule is enabled, i.e. whether the router needs to listen at all
+     */
+    public boolean compile() {
+        List<BlockInteractRule> enabled = new ArrayList<>(rules.size());
+        for (BlockInteractRule rule : rules) {
+            if (rule.flag().getEnable()) {
+                enabled.add(rule);
+            }
+        }
+        Material[] materials = Material.values();
+        PriFlag[][][] compiled = new PriFlag[Action.values().length][][];
+        for (Action action : Action.values()) {
+            PriFlag[][] byMaterial = new PriFlag[materials.length][];
+            boolean any = false;
+            for (Material material : materials) {
+                if (!material.isBlock()) continue;
+                List<PriFlag> flags = new ArrayList<>(1);
+                for (BlockInteractRule rule : enabled) {
+                    if (rule.actions().contains(action) && rule.matches(material)) {
+                        flags.add(rule.flag());
+                    }
+                }
+                if (!flags.isEmpty()) {
+                    byMaterial[material.ordinal()] = flags.toArray(new PriFlag[0]);
+                    any = true;
+                }
+            }
+            compiled[action.ordinal()] = any ? byMaterial : null;
+        }
+        table = compiled;
+        return !enabled.isEmpty();
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void handler(PlayerInteractEvent event) {
+        if (event.isCancelled()) return;
+        Block block = event.getClickedBlock();
+        if (block == null) return;
+        PriFlag[][] byMaterial = table[event.getAction().ordinal()];
+        if (byMaterial == null) return;
+        PriFlag[] flags = byMaterial[block.getType().ordinal()];
+        if (flags == null) return;
+        Location location = block.getLocation();
+        DominionDTO dominion = null;
+        boolean resolved = false;
+        for (PriFlag flag : flags) {
+            if (!flag.getEnable()) continue;
+            if (!resolved) {
+                dominion = CacheManager.instance.isDominionFreeChunk(location) ? null : CacheManager.instance.getDominion(location);
+                resolved = true;
+            }
+            if (!checkPrivilegeFlag(location, dominion, flag, event.getPlayer(), event)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package cn.lunadeer.dominion.events;
+
+import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
+import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.cache.server.DominionCache;
+import cn.lunadeer.dominion.misc.Others;
+import cn.lunadeer.dominion.utils.XLogger;
+import cn.lunadeer.dominion.utils.scheduler.Scheduler;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.Cancellable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks an environment flag against the path targets of entities, for {@code EntityPathfindEvent}.
+ * <p>
+ * Mobs repath many times a second, mostly to targets close to the previous one. For every entity the
+ * {@link DominionCache.Area} of its last target is kept with the decision: while the next target is inside
+ * the same area, and the dominion cache version is unchanged (no dominion loaded or deleted, and no environment
+ * flag of a dominion set, see {@link DominionCache#envFlagsChanged()}), the decision is reused without a lookup.
+ * In the wilderness an area is a whole chunk, inside a dominion it is the dominion minus its sub-dominions.
+ * <p>
+ * The world-wide flags have no version, so decisions also expire after {@link #TTL}.
+ */
+public class PathfindGuard {
+
+    /**
+     * How long a decision is reused at most, in milliseconds.
+     */
+    public static final long TTL = 1000 * 10L;
+
+    private record Decision(@NotNull DominionCache.Area area, boolean allowed, long decidedAt) {
+    }
+
+    private final EnvFlag flag;
+    private final ConcurrentHashMap<UUID, Decision> decisions = new ConcurrentHashMap<>();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder avoided = new LongAdder();
+
+    public PathfindGuard(@NotNull EnvFlag flag) {
+        this.flag = flag;
+        Scheduler.runTaskRepeatAsync(this::purge, 6000, 6000);
+    }
+
+    /**
+     * Checks whether the entity may path to the target, cancelling the event if not.
+     *
+     * @param entity the pathfinding entity
+     * @param target the target of the path
+     * @param event  the event to cancel, null for none
+     * @return whether the flag allows the path
+     */
+    public boolean check(@NotNull Entity entity, @NotNull Location target, @Nullable Cancellable event) {
+        if (!flag.getEnable()) {
+            return true;
+        }
+        World world = target.getWorld();
+        if (world == null) {
+            return Others.checkEnvironmentFlag(target, flag, event);
+        }
+        UUID worldUid = world.getUID();
+        int x = target.getBlockX(), y = target.getBlockY(), z = target.getBlockZ();
+        DominionCache cache = CacheManager.instance.getCache().getDominionCache();
+        long now = System.currentTimeMillis();
+
+        boolean allowed;
+        Decision last = decisions.get(entity.getUniqueId());
+        if (last != null && last.area().version() == cache.getVersion() && last.decidedAt() + TTL >= now
+                && last.area().contains(worldUid, x, y, z)) {
+            avoided.increment();
+            allowed = last.allowed();
+        } else {
+            evaluations.increment();
+            DominionCache.Area area = cache.resolveArea(worldUid, x, y, z);
+            allowed = Others.checkEnvironmentFlag(target, area.dominion(), flag, null);
+            decisions.put(entity.getUniqueId(), new Decision(area, allowed, now));
+        }
+        if (!allowed && event != null) {
+            event.setCancelled(true);
+        }
+        return allowed;
+    }
+
+    /**
+     * @return the number of checks that resolved the target
+     */
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * @return the number of checks that reused the decision of the previous target
+     */
+    public long getAvoided() {
+        return avoided.sum();
+    }
+
+    private void purge() {
+        long now = System.currentTimeMillis();
+        decisions.values().removeIf(decision -> decision.decidedAt() + TTL < now);
+        XLogger.debug("Pathfind guard {0}: {1} evaluations, {2} avoided, {3} entities tracked",
+                flag.getFlagName(), getEvaluations(), getAvoided(), decisions.size());
+    }
+}
@@ -10,10 +10,18 @@ import cn.lunadeer.dominion.managers.PlayerSkinRefreshManager;
 import cn.lunadeer.dominion.utils.MessageDisplay;
 import cn.lunadeer.dominion.utils.BorderRenderUtil;
 import cn.lunadeer.dominion.utils.XLogger;
+import cn.lunadeer.dominion.utils.scheduler.Scheduler;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.ServerCommandEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
 
 import static cn.lunadeer.dominion.managers.HooksManager.setPlaceholder;
 
@@ -63,6 +71,52 @@ public class CacheEventHandler implements Listener {
         XLogger.debug("PlayerCrossDominionBorderEvent called.");
     }
 
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoinPermission(PlayerJoinEvent event) {
+        CacheManager.instance.getPermissionCache().refresh(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        // permissions may be per world
+        CacheManager.instance.getPermissionCache().invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        if (isPermissionCommand(event.getMessage())) {
+            invalidatePermissionsAfterCommand();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onServerCommand(ServerCommandEvent event) {
+        if (isPermissionCommand(event.getCommand())) {
+            invalidatePermissionsAfterCommand();
+        }
+    }
+
+    private static void invalidatePermissionsAfterCommand() {
+        // the event fires before the command runs, and permission plugins often apply the change asynchronously
+        Scheduler.runTaskLaterAsync(() -> CacheManager.instance.getPermissionCache().invalidateAll(), 20);
+    }
+
+    /**
+     * Checks whether a command line is a command of a known permission plugin (LuckPerms, PermissionsEx or any
+     * perm* command). Permissions changed by other commands are picked up when the snapshots expire.
+     *
+     * @param commandLine the command line, with or without the leading slash
+     * @return true if the command may change permissions
+     */
+    static boolean isPermissionCommand(@NotNull String commandLine) {
+        String label = commandLine.startsWith("/") ? commandLine.substring(1) : commandLine;
+        int end = label.indexOf(' ');
+        label = (end < 0 ? label : label.substring(0, end)).toLowerCase(Locale.ROOT);
+        label = label.substring(label.indexOf(':') + 1);  // namespaced, e.g. luckperms:lp
+        return label.equals("lp") || label.equals("lpb") || label.equals("lpv") || label.equals("luckperms")
+                || label.equals("pex") || label.equals("permissionsex") || label.startsWith("perm");
+    }
+
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         try {
@@ -78,6 +132,8 @@ public class CacheEventHandler implements Listener {
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         CacheManager.instance.resetPlayerCurrentDominionId(event.getPlayer());
+        CacheManager.instance.getPrivilegeCache().invalidatePlayer(event.getPlayer().getUniqueId());
+        CacheManager.instance.getPermissionCache().invalidate(event.getPlayer().getUniqueId());
     }
 
 }
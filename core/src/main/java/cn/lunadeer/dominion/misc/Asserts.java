@@ -251,18 +251,7 @@ public class Asserts {
         if (bypassLimit(associatedPlayer)) {
             return true;
         }
-        if (dominion.getOwner().equals(associatedPlayer.getUniqueId())) {
-            return true;
-        }
-        MemberDTO member = CacheManager.instance.getMember(dominion, associatedPlayer);
-        if (member == null) {
-            return false; // not a member of the dominion
-        }
-        GroupDTO group = CacheManager.instance.getGroup(member.getGroupId());
-        if (group != null && group.getFlagValue(Flags.ADMIN)) {
-            return true;
-        }
-        return member.getFlagValue(Flags.ADMIN);
+        return CacheManager.instance.getPrivilegeCache().get(dominion, associatedPlayer.getUniqueId()).admin();
     }
 
     /**
@@ -1,8 +1,6 @@
 package cn.lunadeer.dominion.misc;
 
 import cn.lunadeer.dominion.api.dtos.DominionDTO;
-import cn.lunadeer.dominion.api.dtos.GroupDTO;
-import cn.lunadeer.dominion.api.dtos.MemberDTO;
 import cn.lunadeer.dominion.api.dtos.PlayerDTO;
 import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
 import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
@@ -17,6 +15,8 @@ import cn.lunadeer.dominion.utils.MessageDisplay;
 import cn.lunadeer.dominion.utils.XLogger;
 import cn.lunadeer.dominion.utils.configuration.ConfigurationPart;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
@@ -24,12 +24,11 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
-import static cn.lunadeer.dominion.Dominion.adminPermission;
-import static cn.lunadeer.dominion.misc.Asserts.checkDominionAdmin;
 import static cn.lunadeer.dominion.utils.Misc.formatString;
 
 public class Others {
@@ -42,7 +41,7 @@ public class Others {
     }
 
     public static boolean bypassLimit(Player player) {
-        return player.isOp() || player.hasPermission(adminPermission);
+        return player.isOp() || CacheManager.instance.getPermissionCache().isAdmin(player);
     }
 
     /**
@@ -132,6 +131,22 @@ public class Others {
         }
     }
 
+    /**
+     * Same as {@link #checkPrivilegeFlag(Location, PriFlag, Player, Cancellable)}, with the dominion of the location
+     * already looked up, for callers checking several flags at the same location.
+     *
+     * @param location the location
+     * @param dom      the dominion at the location, null for none
+     */
+    public static boolean checkPrivilegeFlag(@NotNull Location location, @Nullable DominionDTO dom, @NotNull PriFlag flag, @NotNull Player player, @Nullable Cancellable event) {
+        if (checkPrivilegeFlagSilence(location, dom, flag, player, event)) {
+            return true;
+        } else {
+            showNoPermissionMessage(player, flag);
+            return false;
+        }
+    }
+
     /**
      * Since 4.5.0 should use {@link #checkPrivilegeFlag(Location, PriFlag, Player, Cancellable)} instead,
      * because this method does not check the
@@ -157,7 +172,22 @@ public class Others {
         if (!flag.getEnable()) {
             return true;
         }
-        DominionDTO dom = CacheManager.instance.getDominion(location);
+        // wilderness chunks go straight to the world-wide flags
+        DominionDTO dom = CacheManager.instance.isDominionFreeChunk(location) ? null : CacheManager.instance.getDominion(location);
+        return checkPrivilegeFlagSilence(location, dom, flag, player, event);
+    }
+
+    /**
+     * Same as {@link #checkPrivilegeFlagSilence(Location, PriFlag, Player, Cancellable)}, with the dominion of the
+     * location already looked up.
+     *
+     * @param location the location
+     * @param dom      the dominion at the location, null for none
+     */
+    public static boolean checkPrivilegeFlagSilence(@NotNull Location location, @Nullable DominionDTO dom, @NotNull PriFlag flag, @NotNull Player player, @Nullable Cancellable event) {
+        if (!flag.getEnable()) {
+            return true;
+        }
         boolean hasPrivilege;
         if (dom == null) {
             if (!WorldWide.isWorldWideEnabled(location.getWorld()) || bypassLimit(player)) {
@@ -165,18 +195,8 @@ public class Others {
             }
             hasPrivilege = WorldWide.getGuestFlagValue(location.getWorld(), flag);
         } else {
-            if (checkDominionAdmin(player, dom)) {
-                return true;
-            }
-            MemberDTO member = CacheManager.instance.getMember(dom, player);
-            if (member != null) {
-                GroupDTO group = CacheManager.instance.getGroup(member.getGroupId());
-                hasPrivilege = (member.getGroupId() != -1 && group != null)
-                        ? group.getFlagValue(flag)
-                        : member.getFlagValue(flag);
-            } else {
-                hasPrivilege = dom.getGuestPrivilegeFlagValue().get(flag);
-            }
+            hasPrivilege = bypassLimit(player)
+                    || CacheManager.instance.getPrivilegeCache().get(dom, player.getUniqueId()).has(flag);
         }
         if (hasPrivilege) {
             return true;
@@ -200,29 +220,13 @@ public class Others {
         if (dom == null) {
             return true;
         }
-        if (checkDominionAdmin(player, dom)) {
+        if (bypassLimit(player) || CacheManager.instance.getPrivilegeCache().get(dom, player.getUniqueId()).has(flag)) {
             return true;
         } else {
-            boolean hasPrivilege;
-            MemberDTO member = CacheManager.instance.getMember(dom, player);
-            if (member != null) {
-                GroupDTO group = CacheManager.instance.getGroup(member.getGroupId());
-                if (member.getGroupId() != -1 && group != null) {
-                    hasPrivilege = group.getFlagValue(flag);
-                } else {
-                    hasPrivilege = member.getFlagValue(flag);
-                }
-            } else {
-                hasPrivilege = dom.getGuestPrivilegeFlagValue().get(flag);
-            }
-            if (hasPrivilege) {
-                return true;
-            } else {
-                if (event != null) {
-                    event.setCancelled(true);
-                }
-                return false;
+            if (event != null) {
+                event.setCancelled(true);
             }
+            return false;
         }
     }
 
@@ -230,7 +234,22 @@ public class Others {
         if (!flag.getEnable()) {
             return true;
         }
-        DominionDTO dom = CacheManager.instance.getDominion(location);
+        // wilderness chunks go straight to the world-wide flags
+        DominionDTO dom = CacheManager.instance.isDominionFreeChunk(location) ? null : CacheManager.instance.getDominion(location);
+        return checkEnvironmentFlag(location, dom, flag, event);
+    }
+
+    /**
+     * Same as {@link #checkEnvironmentFlag(Location, EnvFlag, Cancellable)}, with the dominion of the location
+     * already looked up.
+     *
+     * @param location the location
+     * @param dom      the dominion at the location, null for none
+     */
+    public static boolean checkEnvironmentFlag(@NotNull Location location, @Nullable DominionDTO dom, @NotNull EnvFlag flag, @Nullable Cancellable event) {
+        if (!flag.getEnable()) {
+            return true;
+        }
         boolean enabled;
         if (dom == null) {
             if (!WorldWide.isWorldWideEnabled(location.getWorld())) {
@@ -238,7 +257,7 @@ public class Others {
             }
             enabled = WorldWide.getEnvFlagValue(location.getWorld(), flag);
         } else {
-            enabled = dom.getEnvironmentFlagValue().getOrDefault(flag, false);
+            enabled = dom.getEnvFlagValue(flag);
         }
         if (!enabled && event != null) {
             event.setCancelled(true);
@@ -246,6 +265,64 @@ public class Others {
         return enabled;
     }
 
+    /**
+     * Batch version of {@link #checkEnvironmentFlag(Location, EnvFlag, Cancellable)} for the block list of one event.
+     * <p>
+     * The dominions are resolved with {@link CacheManager#getDominions(List)}, and the flag value is read
+     * once per run of blocks in the same dominion or world.
+     *
+     * @param blocks the blocks to check
+     * @param flag   the environment flag to check
+     * @return a mask with bit i set if the flag is disabled at blocks.get(i)
+     */
+    public static @NotNull BitSet checkEnvironmentFlag(@NotNull List<Block> blocks, @NotNull EnvFlag flag) {
+        BitSet disabled = new BitSet(blocks.size());
+        if (!flag.getEnable() || blocks.isEmpty()) {
+            return disabled;
+        }
+        DominionDTO[] dominions = CacheManager.instance.getDominions(blocks);
+        DominionDTO lastDominion = null;
+        boolean dominionEnabled = true;
+        World lastWorld = null;
+        boolean worldEnabled = true;
+        for (int i = 0; i < dominions.length; i++) {
+            boolean enabled;
+            if (dominions[i] == null) {
+                World world = blocks.get(i).getWorld();
+                if (world != lastWorld) {
+                    lastWorld = world;
+                    worldEnabled = !WorldWide.isWorldWideEnabled(world) || WorldWide.getEnvFlagValue(world, flag);
+                }
+                enabled = worldEnabled;
+            } else {
+                if (dominions[i] != lastDominion) {
+                    lastDominion = dominions[i];
+                    dominionEnabled = lastDominion.getEnvFlagValue(flag);
+                }
+                enabled = dominionEnabled;
+            }
+            if (!enabled) {
+                disabled.set(i);
+            }
+        }
+        return disabled;
+    }
+
+    /**
+     * Removes the blocks where the environment flag is disabled, e.g. from the block list of an explosion.
+     *
+     * @param blocks the mutable block list
+     * @param flag   the environment flag to check
+     */
+    public static void filterEnvironmentFlag(@NotNull List<Block> blocks, @NotNull EnvFlag flag) {
+        BitSet disabled = checkEnvironmentFlag(blocks, flag);
+        if (disabled.isEmpty()) {
+            return;
+        }
+        int[] index = {0};
+        blocks.removeIf(block -> disabled.get(index[0]++));
+    }
+
     /**
      * Since 4.5.0 should use {@link #checkEnvironmentFlag(Location, EnvFlag, Cancellable)} instead,
      * because this method does not check the
@@ -4,6 +4,8 @@ import cn.lunadeer.dominion.storage.mapper.GenericMapper;
 import cn.lunadeer.dominion.storage.migration.V1__LegacySchema;
 import cn.lunadeer.dominion.storage.migration.V2__CacheSyncSchema;
 import cn.lunadeer.dominion.storage.migration.V3__PlayerUiPreference;
+import cn.lunadeer.dominion.storage.migration.V4__CacheSyncIndexes;
+import cn.lunadeer.dominion.storage.repository.WriteBehindQueue;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -88,7 +90,7 @@ public class DatabaseManager {
                 .baselineOnMigrate(true)
                 .baselineVersion("0")
                 .javaMigrations(new V1__LegacySchema(type), new V2__CacheSyncSchema(type),
-                        new V3__PlayerUiPreference(type))
+                        new V3__PlayerUiPreference(type), new V4__CacheSyncIndexes(type))
                 .load()
                 .migrate();
         reconcileFlags();
@@ -127,6 +129,14 @@ public class DatabaseManager {
     }
 
     public void close() {
+        if (dataSource != null && WriteBehindQueue.instance != null) {
+            // the setter updates still queued belong to this database
+            try {
+                WriteBehindQueue.instance.flush();
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to write " + WriteBehindQueue.instance.size() + " pending row(s): " + e.getMessage());
+            }
+        }
         sqlSessionFactory = null;
         if (dataSource != null) {
             dataSource.close();
@@ -137,4 +147,8 @@ public class DatabaseManager {
     public DatabaseType getType() {
         return type;
     }
+
+    public int getPoolSize() {
+        return config.getMaximumPoolSize();
+    }
 }
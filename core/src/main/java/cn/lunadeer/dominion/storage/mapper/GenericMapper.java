@@ -8,6 +8,7 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.SelectProvider;
 import org.apache.ibatis.annotations.UpdateProvider;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -31,13 +32,20 @@ public interface GenericMapper {
                                                  @Param("operator") String operator,
                                                  @Param("value") Object value);
 
-    @SelectProvider(type = SqlProvider.class, method = "selectDominionsByServer")
-    List<Map<String, Object>> selectDominionsByServer(@Param("serverId") Integer serverId);
+    @SelectProvider(type = SqlProvider.class, method = "selectLogsAfter")
+    List<Map<String, Object>> selectLogsAfter(@Param("logTable") String logTable,
+                                              @Param("ackTable") String ackTable,
+                                              @Param("serverId") Integer serverId,
+                                              @Param("afterId") Long afterId,
+                                              @Param("limit") Integer limit);
 
-    @SelectProvider(type = SqlProvider.class, method = "selectUnconsumedLogs")
-    List<Map<String, Object>> selectUnconsumedLogs(@Param("logTable") String logTable,
-                                                   @Param("ackTable") String ackTable,
-                                                   @Param("serverId") Integer serverId);
+    @SelectProvider(type = SqlProvider.class, method = "selectLatestLogId")
+    Long selectLatestLogId(@Param("logTable") String logTable);
+
+    @InsertProvider(type = SqlProvider.class, method = "insertAcks")
+    int insertAcks(@Param("ackTable") String ackTable,
+                   @Param("serverId") Integer serverId,
+                   @Param("logIds") Collection<Long> logIds);
 
     @SelectProvider(type = SqlProvider.class, method = "selectFullyConsumedLogs")
     List<Map<String, Object>> selectFullyConsumedLogs(@Param("logTable") String logTable,
@@ -79,6 +87,12 @@ public interface GenericMapper {
                       @Param("id") Object id,
                       @Param("values") Map<String, Object> values);
 
+    @UpdateProvider(type = SqlProvider.class, method = "updateColumnsWhereIn")
+    int updateColumnsWhereIn(@Param("table") String table,
+                             @Param("idColumn") String idColumn,
+                             @Param("ids") Collection<Integer> ids,
+                             @Param("values") Map<String, Object> values);
+
     @DeleteProvider(type = SqlProvider.class, method = "deleteWhere")
     int deleteWhere(@Param("table") String table,
                     @Param("column") String column,
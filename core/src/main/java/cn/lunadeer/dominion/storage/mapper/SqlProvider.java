@@ -13,9 +13,6 @@ import static cn.lunadeer.dominion.storage.DatabaseSchema.CUA_SERVER_ID;
 import static cn.lunadeer.dominion.storage.DatabaseSchema.CUL_CREATED_AT;
 import static cn.lunadeer.dominion.storage.DatabaseSchema.CUL_ID;
 import static cn.lunadeer.dominion.storage.DatabaseSchema.CUL_SERVER_ID;
-import static cn.lunadeer.dominion.storage.DatabaseSchema.DOM_ID;
-import static cn.lunadeer.dominion.storage.DatabaseSchema.DOM_SERVER_ID;
-import static cn.lunadeer.dominion.storage.DatabaseSchema.DOMINION;
 import static cn.lunadeer.dominion.storage.DatabaseSchema.SERVER_ID;
 import static cn.lunadeer.dominion.storage.DatabaseSchema.SERVER_INFO;
 import static cn.lunadeer.dominion.storage.DatabaseSchema.TP_CACHE;
@@ -48,10 +45,6 @@ public class SqlProvider {
         return "SELECT * FROM " + tableName(params) + " WHERE " + column(params, "column") + " " + operator + " #{value}";
     }
 
-    public String selectDominionsByServer() {
-        return "SELECT * FROM " + DOMINION + " WHERE " + DOM_SERVER_ID + " = #{serverId} AND " + DOM_ID + " >= 0";
-    }
-
     public String selectValue(Map<String, Object> params) {
         return "SELECT " + column(params, "selectColumn") + " FROM " + tableName(params)
                 + " WHERE " + column(params, "whereColumn") + " = #{value}";
@@ -91,6 +84,26 @@ public class SqlProvider {
         return "UPDATE " + table + " SET " + sets + " WHERE " + idColumn + " = #{id}";
     }
 
+    @SuppressWarnings("unchecked")
+    public String updateColumnsWhereIn(Map<String, Object> params) {
+        String table = tableName(params);
+        String idColumn = column(params, "idColumn");
+        Collection<Integer> ids = (Collection<Integer>) params.get("ids");
+        Map<String, Object> values = (Map<String, Object>) params.get("values");
+        if (values == null || values.isEmpty()) {
+            throw new IllegalArgumentException("No values supplied for update");
+        }
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No ids supplied for update");
+        }
+        StringJoiner sets = new StringJoiner(", ");
+        for (String column : values.keySet()) {
+            sets.add(identifier(column) + " = #{values." + column + "}");
+        }
+        String idList = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return "UPDATE " + table + " SET " + sets + " WHERE " + idColumn + " IN (" + idList + ")";
+    }
+
     public String deleteWhere(Map<String, Object> params) {
         return "DELETE FROM " + tableName(params) + " WHERE " + column(params, "column") + " = #{value}";
     }
@@ -100,16 +113,35 @@ public class SqlProvider {
         return "DELETE FROM " + tableName(params) + " WHERE " + whereAll((Map<String, Object>) params.get("values"));
     }
 
-    public String selectUnconsumedLogs(Map<String, Object> params) {
+    public String selectLogsAfter(Map<String, Object> params) {
         String logTable = (String) params.get("logTable");
         String ackTable = (String) params.get("ackTable");
         return "SELECT l.* FROM " + identifier(logTable) + " l " +
-                "WHERE l." + CUL_ID + " NOT IN (" +
-                "  SELECT a." + CUA_LOG_ID + " FROM " + identifier(ackTable) + " a " +
-                "  WHERE a." + CUA_SERVER_ID + " = #{serverId}" +
-                ") " +
+                "WHERE l." + CUL_ID + " > #{afterId} " +
                 "AND l." + CUL_SERVER_ID + " != #{serverId} " +
-                "ORDER BY l." + CUL_CREATED_AT + " ASC";
+                "AND NOT EXISTS (" +
+                "  SELECT 1 FROM " + identifier(ackTable) + " a " +
+                "  WHERE a." + CUA_LOG_ID + " = l." + CUL_ID + " AND a." + CUA_SERVER_ID + " = #{serverId}" +
+                ") " +
+                "ORDER BY l." + CUL_ID + " ASC LIMIT #{limit}";
+    }
+
+    public String selectLatestLogId(Map<String, Object> params) {
+        return "SELECT MAX(" + CUL_ID + ") FROM " + identifier((String) params.get("logTable"));
+    }
+
+    @SuppressWarnings("unchecked")
+    public String insertAcks(Map<String, Object> params) {
+        String ackTable = (String) params.get("ackTable");
+        Collection<Long> logIds = (Collection<Long>) params.get("logIds");
+        if (logIds == null || logIds.isEmpty()) {
+            throw new IllegalArgumentException("No log ids supplied for ack");
+        }
+        StringJoiner rows = new StringJoiner(", ");
+        for (Long logId : logIds) {
+            rows.add("(" + logId + ", #{serverId})");
+        }
+        return "INSERT INTO " + identifier(ackTable) + " (" + CUA_LOG_ID + ", " + CUA_SERVER_ID + ") VALUES " + rows;
     }
 
     public String selectFullyConsumedLogs(Map<String, Object> params) {
@@ -0,0 +1,33 @@
+package cn.lunadeer.dominion.storage.migration;
+
+import cn.lunadeer.dominion.storage.DatabaseType;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Indexes the cache update log for the cleanup of each server's own logs, which filters by producer server and
+ * by age. The polling query pages by the log id and probes the acknowledgement primary key, both already indexed.
+ */
+public final class V4__CacheSyncIndexes extends AbstractJavaMigration {
+
+    public V4__CacheSyncIndexes(DatabaseType type) {
+        super(type);
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        createIndexIfMissing(connection, "idx_cache_update_log_server", "cache_update_log", "server_id, id");
+        createIndexIfMissing(connection, "idx_cache_update_log_created", "cache_update_log", "created_at");
+    }
+
+    private void createIndexIfMissing(Connection connection, String indexName, String tableName, String columns) throws SQLException {
+        // MySQL has no CREATE INDEX IF NOT EXISTS
+        if (indexExists(connection, tableName, indexName)) {
+            return;
+        }
+        execute(connection, "CREATE INDEX " + indexName + " ON " + tableName + " (" + columns + ")");
+    }
+}
@@ -0,0 +1,86 @@
+package cn.lunadeer.dominion.storage.repository;
+
+import cn.lunadeer.dominion.api.dtos.flag.Flag;
+import cn.lunadeer.dominion.doos.FlagBits;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * The column positions of a result set, resolved once per query so the rows can be read by index.
+ * <p>
+ * Column names are matched case-insensitively like {@link RepositorySupport#value}, a column missing from the
+ * result set reads as null.
+ */
+final class Columns {
+
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    Columns(@NotNull ResultSetMetaData metaData) throws SQLException {
+        for (int i = metaData.getColumnCount(); i >= 1; i--) {
+            indices.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * @param column the column name
+     * @return the 1-based position of the column, 0 if the result set has no such column
+     */
+    int indexOf(@NotNull String column) {
+        return indices.getOrDefault(column.toLowerCase(Locale.ROOT), 0);
+    }
+
+    static Object value(ResultSet resultSet, int index) throws SQLException {
+        return index == 0 ? null : resultSet.getObject(index);
+    }
+
+    static Integer integer(ResultSet resultSet, int index) throws SQLException {
+        return RepositorySupport.toInteger(value(resultSet, index));
+    }
+
+    static String string(ResultSet resultSet, int index) throws SQLException {
+        Object value = value(resultSet, index);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * @param flags the flags to read, usually the enabled ones
+     * @return a reader of the columns of the flags
+     */
+    <F extends Flag> FlagColumns<F> flags(@NotNull Collection<F> flags) {
+        List<F> list = List.copyOf(flags);
+        int[] positions = new int[list.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = indexOf(list.get(i).getFlagName());
+        }
+        return new FlagColumns<>(list, positions);
+    }
+
+    /**
+     * Reads the flag columns of a row straight into the {@link FlagBits} the DOOs keep, every flag read is set.
+     */
+    static final class FlagColumns<F extends Flag> {
+        private final List<F> flags;
+        private final int[] positions;
+
+        private FlagColumns(List<F> flags, int[] positions) {
+            this.flags = flags;
+            this.positions = positions;
+        }
+
+        /**
+         * @return the map view of the flags of the row, which a DOO copies as bitsets
+         */
+        Map<F, Boolean> read(ResultSet resultSet) throws SQLException {
+            FlagBits<F> values = new FlagBits<>();
+            for (int i = 0; i < positions.length; i++) {
+                F flag = flags.get(i);
+                values.set(flag, RepositorySupport.toBoolean(value(resultSet, positions[i]), flag.getDefaultValue()));
+            }
+            return values.asMap();
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package cn.lunadeer.dominion.storage.repository;
 
 import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
 
 import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static cn.lunadeer.dominion.storage.DatabaseSchema.*;
 
@@ -16,15 +18,29 @@ public class DominionRepository extends RepositorySupport {
                               String tpLocation, String color, Integer serverId) {
     }
 
-    public static List<DominionRow> selectAll(Integer serverId) throws SQLException {
-        return sql((session, mapper) -> rows(mapper.selectDominionsByServer(serverId)));
+    /**
+     * Streams the dominions of a server, see {@link RepositorySupport#stream}.
+     *
+     * @param serverId the server id
+     * @param sink     receives every dominion
+     */
+    public static void selectAll(Integer serverId, Consumer<DominionRow> sink) throws SQLException {
+        String query = "SELECT * FROM " + table(DOMINION) + " WHERE " + DOM_SERVER_ID + " = ? AND " + DOM_ID + " >= 0";
+        writePending(DOMINION);
+        sql((session, mapper) -> {
+            stream(session, query, List.of(serverId), DominionRepository::decoder, sink);
+            return null;
+        });
     }
 
     public static DominionRow select(Integer id) throws SQLException {
+        writePending(DOMINION, id);
         return sql((session, mapper) -> row(mapper.selectWhere(DOMINION, DOM_ID, id)));
     }
 
     public static DominionRow select(String name) throws SQLException {
+        // the name is a queued column
+        writePending(DOMINION);
         return sql((session, mapper) -> row(mapper.selectWhere(DOMINION, DOM_NAME, name)));
     }
 
@@ -86,34 +102,28 @@ public class DominionRepository extends RepositorySupport {
         });
     }
 
-    public static void updateJoinMessage(Integer id, String message) throws SQLException {
-        update(DOM_JOIN_MESSAGE, message, id);
+    public static void updateJoinMessage(Integer id, String message, Runnable afterWrite) throws SQLException {
+        write(DOM_JOIN_MESSAGE, message, id, afterWrite);
     }
 
-    public static void updateLeaveMessage(Integer id, String message) throws SQLException {
-        update(DOM_LEAVE_MESSAGE, message, id);
+    public static void updateLeaveMessage(Integer id, String message, Runnable afterWrite) throws SQLException {
+        write(DOM_LEAVE_MESSAGE, message, id, afterWrite);
     }
 
-    public static void updateTpLocation(Integer id, String location) throws SQLException {
-        update(DOM_TP_LOCATION, location, id);
+    public static void updateTpLocation(Integer id, String location, Runnable afterWrite) throws SQLException {
+        write(DOM_TP_LOCATION, location, id, afterWrite);
     }
 
-    public static void updateColor(Integer id, String color) throws SQLException {
-        update(DOM_COLOR, color, id);
+    public static void updateColor(Integer id, String color, Runnable afterWrite) throws SQLException {
+        write(DOM_COLOR, color, id, afterWrite);
     }
 
-    public static void updateEnvFlag(Integer id, EnvFlag flag, Boolean value) throws SQLException {
-        sql((session, mapper) -> {
-            updateFlag(mapper, DOMINION, DOM_ID, id, flag, value);
-            return 0;
-        });
+    public static void updateEnvFlag(Integer id, EnvFlag flag, Boolean value, Runnable afterWrite) throws SQLException {
+        write(DOMINION, DOM_ID, id, flagValue(flag, value), afterWrite);
     }
 
-    public static void updateGuestFlag(Integer id, PriFlag flag, Boolean value) throws SQLException {
-        sql((session, mapper) -> {
-            updateFlag(mapper, DOMINION, DOM_ID, id, flag, value);
-            return 0;
-        });
+    public static void updateGuestFlag(Integer id, PriFlag flag, Boolean value, Runnable afterWrite) throws SQLException {
+        write(DOMINION, DOM_ID, id, flagValue(flag, value), afterWrite);
     }
 
     private static void update(String field, Object value, Integer id) throws SQLException {
@@ -124,15 +134,17 @@ public class DominionRepository extends RepositorySupport {
         });
     }
 
+    private static void write(String field, Object value, Integer id, Runnable afterWrite) throws SQLException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put(field, value);
+        write(DOMINION, DOM_ID, id, values, afterWrite);
+    }
+
     private static DominionRow row(List<Map<String, Object>> rows) {
         if (rows == null || rows.isEmpty()) return null;
         return row(rows.get(0));
     }
 
-    private static List<DominionRow> rows(List<Map<String, Object>> rows) {
-        return rows.stream().map(DominionRepository::row).toList();
-    }
-
     private static DominionRow row(Map<String, Object> row) {
         return new DominionRow(
                 integer(row, DOM_ID),
@@ -155,4 +167,45 @@ public class DominionRepository extends RepositorySupport {
                 integer(row, DOM_SERVER_ID)
         );
     }
+
+    private static RowDecoder<DominionRow> decoder(Columns columns) {
+        int id = columns.indexOf(DOM_ID);
+        int owner = columns.indexOf(DOM_OWNER);
+        int name = columns.indexOf(DOM_NAME);
+        int worldUid = columns.indexOf(DOM_WORLD_UID);
+        int x1 = columns.indexOf(DOM_X1);
+        int y1 = columns.indexOf(DOM_Y1);
+        int z1 = columns.indexOf(DOM_Z1);
+        int x2 = columns.indexOf(DOM_X2);
+        int y2 = columns.indexOf(DOM_Y2);
+        int z2 = columns.indexOf(DOM_Z2);
+        int parentDomId = columns.indexOf(DOM_PARENT_DOM_ID);
+        int joinMessage = columns.indexOf(DOM_JOIN_MESSAGE);
+        int leaveMessage = columns.indexOf(DOM_LEAVE_MESSAGE);
+        int tpLocation = columns.indexOf(DOM_TP_LOCATION);
+        int color = columns.indexOf(DOM_COLOR);
+        int serverId = columns.indexOf(DOM_SERVER_ID);
+        Columns.FlagColumns<EnvFlag> envFlags = columns.flags(Flags.getAllEnvFlagsEnable());
+        Columns.FlagColumns<PriFlag> guestFlags = columns.flags(Flags.getAllPriFlagsEnable());
+        return rs -> new DominionRow(
+                Columns.integer(rs, id),
+                UUID.fromString(Columns.string(rs, owner)),
+                Columns.string(rs, name),
+                UUID.fromString(Columns.string(rs, worldUid)),
+                Columns.integer(rs, x1),
+                Columns.integer(rs, y1),
+                Columns.integer(rs, z1),
+                Columns.integer(rs, x2),
+                Columns.integer(rs, y2),
+                Columns.integer(rs, z2),
+                Columns.integer(rs, parentDomId),
+                Columns.string(rs, joinMessage),
+                Columns.string(rs, leaveMessage),
+                envFlags.read(rs),
+                guestFlags.read(rs),
+                Columns.string(rs, tpLocation),
+                Columns.string(rs, color),
+                Columns.integer(rs, serverId)
+        );
+    }
 }
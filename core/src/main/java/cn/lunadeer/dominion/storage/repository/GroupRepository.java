@@ -1,9 +1,11 @@
 package cn.lunadeer.dominion.storage.repository;
 
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
 
 import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static cn.lunadeer.dominion.storage.DatabaseSchema.*;
 
@@ -28,15 +30,28 @@ public class GroupRepository extends RepositorySupport {
         });
     }
 
-    public static List<GroupRow> select() throws SQLException {
-        return sql((session, mapper) -> rows(mapper.selectAll(GROUP)));
+    /**
+     * Streams every group, see {@link RepositorySupport#stream}.
+     *
+     * @param sink receives every group
+     */
+    public static void select(Consumer<GroupRow> sink) throws SQLException {
+        String query = "SELECT * FROM " + table(GROUP);
+        writePending(GROUP);
+        sql((session, mapper) -> {
+            stream(session, query, List.of(), GroupRepository::decoder, sink);
+            return null;
+        });
     }
 
     public static GroupRow select(Integer id) throws SQLException {
+        writePending(GROUP, id);
         return sql((session, mapper) -> row(mapper.selectWhere(GROUP, GROUP_ID, id)));
     }
 
     public static List<GroupRow> selectByDominionId(Integer domId) throws SQLException {
+        // the rows read may have queued columns
+        writePending(GROUP);
         return sql((session, mapper) -> rows(mapper.selectWhere(GROUP, GROUP_DOM_ID, domId)));
     }
 
@@ -44,20 +59,15 @@ public class GroupRepository extends RepositorySupport {
         sql((session, mapper) -> mapper.deleteWhere(GROUP, GROUP_ID, id));
     }
 
-    public static void updateName(Integer id, String plainName, String coloredName) throws SQLException {
-        sql((session, mapper) -> {
-            Map<String, Object> values = new LinkedHashMap<>();
-            values.put(GROUP_NAME, plainName);
-            values.put(GROUP_NAME_COLORED, coloredName);
-            return mapper.updateColumns(GROUP, GROUP_ID, id, values);
-        });
+    public static void updateName(Integer id, String plainName, String coloredName, Runnable afterWrite) throws SQLException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put(GROUP_NAME, plainName);
+        values.put(GROUP_NAME_COLORED, coloredName);
+        write(GROUP, GROUP_ID, id, values, afterWrite);
     }
 
-    public static void updateFlag(Integer id, PriFlag flag, Boolean value) throws SQLException {
-        sql((session, mapper) -> {
-            updateFlag(mapper, GROUP, GROUP_ID, id, flag, value);
-            return 0;
-        });
+    public static void updateFlag(Integer id, PriFlag flag, Boolean value, Runnable afterWrite) throws SQLException {
+        write(GROUP, GROUP_ID, id, flagValue(flag, value), afterWrite);
     }
 
     private static GroupRow row(List<Map<String, Object>> rows) {
@@ -73,4 +83,14 @@ public class GroupRepository extends RepositorySupport {
         return new GroupRow(integer(row, GROUP_ID), integer(row, GROUP_DOM_ID), string(row, GROUP_NAME),
                 readPriFlags(row), string(row, GROUP_NAME_COLORED));
     }
+
+    private static RowDecoder<GroupRow> decoder(Columns columns) {
+        int id = columns.indexOf(GROUP_ID);
+        int domId = columns.indexOf(GROUP_DOM_ID);
+        int name = columns.indexOf(GROUP_NAME);
+        int nameColored = columns.indexOf(GROUP_NAME_COLORED);
+        Columns.FlagColumns<PriFlag> flags = columns.flags(Flags.getAllPriFlagsEnable());
+        return rs -> new GroupRow(Columns.integer(rs, id), Columns.integer(rs, domId), Columns.string(rs, name),
+                flags.read(rs), Columns.string(rs, nameColored));
+    }
 }
@@ -1,9 +1,11 @@
 package cn.lunadeer.dominion.storage.repository;
 
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
 
 import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static cn.lunadeer.dominion.storage.DatabaseSchema.*;
 
@@ -28,19 +30,34 @@ public class MemberRepository extends RepositorySupport {
         });
     }
 
-    public static List<MemberRow> select() throws SQLException {
-        return sql((session, mapper) -> rows(mapper.selectAll(MEMBER)));
+    /**
+     * Streams every member, see {@link RepositorySupport#stream}.
+     *
+     * @param sink receives every member
+     */
+    public static void select(Consumer<MemberRow> sink) throws SQLException {
+        String query = "SELECT * FROM " + table(MEMBER);
+        writePending(MEMBER);
+        sql((session, mapper) -> {
+            stream(session, query, List.of(), MemberRepository::decoder, sink);
+            return null;
+        });
     }
 
     public static MemberRow select(Integer id) throws SQLException {
+        writePending(MEMBER, id);
         return sql((session, mapper) -> row(mapper.selectWhere(MEMBER, MEMBER_ID, id)));
     }
 
     public static List<MemberRow> selectByDominionId(Integer domId) throws SQLException {
+        // the rows read may have queued columns
+        writePending(MEMBER);
         return sql((session, mapper) -> rows(mapper.selectWhere(MEMBER, MEMBER_DOM_ID, domId)));
     }
 
     public static List<MemberRow> selectByGroupId(Integer groupId) throws SQLException {
+        // the group of a member is a queued column
+        writePending(MEMBER);
         return sql((session, mapper) -> rows(mapper.selectWhere(MEMBER, MEMBER_GROUP_ID, groupId)));
     }
 
@@ -52,26 +69,18 @@ public class MemberRepository extends RepositorySupport {
         sql((session, mapper) -> mapper.deleteWhere(MEMBER, MEMBER_PLAYER_UUID, playerUUID.toString()));
     }
 
-    public static void updateGroupId(Integer id, Integer groupId) throws SQLException {
-        sql((session, mapper) -> {
-            Map<String, Object> values = new LinkedHashMap<>();
-            values.put(MEMBER_GROUP_ID, groupId);
-            return mapper.updateColumns(MEMBER, MEMBER_ID, id, values);
-        });
+    public static void updateGroupId(Integer id, Integer groupId, Runnable afterWrite) throws SQLException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put(MEMBER_GROUP_ID, groupId);
+        write(MEMBER, MEMBER_ID, id, values, afterWrite);
     }
 
-    public static void updateFlag(Integer id, PriFlag flag, Boolean value) throws SQLException {
-        sql((session, mapper) -> {
-            updateFlag(mapper, MEMBER, MEMBER_ID, id, flag, value);
-            return 0;
-        });
+    public static void updateFlag(Integer id, PriFlag flag, Boolean value, Runnable afterWrite) throws SQLException {
+        write(MEMBER, MEMBER_ID, id, flagValue(flag, value), afterWrite);
     }
 
-    public static void updateFlags(Integer id, Map<PriFlag, Boolean> flags) throws SQLException {
-        sql((session, mapper) -> {
-            updatePriFlags(mapper, MEMBER, MEMBER_ID, id, flags);
-            return 0;
-        });
+    public static void updateFlags(Integer id, Map<PriFlag, Boolean> flags, Runnable afterWrite) throws SQLException {
+        write(MEMBER, MEMBER_ID, id, flagValues(flags), afterWrite);
     }
 
     private static MemberRow row(List<Map<String, Object>> rows) {
@@ -92,4 +101,19 @@ public class MemberRepository extends RepositorySupport {
                 integer(row, MEMBER_GROUP_ID)
         );
     }
+
+    private static RowDecoder<MemberRow> decoder(Columns columns) {
+        int id = columns.indexOf(MEMBER_ID);
+        int playerUuid = columns.indexOf(MEMBER_PLAYER_UUID);
+        int domId = columns.indexOf(MEMBER_DOM_ID);
+        int groupId = columns.indexOf(MEMBER_GROUP_ID);
+        Columns.FlagColumns<PriFlag> flags = columns.flags(Flags.getAllPriFlagsEnable());
+        return rs -> new MemberRow(
+                Columns.integer(rs, id),
+                UUID.fromString(Columns.string(rs, playerUuid)),
+                Columns.integer(rs, domId),
+                flags.read(rs),
+                Columns.integer(rs, groupId)
+        );
+    }
 }
@@ -9,6 +9,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static cn.lunadeer.dominion.storage.DatabaseSchema.*;
 
@@ -18,8 +19,17 @@ public class PlayerRepository extends RepositorySupport {
                             Integer usingGroupTitleId, String skinUrl) {
     }
 
-    public static List<PlayerRow> all() throws SQLException {
-        return sql((session, mapper) -> rows(mapper.selectWhereCompare(PLAYER_NAME, PLAYER_ID, ">", 0)));
+    /**
+     * Streams every player, see {@link RepositorySupport#stream}.
+     *
+     * @param sink receives every player
+     */
+    public static void all(Consumer<PlayerRow> sink) throws SQLException {
+        String query = "SELECT * FROM " + table(PLAYER_NAME) + " WHERE " + PLAYER_ID + " > 0";
+        sql((session, mapper) -> {
+            stream(session, query, List.of(), PlayerRepository::decoder, sink);
+            return null;
+        });
     }
 
     public static PlayerRow selectById(Integer id) throws SQLException {
@@ -120,10 +130,6 @@ public class PlayerRepository extends RepositorySupport {
         return row(rows.get(0));
     }
 
-    private static List<PlayerRow> rows(List<Map<String, Object>> rows) {
-        return rows.stream().map(PlayerRepository::row).toList();
-    }
-
     private static PlayerRow row(Map<String, Object> row) {
         return new PlayerRow(
                 integer(row, PLAYER_ID),
@@ -135,4 +141,21 @@ public class PlayerRepository extends RepositorySupport {
         );
     }
 
+    private static RowDecoder<PlayerRow> decoder(Columns columns) {
+        int id = columns.indexOf(PLAYER_ID);
+        int uuid = columns.indexOf(PLAYER_UUID);
+        int lastKnownName = columns.indexOf(PLAYER_LAST_KNOWN_NAME);
+        int lastJoinAt = columns.indexOf(PLAYER_LAST_JOIN_AT);
+        int usingGroupTitleId = columns.indexOf(PLAYER_USING_GROUP_TITLE_ID);
+        int skinUrl = columns.indexOf(PLAYER_SKIN_URL);
+        return rs -> new PlayerRow(
+                Columns.integer(rs, id),
+                UUID.fromString(Columns.string(rs, uuid)),
+                Columns.string(rs, lastKnownName),
+                toLocalDateTime(Columns.value(rs, lastJoinAt)),
+                Columns.integer(rs, usingGroupTitleId),
+                Columns.string(rs, skinUrl)
+        );
+    }
+
 }
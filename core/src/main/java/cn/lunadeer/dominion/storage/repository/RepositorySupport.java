@@ -10,11 +10,15 @@ import cn.lunadeer.dominion.storage.mapper.GenericMapper;
 import org.apache.ibatis.exceptions.PersistenceException;
 import org.apache.ibatis.session.SqlSession;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.*;
+import java.util.function.Consumer;
 
 abstract class RepositorySupport {
 
@@ -44,6 +48,99 @@ abstract class RepositorySupport {
         }
     }
 
+    /**
+     * Writes the queued update of a row before it is read, see {@link WriteBehindQueue#flush(String, int)}.
+     *
+     * @param table the table of the row
+     * @param id    the primary key of the row
+     */
+    protected static void writePending(String table, int id) {
+        WriteBehindQueue queue = WriteBehindQueue.instance;
+        if (queue != null) {
+            queue.flush(table, id);
+        }
+    }
+
+    /**
+     * Writes the queued updates of a table before reading rows by a queued column or loading the whole table,
+     * see {@link WriteBehindQueue#flush(String)}.
+     *
+     * @param table the table
+     */
+    protected static void writePending(String table) {
+        WriteBehindQueue queue = WriteBehindQueue.instance;
+        if (queue != null) {
+            queue.flush(table);
+        }
+    }
+
+    /**
+     * Updates some columns of one row through the {@link WriteBehindQueue}, or right away if there is none.
+     *
+     * @param table      the table of the row
+     * @param idColumn   the primary key column of the table
+     * @param id         the primary key of the row
+     * @param values     column -> new value
+     * @param afterWrite run after the row is committed, null for nothing
+     */
+    protected static void write(String table, String idColumn, int id, Map<String, Object> values,
+                                Runnable afterWrite) throws SQLException {
+        WriteBehindQueue queue = WriteBehindQueue.instance;
+        if (queue != null && !values.isEmpty()) {
+            queue.submit(new WriteBehindQueue.Change(table, idColumn, id, values, afterWrite));
+            return;
+        }
+        if (!values.isEmpty()) {
+            sql((session, mapper) -> mapper.updateColumns(table, idColumn, id, values));
+        }
+        if (afterWrite != null) {
+            afterWrite.run();
+        }
+    }
+
+    @FunctionalInterface
+    protected interface RowDecoder<T> {
+        T decode(ResultSet resultSet) throws SQLException;
+    }
+
+    @FunctionalInterface
+    protected interface DecoderFactory<T> {
+        RowDecoder<T> create(Columns columns) throws SQLException;
+    }
+
+    // rows buffered per round trip where the driver supports cursors
+    private static final int FETCH_SIZE = 512;
+
+    /**
+     * Runs a query and decodes its rows one at a time, straight from the result set by column index.
+     * <p>
+     * Unlike the {@link GenericMapper} selects no row is materialized as a map, and the driver is asked to
+     * stream the result set instead of buffering it, so loading a whole table only holds the decoded rows.
+     *
+     * @param session the session to run the query on
+     * @param query   the query, with {@code ?} placeholders
+     * @param params  the values of the placeholders
+     * @param decoder creates the row decoder once the columns of the result set are known
+     * @param sink    receives every decoded row
+     */
+    protected static <T> void stream(SqlSession session, String query, List<?> params, DecoderFactory<T> decoder,
+                                     Consumer<? super T> sink) throws SQLException {
+        Connection connection = session.getConnection();
+        try (PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // MySQL Connector/J only streams with this magic value, the other drivers take a row count
+            statement.setFetchSize(databaseType() == DatabaseType.MYSQL ? Integer.MIN_VALUE : FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                RowDecoder<T> rows = decoder.create(new Columns(resultSet.getMetaData()));
+                while (resultSet.next()) {
+                    sink.accept(rows.decode(resultSet));
+                }
+            }
+        }
+    }
+
     protected static DatabaseType databaseType() {
         return DatabaseManager.instance.getType();
     }
@@ -142,16 +239,26 @@ abstract class RepositorySupport {
         mapper.updateColumns(table, ownerIdColumn, ownerId, values);
     }
 
-    protected static void updatePriFlags(GenericMapper mapper, String table, String ownerIdColumn, int ownerId, Map<PriFlag, Boolean> flags) {
+    protected static Map<String, Object> flagValue(Flag flag, Boolean value) {
         Map<String, Object> values = new LinkedHashMap<>();
-        putPriFlags(values, flags);
-        updateFields(mapper, table, ownerIdColumn, ownerId, values);
+        values.put(flag.getFlagName(), normalizeValue(flag, value));
+        return values;
     }
 
-    protected static void updateEnvFlags(GenericMapper mapper, String table, String ownerIdColumn, int ownerId, Map<EnvFlag, Boolean> flags) {
+    /**
+     * Column values for some flags of a row, unlike {@link #putPriFlags} the flags not given are left out.
+     *
+     * @param flags the flags to write, disabled flags are skipped
+     * @return flag column -> value
+     */
+    protected static Map<String, Object> flagValues(Map<? extends Flag, Boolean> flags) {
         Map<String, Object> values = new LinkedHashMap<>();
-        putEnvFlags(values, flags);
-        updateFields(mapper, table, ownerIdColumn, ownerId, values);
+        flags.forEach((flag, value) -> {
+            if (flag.getEnable()) {
+                values.put(flag.getFlagName(), normalizeValue(flag, value));
+            }
+        });
+        return values;
     }
 
     protected static Object value(Map<String, Object> row, String column) {
@@ -182,11 +289,4 @@ abstract class RepositorySupport {
     private static boolean normalizeValue(Flag flag, Boolean value) {
         return value != null ? value : flag.getDefaultValue();
     }
-
-    private static void updateFields(GenericMapper mapper, String table, String ownerIdColumn, int ownerId, Map<String, Object> values) {
-        if (values.isEmpty()) {
-            return;
-        }
-        mapper.updateColumns(table, ownerIdColumn, ownerId, values);
-    }
 }
@@ -19,9 +19,10 @@ public class UpdateLogRepository extends RepositorySupport {
      * @param targetId   the ID of the entity that changed
      * @param serverId   the server that produced this change
      * @param action     UPSERT or DELETE
+     * @return the id of the log, 0 if the driver did not return it
      */
-    public static void insertLog(String entityType, int targetId, int serverId, String action) throws SQLException {
-        sql((session, mapper) -> {
+    public static long insertLog(String entityType, int targetId, int serverId, String action) throws SQLException {
+        return sql((session, mapper) -> {
             Map<String, Object> values = new LinkedHashMap<>();
             values.put(CUL_ENTITY_TYPE, entityType);
             values.put(CUL_TARGET_ID, targetId);
@@ -29,10 +30,11 @@ public class UpdateLogRepository extends RepositorySupport {
             values.put(CUL_ACTION, action);
             mapper.insert(identifier(CACHE_UPDATE_LOG), values);
             Integer logId = toInteger(values.get(CUL_ID));
-            if (logId != null) {
-                insertAckInternal(mapper, logId, serverId);
+            if (logId == null) {
+                return 0L;
             }
-            return null;
+            insertAckInternal(mapper, logId, serverId);
+            return (long) logId;
         });
     }
 
@@ -44,21 +46,33 @@ public class UpdateLogRepository extends RepositorySupport {
     }
 
     /**
-     * Insert an acknowledgement for a log.
+     * Insert the acknowledgements of some logs in one statement.
      */
-    public static void insertAck(long logId, int serverId) throws SQLException {
-        sql((session, mapper) -> {
-            insertAckInternal(mapper, logId, serverId);
-            return null;
-        });
+    public static void insertAcks(Collection<Long> logIds, int serverId) throws SQLException {
+        if (logIds.isEmpty()) return;
+        sql((session, mapper) -> mapper.insertAcks(CACHE_UPDATE_ACK, serverId, logIds));
     }
 
     /**
-     * Get all unconsumed update logs for a server (excluding logs produced by itself).
+     * Get the next unconsumed update logs for a server (excluding logs produced by itself), in log id order.
+     *
+     * @param serverId the consuming server
+     * @param afterId  only logs with a greater id are returned
+     * @param limit    the maximum number of logs
      */
-    public static List<Map<String, Object>> selectUnconsumed(int serverId) throws SQLException {
-        return sql((session, mapper) -> mapper.selectUnconsumedLogs(
-                CACHE_UPDATE_LOG, CACHE_UPDATE_ACK, serverId));
+    public static List<Map<String, Object>> selectUnconsumed(int serverId, long afterId, int limit) throws SQLException {
+        return sql((session, mapper) -> mapper.selectLogsAfter(
+                CACHE_UPDATE_LOG, CACHE_UPDATE_ACK, serverId, afterId, limit));
+    }
+
+    /**
+     * Get the id of the latest log, 0 if there is none.
+     */
+    public static long selectLatestLogId() throws SQLException {
+        return sql((session, mapper) -> {
+            Long id = mapper.selectLatestLogId(CACHE_UPDATE_LOG);
+            return id == null ? 0L : id;
+        });
     }
 
     /**
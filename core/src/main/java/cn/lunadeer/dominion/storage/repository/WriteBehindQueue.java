@@ -0,0 +1,349 @@
+package cn.lunadeer.dominion.storage.repository;
+
+import cn.lunadeer.dominion.utils.XLogger;
+import cn.lunadeer.dominion.utils.scheduler.Scheduler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind queue for the single-row updates of the DOO setters.
+ * <p>
+ * A setter applies its change to the cached DTO and submits the changed columns here. The changes are
+ * coalesced per (table, id), a later value of a column replacing the earlier one, and a background task
+ * writes all pending rows in one transaction. The after-write action of a row (the cross-server cache
+ * notification) runs once the row is committed.
+ * <p>
+ * Readers are served by the cached DTOs. The few queries that must see a queued change in the database, a row
+ * read by id or a table read by a queued column, write the pending rows of that row or table first, see
+ * {@link RepositorySupport#writePending}. The queue is flushed once more when the database is closed.
+ * <p>
+ * A row that fails to write stays queued and is retried on its own, so it never holds back the other rows,
+ * and its failure is logged instead of thrown to the callers.
+ */
+public final class WriteBehindQueue extends RepositorySupport {
+
+    public static WriteBehindQueue instance;
+
+    private static final long FLUSH_INTERVAL_TICKS = 10;
+    private static final long MAX_HOLD_MILLIS = 5000;
+
+    /**
+     * The pending update of one row.
+     *
+     * @param table      the table of the row
+     * @param idColumn   the primary key column of the table
+     * @param id         the primary key of the row
+     * @param values     column -> new value
+     * @param afterWrite run after the row is committed, null for nothing
+     */
+    public record Change(@NotNull String table, @NotNull String idColumn, int id,
+                         @NotNull Map<String, Object> values, @Nullable Runnable afterWrite) {
+    }
+
+    private record RowKey(String table, int id) {
+    }
+
+    private record Statement(String table, String idColumn, Map<String, Object> values) {
+    }
+
+    private final Object pendingLock = new Object();
+    private LinkedHashMap<RowKey, Change> pending = new LinkedHashMap<>();
+    // rows that failed to write, retried one per transaction
+    private final Set<RowKey> failing = new HashSet<>();
+    // rows taken out of pending by the batch in flight, until it is committed or requeued
+    private final Set<RowKey> writing = new HashSet<>();
+    // held while a batch is written, a flush waits for the batch in flight
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // open batch operations, see batch(Supplier)
+    private final AtomicInteger holds = new AtomicInteger();
+    private volatile long heldSince;
+
+    public WriteBehindQueue() {
+        instance = this;
+    }
+
+    /**
+     * Start the background flush task. Called once at startup.
+     */
+    public void startFlushing() {
+        Scheduler.runTaskRepeatAsync(this::flushInBackground, FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
+    }
+
+    /**
+     * Queues the update of a row, merged with the pending update of the same row if any.
+     *
+     * @param change the update
+     */
+    public void submit(@NotNull Change change) {
+        synchronized (pendingLock) {
+            pending.merge(new RowKey(change.table(), change.id()), change, WriteBehindQueue::coalesce);
+        }
+    }
+
+    /**
+     * Runs an operation of many setter calls, e.g. toggling a whole flag group, so their changes are written
+     * together: the background flush waits until the operation completes (at most five seconds),
+     * then the queue is flushed once. The setters of one row thereby become a single multi-column UPDATE.
+     *
+     * @param operation the operation, started right away
+     * @return the future of the operation
+     */
+    public static <T> CompletableFuture<T> batch(@NotNull Supplier<CompletableFuture<T>> operation) {
+        WriteBehindQueue queue = instance;
+        if (queue == null) {
+            return operation.get();
+        }
+        if (queue.holds.getAndIncrement() == 0) {
+            queue.heldSince = System.currentTimeMillis();
+        }
+        CompletableFuture<T> future;
+        try {
+            future = operation.get();
+        } catch (RuntimeException e) {
+            queue.release();
+            throw e;
+        }
+        return future.whenComplete((result, throwable) -> queue.release());
+    }
+
+    private void release() {
+        if (holds.decrementAndGet() == 0) {
+            Scheduler.runTaskAsync(this::flushQuietly);
+        }
+    }
+
+    private void flushInBackground() {
+        if (holds.get() > 0 && System.currentTimeMillis() - heldSince < MAX_HOLD_MILLIS) {
+            return;
+        }
+        flushQuietly();
+    }
+
+    /**
+     * @return the number of rows waiting to be written
+     */
+    public int size() {
+        synchronized (pendingLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Writes every pending row in one transaction, then runs their after-write actions.
+     * <p>
+     * Waits for a batch already being written, so every change submitted before the call is committed when
+     * it returns, unless it failed. The failed rows stay queued for the next flush.
+     *
+     * @throws SQLException if some rows could not be written
+     */
+    public void flush() throws SQLException {
+        int failed = flush(key -> true);
+        if (failed > 0) {
+            throw new SQLException(failed + " pending row(s) could not be written");
+        }
+    }
+
+    /**
+     * Writes the pending update of one row if any, a failure is logged and the row stays queued.
+     * If the row is in the batch being written, waits for that batch instead.
+     *
+     * @param table the table of the row
+     * @param id    the primary key of the row
+     */
+    public void flush(@NotNull String table, int id) {
+        RowKey row = new RowKey(table, id);
+        synchronized (pendingLock) {
+            if (!pending.containsKey(row) && !writing.contains(row)) return;
+        }
+        flush(row::equals);
+    }
+
+    /**
+     * Writes the pending updates of one table, a failure is logged and the rows stay queued.
+     *
+     * @param table the table
+     */
+    public void flush(@NotNull String table) {
+        flush(key -> key.table().equals(table));
+    }
+
+    /**
+     * Same as {@link #flush()}, logging a failure instead of throwing it.
+     */
+    public void flushQuietly() {
+        flush(key -> true);
+    }
+
+    private int flush(Predicate<RowKey> rows) {
+        flushLock.lock();
+        try {
+            List<Change> together = new ArrayList<>();
+            List<Change> alone = new ArrayList<>();
+            synchronized (pendingLock) {
+                Iterator<Map.Entry<RowKey, Change>> iterator = pending.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<RowKey, Change> entry = iterator.next();
+                    if (!rows.test(entry.getKey())) continue;
+                    (failing.contains(entry.getKey()) ? alone : together).add(entry.getValue());
+                    writing.add(entry.getKey());
+                    iterator.remove();
+                }
+            }
+            if (together.isEmpty() && alone.isEmpty()) {
+                return 0;
+            }
+            try {
+                return writeRows(together, alone);
+            } finally {
+                synchronized (pendingLock) {
+                    writing.clear();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the rows taken out of pending, requeues the failed ones and runs the after-write actions.
+     *
+     * @return the number of rows requeued
+     */
+    private int writeRows(List<Change> together, List<Change> alone) {
+        List<Change> written = new ArrayList<>();
+        List<Change> failed = new ArrayList<>();
+        List<Change> retry = new ArrayList<>();
+        SQLException unavailable = null;
+        if (together.size() == 1) {
+            alone.add(0, together.get(0));
+        } else if (!together.isEmpty()) {
+            SQLException e = write(together);
+            if (e == null) {
+                written.addAll(together);
+            } else if (isConnectionFailure(e)) {
+                unavailable = e;
+                retry.addAll(together);
+            } else {
+                // find the failing rows, the others are written one by one
+                alone.addAll(0, together);
+            }
+        }
+        for (Change change : alone) {
+            if (unavailable != null) {
+                retry.add(change);
+                continue;
+            }
+            SQLException e = write(List.of(change));
+            if (e == null) {
+                written.add(change);
+            } else if (isConnectionFailure(e)) {
+                unavailable = e;
+                retry.add(change);
+            } else {
+                failed.add(change);
+                boolean first;
+                synchronized (pendingLock) {
+                    first = failing.add(new RowKey(change.table(), change.id()));
+                }
+                if (first) {
+                    XLogger.error("Failed to write {0} {1}, will retry: {2}", change.table(), change.id(), e.getMessage());
+                }
+            }
+        }
+        if (unavailable != null) {
+            XLogger.error("Failed to write {0} pending row(s), will retry: {1}", retry.size(), unavailable.getMessage());
+        }
+        failed.addAll(retry);
+        if (!failed.isEmpty()) {
+            requeue(failed);
+            XLogger.debug("{0} pending row(s) could not be written", failed.size());
+        }
+        if (!written.isEmpty()) {
+            XLogger.debug("Wrote {0} pending row(s)", written.size());
+        }
+        for (Change change : written) {
+            synchronized (pendingLock) {
+                failing.remove(new RowKey(change.table(), change.id()));
+            }
+            if (change.afterWrite() == null) continue;
+            try {
+                change.afterWrite().run();
+            } catch (RuntimeException e) {
+                XLogger.warn("Failed to run the after-write action of {0} {1}: {2}", change.table(), change.id(), e.getMessage());
+            }
+        }
+        return failed.size();
+    }
+
+    /**
+     * Writes some rows in one transaction.
+     *
+     * @return null if the rows are committed, else the failure
+     */
+    private static SQLException write(List<Change> batch) {
+        try {
+            sql((session, mapper) -> {
+                // rows given the same values, e.g. members moved out of a deleted group, share one statement
+                Map<Statement, List<Integer>> statements = new LinkedHashMap<>();
+                for (Change change : batch) {
+                    statements.computeIfAbsent(new Statement(change.table(), change.idColumn(), change.values()),
+                            k -> new ArrayList<>()).add(change.id());
+                }
+                statements.forEach((statement, ids) -> {
+                    if (ids.size() == 1) {
+                        mapper.updateColumns(statement.table(), statement.idColumn(), ids.get(0), statement.values());
+                    } else {
+                        mapper.updateColumnsWhereIn(statement.table(), statement.idColumn(), ids, statement.values());
+                    }
+                });
+                return statements.size();
+            });
+            return null;
+        } catch (SQLException e) {
+            return e;
+        }
+    }
+
+    // the database could not be reached, as opposed to a row it refused
+    private static boolean isConnectionFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void requeue(List<Change> batch) {
+        synchronized (pendingLock) {
+            // the rows submitted meanwhile are newer than the failed batch
+            LinkedHashMap<RowKey, Change> newer = pending;
+            pending = new LinkedHashMap<>();
+            for (Change change : batch) {
+                pending.put(new RowKey(change.table(), change.id()), change);
+            }
+            newer.forEach((key, change) -> pending.merge(key, change, WriteBehindQueue::coalesce));
+        }
+    }
+
+    private static Change coalesce(Change older, Change newer) {
+        Map<String, Object> values = new LinkedHashMap<>(older.values());
+        values.putAll(newer.values());
+        Runnable afterWrite = newer.afterWrite() != null ? newer.afterWrite() : older.afterWrite();
+        return new Change(newer.table(), newer.idColumn(), newer.id(), values, afterWrite);
+    }
+}
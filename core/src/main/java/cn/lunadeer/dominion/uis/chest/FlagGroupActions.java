@@ -1,5 +1,7 @@
 package cn.lunadeer.dominion.uis.chest;
 
+import cn.lunadeer.dominion.storage.repository.WriteBehindQueue;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -58,18 +60,21 @@ final class FlagGroupActions {
                                                            Predicate<T> needsChange,
                                                            Executor invocationExecutor,
                                                            Function<T, CompletableFuture<?>> update) {
-        CompletableFuture<Result> sequence = CompletableFuture.completedFuture(new Result(0, List.of()));
-        for (T value : values) {
-            if (!needsChange.test(value)) {
-                continue;
+        // the flag columns changed by one toggle are written together as one UPDATE
+        return WriteBehindQueue.batch(() -> {
+            CompletableFuture<Result> sequence = CompletableFuture.completedFuture(new Result(0, List.of()));
+            for (T value : values) {
+                if (!needsChange.test(value)) {
+                    continue;
+                }
+                sequence = sequence.thenCompose(result ->
+                        invoke(invocationExecutor, () -> update.apply(value))
+                        .handle((ignored, throwable) -> throwable == null
+                            ? new Result(result.changed() + 1, result.failures())
+                            : withFailure(result, throwable)));
             }
-            sequence = sequence.thenCompose(result ->
-                    invoke(invocationExecutor, () -> update.apply(value))
-                    .handle((ignored, throwable) -> throwable == null
-                        ? new Result(result.changed() + 1, result.failures())
-                        : withFailure(result, throwable)));
-        }
-        return sequence;
+            return sequence;
+        });
     }
 
     private static CompletableFuture<?> invoke(Executor executor,
@@ -0,0 +1,147 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.cache.server.DominionCache;
+import cn.lunadeer.dominion.cache.server.ServerCache;
+import cn.lunadeer.dominion.configuration.Configuration;
+import cn.lunadeer.dominion.storage.repository.UpdateLogRepository;
+import cn.lunadeer.dominion.utils.XLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static cn.lunadeer.dominion.storage.DatabaseSchema.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CacheSyncManagerTest {
+
+    private static final int THIS_SERVER = 1;
+    private static final int OTHER_SERVER = 2;
+
+    private MockedStatic<XLogger> logger;
+    private MockedStatic<UpdateLogRepository> repository;
+    private DominionCache dominionCache;
+
+    @BeforeEach
+    void setUp() {
+        logger = mockStatic(XLogger.class);
+        repository = mockStatic(UpdateLogRepository.class);
+        repository.when(() -> UpdateLogRepository.selectFullyConsumedLogs(anyInt(), anyInt())).thenReturn(List.of());
+        Configuration.multiServer.serverId = THIS_SERVER;
+        CacheManager.instance = mock(CacheManager.class);
+        ServerCache serverCache = mock(ServerCache.class);
+        dominionCache = mock(DominionCache.class);
+        when(serverCache.getDominionCache()).thenReturn(dominionCache);
+        when(CacheManager.instance.getCache(OTHER_SERVER)).thenReturn(serverCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.close();
+        repository.close();
+    }
+
+    private static Map<String, Object> log(long id, int serverId) {
+        return Map.of(CUL_ID, id, CUL_ENTITY_TYPE, "dominion", CUL_TARGET_ID, (int) id,
+                CUL_SERVER_ID, serverId, CUL_ACTION, "UPSERT");
+    }
+
+    private static List<Map<String, Object>> logs(long from, int count) {
+        List<Map<String, Object>> logs = new ArrayList<>();
+        for (long id = from; id < from + count; id++) {
+            logs.add(log(id, OTHER_SERVER));
+        }
+        return logs;
+    }
+
+    @Test
+    void pollsAfterTheMarkAndAcksEachPageOnce() {
+        long mark = 1000;
+        repository.when(() -> UpdateLogRepository.selectUnconsumed(eq(THIS_SERVER), anyLong(), anyInt()))
+                .thenReturn(logs(1001, CacheSyncManager.PAGE_SIZE), logs(1501, 3));
+        CacheSyncManager manager = new CacheSyncManager(mark);
+
+        manager.pollCycle();
+
+        repository.verify(() -> UpdateLogRepository.selectUnconsumed(THIS_SERVER, mark, CacheSyncManager.PAGE_SIZE));
+        repository.verify(() -> UpdateLogRepository.selectUnconsumed(THIS_SERVER, 1500, CacheSyncManager.PAGE_SIZE));
+        // a short page ends the cycle
+        repository.verify(() -> UpdateLogRepository.selectUnconsumed(eq(THIS_SERVER), anyLong(), anyInt()), times(2));
+        repository.verify(() -> UpdateLogRepository.insertAcks(anyCollection(), eq(THIS_SERVER)), times(2));
+        repository.verify(() -> UpdateLogRepository.insertAcks(List.of(1501L, 1502L, 1503L), THIS_SERVER));
+        verify(dominionCache, times(CacheSyncManager.PAGE_SIZE + 3)).load(anyInt());
+        assertEquals(1503, manager.getConsumedUpTo());
+    }
+
+    @Test
+    void skippedIdIsPolledUntilItShowsUp() {
+        repository.when(() -> UpdateLogRepository.selectUnconsumed(eq(THIS_SERVER), anyLong(), anyInt()))
+                .thenReturn(List.of(log(11, OTHER_SERVER), log(14, OTHER_SERVER)), List.of(log(13, OTHER_SERVER)), List.of());
+        CacheSyncManager manager = new CacheSyncManager(10);
+
+        manager.pollCycle();
+        manager.pollCycle();
+        manager.pollCycle();
+
+        // 12 and 13 were skipped, 13 committed late, 12 is still awaited
+        repository.verify(() -> UpdateLogRepository.selectUnconsumed(THIS_SERVER, 10L, CacheSyncManager.PAGE_SIZE));
+        repository.verify(() -> UpdateLogRepository.selectUnconsumed(THIS_SERVER, 11L, CacheSyncManager.PAGE_SIZE), times(2));
+        repository.verify(() -> UpdateLogRepository.insertAcks(List.of(13L), THIS_SERVER));
+        verify(dominionCache).load(13);
+        assertEquals(14, manager.getConsumedUpTo());
+    }
+
+    @Test
+    void ownLogsAreNotTakenForSkippedIds() {
+        repository.when(() -> UpdateLogRepository.selectUnconsumed(eq(THIS_SERVER), anyLong(), anyInt()))
+                .thenReturn(List.of(log(11, OTHER_SERVER), log(14, OTHER_SERVER)), List.of());
+        CacheSyncManager manager = new CacheSyncManager(10);
+        // 12 and 13 were written by this server, they are acknowledged with the insert and never polled
+        manager.ownLogWritten(12);
+        manager.ownLogWritten(13);
+
+        manager.pollCycle();
+        manager.pollCycle();
+
+        repository.verify(() -> UpdateLogRepository.selectUnconsumed(THIS_SERVER, 10L, CacheSyncManager.PAGE_SIZE));
+        repository.verify(() -> UpdateLogRepository.selectUnconsumed(THIS_SERVER, 14L, CacheSyncManager.PAGE_SIZE));
+        verify(dominionCache).load(11);
+        verify(dominionCache).load(14);
+        assertEquals(14, manager.getConsumedUpTo());
+    }
+
+    @Test
+    void failedAckKeepsTheMark() {
+        repository.when(() -> UpdateLogRepository.selectUnconsumed(eq(THIS_SERVER), anyLong(), anyInt()))
+                .thenReturn(logs(11, 2));
+        repository.when(() -> UpdateLogRepository.insertAcks(anyCollection(), anyInt()))
+                .thenThrow(new SQLException("gone"));
+        CacheSyncManager manager = new CacheSyncManager(10);
+
+        manager.pollCycle();
+
+        assertEquals(10, manager.getConsumedUpTo());
+    }
+
+    @Test
+    void logOfUnknownServerRegistersItsCache() {
+        int newServer = 3;
+        repository.when(() -> UpdateLogRepository.selectUnconsumed(eq(THIS_SERVER), anyLong(), anyInt()))
+                .thenReturn(List.of(log(5, newServer)));
+        CacheSyncManager manager = new CacheSyncManager();
+
+        manager.pollCycle();
+
+        verify(CacheManager.instance).addServerCache(newServer);
+        verify(CacheManager.instance).reloadServerCache(newServer);
+        repository.verify(() -> UpdateLogRepository.insertAcks(List.of(5L), THIS_SERVER));
+        assertEquals(5, manager.getConsumedUpTo());
+    }
+}
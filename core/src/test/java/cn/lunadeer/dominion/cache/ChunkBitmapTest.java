@@ -0,0 +1,47 @@
+package cn.lunadeer.dominion.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkBitmapTest {
+
+    private static DominionNode node(int x1, int z1, int x2, int z2) {
+        return new DominionNode(TestDominions.dominion(1, -1, UUID.randomUUID(), x1, z1, x2, z2));
+    }
+
+    @Test
+    void onlyChunksUnderTheDominionAreMarked() {
+        // blocks [-16, 32) x [1000, 1001) cover chunks -1..1 x 62
+        ChunkBitmap chunks = ChunkBitmap.of(List.of(node(-16, 1000, 32, 1001)));
+
+        assertTrue(chunks.mayContain(-1, 62));
+        assertTrue(chunks.mayContain(1, 62));
+        assertFalse(chunks.mayContain(2, 62));
+        assertFalse(chunks.mayContain(-2, 62));
+        assertFalse(chunks.mayContain(0, 63));
+        assertFalse(chunks.mayContain(0, 61));
+    }
+
+    @Test
+    void hugeDominionsAreKeptAsRectangles() {
+        ChunkBitmap chunks = ChunkBitmap.of(List.of(node(-1_000_000, -1_000_000, 1_000_000, 1_000_000)));
+
+        assertTrue(chunks.mayContain(0, 0));
+        assertTrue(chunks.mayContain(-62_500, 62_499));
+        assertFalse(chunks.mayContain(62_500, 0));
+    }
+
+    @Test
+    void withLeavesTheOriginalUnchanged() {
+        ChunkBitmap empty = ChunkBitmap.EMPTY;
+        ChunkBitmap chunks = empty.with(node(0, 0, 16, 16));
+
+        assertTrue(chunks.mayContain(0, 0));
+        assertFalse(empty.mayContain(0, 0));
+    }
+}
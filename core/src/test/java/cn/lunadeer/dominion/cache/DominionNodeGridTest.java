@@ -0,0 +1,59 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.utils.XLogger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static cn.lunadeer.dominion.cache.TestDominions.cachedDominion;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class DominionNodeGridTest {
+
+    private static final UUID WORLD = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        CacheManager.instance = mock(CacheManager.class);
+        XLogger.instance = mock(XLogger.class);
+    }
+
+    @Test
+    void lookupFindsDeepestNodeAcrossCellsAndOversizedNodes() throws Exception {
+        CopyOnWriteArrayList<DominionDTO> dominions = new CopyOnWriteArrayList<>();
+        DominionDTO small = cachedDominion(1, -1, WORLD, 0, 0, 40, 40);
+        DominionDTO child = cachedDominion(2, 1, WORLD, 10, 10, 20, 20);
+        DominionDTO huge = cachedDominion(3, -1, WORLD, 100_000, 100_000, 300_000, 300_000);
+        dominions.add(small);
+        dominions.add(child);
+        dominions.add(huge);
+        DominionNodeGrid grid = new DominionNodeGrid(16);
+        grid.buildAsync(DominionNode.BuildNodeTree(-1, dominions)).get();
+
+        assertEquals(small, grid.getDominionByLocation(WORLD, 5, 50, 35));
+        assertEquals(child, grid.getDominionByLocation(WORLD, 15, 50, 15));
+        assertEquals(huge, grid.getDominionByLocation(WORLD, 200_000, 50, 200_000));
+        assertNull(grid.getDominionByLocation(WORLD, 40, 50, 40));
+        assertNull(grid.getDominionByLocation(WORLD, 15, 100, 15));
+    }
+
+    @Test
+    void insertAndRemoveUpdateCachedResults() throws Exception {
+        DominionNodeGrid grid = new DominionNodeGrid(16);
+        grid.buildAsync(new CopyOnWriteArrayList<>()).get();
+        assertNull(grid.getDominionByLocation(WORLD, 5, 50, 5));
+
+        DominionDTO dominion = cachedDominion(1, -1, WORLD, 0, 0, 10, 10);
+        DominionNode node = new DominionNode(dominion);
+        grid.insert(node);
+        assertEquals(dominion, grid.getDominionByLocation(WORLD, 5, 50, 5));
+
+        grid.remove(node);
+        assertNull(grid.getDominionByLocation(WORLD, 5, 50, 5));
+    }
+}
@@ -0,0 +1,105 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static cn.lunadeer.dominion.cache.TestDominions.dominion;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class DominionNodeTest {
+
+    private static final UUID WORLD = UUID.randomUUID();
+    private static final UUID NETHER = UUID.randomUUID();
+
+    @Test
+    void boundsAreHalfOpenAndWorldSpecific() {
+        DominionNode node = new DominionNode(dominion(1, -1, WORLD, 0, 0, 10, 10));
+
+        assertEquals(true, node.contains(WORLD, 0, 0, 0));
+        assertEquals(true, node.contains(WORLD, 9, 99, 9));
+        assertEquals(false, node.contains(WORLD, 10, 50, 5));
+        assertEquals(false, node.contains(WORLD, 5, 100, 5));
+        assertEquals(false, node.contains(NETHER, 5, 50, 5));
+    }
+
+    @Test
+    void copyHasItsOwnChildren() {
+        DominionNode parent = new DominionNode(dominion(1, -1, WORLD, 0, 0, 100, 100));
+        DominionNode child = new DominionNode(dominion(2, 1, WORLD, 0, 0, 10, 10));
+        parent.getChildren().add(child);
+        parent.indexChildren();
+
+        DominionNode copy = parent.copy();
+        copy.getChildren().remove(child);
+        copy.indexChildren();
+
+        assertEquals(child, parent.getChildren().get(0));
+        assertEquals(child, parent.getDeepestNodeAt(WORLD, 5, 50, 5));
+        assertEquals(copy, copy.getDeepestNodeAt(WORLD, 5, 50, 5));
+    }
+
+    @Test
+    void markingFromTheGivenDominionDoesNotLookItUp() {
+        CacheManager.instance = mock(CacheManager.class);
+        DominionDTO dominion = dominion(1, -1, WORLD, 0, 0, 10, 10);
+        World world = mock(World.class);
+        when(world.getMinHeight()).thenReturn(0);
+        when(world.getMaxHeight()).thenReturn(100);
+        when(dominion.getWorld()).thenReturn(world);
+        DominionNode node = new DominionNode(dominion);
+
+        node.markFullHeight(dominion);
+
+        assertTrue(node.isFullHeight());
+        verifyNoInteractions(CacheManager.instance);
+    }
+
+    @Test
+    void descentMatchesLinearScanForSmallAndLargeChildLists() {
+        for (int childCount : new int[]{DominionNode.SWEEP_THRESHOLD - 1, 64}) {
+            // children are 10 blocks wide in a row with random gaps and z offsets, each may have a child of its own
+            Random random = new Random(childCount);
+            CopyOnWriteArrayList<DominionDTO> dominions = new CopyOnWriteArrayList<>();
+            dominions.add(dominion(1, -1, WORLD, 0, 0, 2000, 2000));
+            List<DominionDTO> all = new ArrayList<>(dominions);
+            int id = 2;
+            for (int i = 0, x = 0; i < childCount; i++, x += 10 + random.nextInt(20)) {
+                int z = random.nextInt(1000);
+                DominionDTO child = dominion(id++, 1, WORLD, x, z, x + 10, z + 1 + random.nextInt(500));
+                dominions.add(child);
+                all.add(child);
+                if (random.nextBoolean()) {
+                    DominionDTO grandChild = dominion(id++, child.getId(), WORLD, x + 2, z, x + 5, z + 1);
+                    dominions.add(grandChild);
+                    all.add(grandChild);
+                }
+            }
+            CopyOnWriteArrayList<DominionNode> tree = DominionNode.BuildNodeTree(-1, dominions);
+
+            for (int i = 0; i < 20_000; i++) {
+                int x = random.nextInt(2100) - 50, y = random.nextInt(120) - 10, z = random.nextInt(2100) - 50;
+                DominionNode node = DominionNode.getDominionNodeByLocation(tree, WORLD, x, y, z);
+                DominionDTO expected = null;
+                for (DominionDTO dominion : all) {
+                    // the deepest dominion is the last one containing the block, parents are listed first
+                    if (dominion.getCuboid().contain(x, y, z)) expected = dominion;
+                }
+                if (expected == null) {
+                    assertNull(node);
+                } else {
+                    assertEquals(expected.getId(), node.getDominionId());
+                }
+            }
+        }
+    }
+}
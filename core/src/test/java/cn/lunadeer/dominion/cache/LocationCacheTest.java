@@ -0,0 +1,92 @@
+package cn.lunadeer.dominion.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocationCacheTest {
+
+    private static final UUID WORLD = UUID.randomUUID();
+    private static final UUID NETHER = UUID.randomUUID();
+
+    @Test
+    void cachedValueIsReturnedPerWorld() {
+        LocationCache cache = new LocationCache(64);
+        cache.put(WORLD, 10, 64, -20, 7, cache.epoch());
+
+        assertEquals(7, cache.get(WORLD, 10, 64, -20));
+        assertEquals(LocationCache.MISS, cache.get(NETHER, 10, 64, -20));
+        assertEquals(LocationCache.MISS, cache.get(WORLD, 10, 65, -20));
+    }
+
+    @Test
+    void clearDropsEntriesAndStaleWrites() {
+        LocationCache cache = new LocationCache(64);
+        int staleEpoch = cache.epoch();
+        cache.put(WORLD, 1, 2, 3, 4, staleEpoch);
+        cache.clear();
+
+        assertEquals(LocationCache.MISS, cache.get(WORLD, 1, 2, 3));
+        cache.put(WORLD, 1, 2, 3, 4, staleEpoch);
+        assertEquals(LocationCache.MISS, cache.get(WORLD, 1, 2, 3));
+    }
+
+    @Test
+    void fullCacheEvictsInsteadOfGrowing() {
+        LocationCache cache = new LocationCache(64);
+        for (int x = 0; x < 10_000; x++) {
+            cache.put(WORLD, x, 0, 0, x, cache.epoch());
+        }
+        int cached = 0;
+        for (int x = 0; x < 10_000; x++) {
+            int value = cache.get(WORLD, x, 0, 0);
+            if (value != LocationCache.MISS) {
+                assertEquals(x, value);
+                cached++;
+            }
+        }
+        assertEquals(true, cached > 0 && cached <= 64);
+    }
+
+    @Test
+    void columnEntryIsIndependentOfBlockEntries() {
+        LocationCache cache = new LocationCache(64);
+        cache.putColumn(WORLD, 5, 6, 9, cache.epoch());
+        cache.put(WORLD, 5, 70, 6, 3, cache.epoch());
+
+        assertEquals(9, cache.getColumn(WORLD, 5, 6));
+        assertEquals(3, cache.get(WORLD, 5, 70, 6));
+        assertEquals(LocationCache.MISS, cache.get(WORLD, 5, -2048, 6));
+        assertEquals(LocationCache.MISS, cache.getColumn(WORLD, 6, 5));
+    }
+
+    @Test
+    void invalidateDropsOnlyEntriesInsideTheArea() {
+        LocationCache cache = new LocationCache(256);
+        cache.put(WORLD, -5, 64, -5, 1, cache.epoch());
+        cache.putColumn(WORLD, 9, 0, 2, cache.epoch());
+        cache.put(WORLD, 10, 64, 0, 3, cache.epoch());
+        cache.put(NETHER, 0, 64, 0, 4, cache.epoch());
+        int staleEpoch = cache.epoch();
+        cache.invalidate(WORLD, -10, -10, 10, 10);
+
+        assertEquals(LocationCache.MISS, cache.get(WORLD, -5, 64, -5));
+        assertEquals(LocationCache.MISS, cache.getColumn(WORLD, 9, 0));
+        assertEquals(3, cache.get(WORLD, 10, 64, 0));
+        assertEquals(4, cache.get(NETHER, 0, 64, 0));
+        cache.put(WORLD, 0, 64, 0, 5, staleEpoch);
+        assertEquals(LocationCache.MISS, cache.get(WORLD, 0, 64, 0));
+    }
+
+    @Test
+    void outOfRangeCoordinatesAreNotCached() {
+        LocationCache cache = new LocationCache(64);
+        cache.put(WORLD, 1 << 23, 0, 0, 1, cache.epoch());
+        cache.put(WORLD, 0, 4096, 0, 1, cache.epoch());
+
+        assertEquals(LocationCache.MISS, cache.get(WORLD, 1 << 23, 0, 0));
+        assertEquals(LocationCache.MISS, cache.get(WORLD, 0, 4096, 0));
+    }
+}
@@ -0,0 +1,75 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.configuration.Configuration;
+import cn.lunadeer.dominion.configuration.Limitation;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PermissionCacheTest {
+
+    private final Limitation defaultLimitation = new Limitation();
+    private final Limitation vipLimitation = new Limitation();
+    private PermissionCache cache;
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        Configuration.limitations.clear();
+        Configuration.limitations.put("default", defaultLimitation);
+        Configuration.limitations.put("vip", vipLimitation);
+        cache = new PermissionCache();
+        player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(player.isOnline()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Configuration.limitations.clear();
+    }
+
+    @Test
+    void snapshotIsTakenOnce() {
+        when(player.hasPermission("dominion.admin")).thenReturn(true);
+        when(player.hasPermission("dominion.limitation.vip")).thenReturn(true);
+
+        assertTrue(cache.isAdmin(player));
+        assertTrue(cache.isAdmin(player));
+        assertSame(vipLimitation, cache.getLimitation(player));
+
+        verify(player, times(1)).hasPermission("dominion.admin");
+        verify(player, times(1)).hasPermission("dominion.limitation.vip");
+    }
+
+    @Test
+    void invalidateTakesANewSnapshot() {
+        assertFalse(cache.isAdmin(player));
+        assertSame(defaultLimitation, cache.getLimitation(player));
+
+        when(player.hasPermission("dominion.admin")).thenReturn(true);
+        when(player.hasPermission("group.vip")).thenReturn(true);
+        assertFalse(cache.isAdmin(player));
+
+        cache.invalidate(player.getUniqueId());
+
+        assertTrue(cache.isAdmin(player));
+        assertSame(vipLimitation, cache.getLimitation(player));
+    }
+
+    @Test
+    void offlinePlayersAreNotKept() {
+        when(player.isOnline()).thenReturn(false);
+
+        cache.isAdmin(player);
+        cache.isAdmin(player);
+
+        verify(player, times(2)).hasPermission("dominion.admin");
+    }
+}
@@ -0,0 +1,97 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.api.dtos.GroupDTO;
+import cn.lunadeer.dominion.api.dtos.MemberDTO;
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PrivilegeCacheTest {
+
+    private static final UUID OWNER = UUID.randomUUID();
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    private PrivilegeCache cache;
+    private DominionDTO dominion;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager.instance = mock(CacheManager.class);
+        cache = new PrivilegeCache();
+        dominion = mock(DominionDTO.class);
+        when(dominion.getId()).thenReturn(1);
+        when(dominion.getOwner()).thenReturn(OWNER);
+        when(dominion.getGuestPrivilegeFlagValue()).thenReturn(Map.of(Flags.RENAME, true));
+    }
+
+    private static MemberDTO member(int groupId, Map<PriFlag, Boolean> flags) {
+        MemberDTO member = mock(MemberDTO.class);
+        when(member.getGroupId()).thenReturn(groupId);
+        when(member.getFlagsValue()).thenReturn(flags);
+        when(member.getFlagValue(any())).thenAnswer(invocation -> flags.getOrDefault(invocation.<PriFlag>getArgument(0), false));
+        return member;
+    }
+
+    @Test
+    void ownerHasEveryPrivilege() {
+        PrivilegeCache.Privileges privileges = cache.get(dominion, OWNER);
+
+        assertTrue(privileges.admin());
+        assertTrue(privileges.has(Flags.RESIZE));
+    }
+
+    @Test
+    void guestsGetTheGuestFlags() {
+        PrivilegeCache.Privileges privileges = cache.get(dominion, PLAYER);
+
+        assertFalse(privileges.admin());
+        assertTrue(privileges.has(Flags.RENAME));
+        assertFalse(privileges.has(Flags.RESIZE));
+    }
+
+    @Test
+    void groupFlagsOverrideMemberFlags() {
+        MemberDTO member = member(7, Map.of(Flags.RESIZE, true));
+        GroupDTO group = mock(GroupDTO.class);
+        when(group.getFlagsValue()).thenReturn(Map.of(Flags.RESIZE, false, Flags.RENAME, true));
+        when(CacheManager.instance.getMember(eq(dominion), eq(PLAYER))).thenReturn(member);
+        when(CacheManager.instance.getGroup(7)).thenReturn(group);
+
+        PrivilegeCache.Privileges privileges = cache.get(dominion, PLAYER);
+
+        assertFalse(privileges.has(Flags.RESIZE));
+        assertTrue(privileges.has(Flags.RENAME));
+    }
+
+    @Test
+    void memberAdminFlagGrantsEveryPrivilege() {
+        MemberDTO member = member(-1, Map.of(Flags.ADMIN, true));
+        when(CacheManager.instance.getMember(eq(dominion), eq(PLAYER))).thenReturn(member);
+
+        assertTrue(cache.get(dominion, PLAYER).admin());
+    }
+
+    @Test
+    void entriesAreKeptUntilTheDominionIsInvalidated() {
+        PrivilegeCache.Privileges guest = cache.get(dominion, PLAYER);
+        MemberDTO member = member(-1, Map.of(Flags.RESIZE, true));
+        when(CacheManager.instance.getMember(eq(dominion), eq(PLAYER))).thenReturn(member);
+
+        assertSame(guest, cache.get(dominion, PLAYER));
+
+        cache.invalidate(1);
+
+        assertTrue(cache.get(dominion, PLAYER).has(Flags.RESIZE));
+        verify(CacheManager.instance, times(2)).getMember(dominion, PLAYER);
+    }
+}
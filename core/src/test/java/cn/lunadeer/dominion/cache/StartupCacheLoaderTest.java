@@ -0,0 +1,105 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.api.dtos.PlayerDTO;
+import cn.lunadeer.dominion.cache.server.*;
+import cn.lunadeer.dominion.doos.DominionDOO;
+import cn.lunadeer.dominion.doos.GroupDOO;
+import cn.lunadeer.dominion.doos.MemberDOO;
+import cn.lunadeer.dominion.doos.PlayerDOO;
+import cn.lunadeer.dominion.utils.XLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class StartupCacheLoaderTest {
+
+    private MockedStatic<XLogger> logger;
+    private MockedStatic<PlayerDOO> players;
+    private MockedStatic<DominionDOO> dominions;
+    private MockedStatic<MemberDOO> members;
+    private MockedStatic<GroupDOO> groups;
+
+    private final List<PlayerDTO> playerRows = List.of(mock(PlayerDTO.class));
+    private final List<MemberDOO> memberRows = List.of(mock(MemberDOO.class));
+    private final List<GroupDOO> groupRows = List.of(mock(GroupDOO.class));
+
+    @BeforeEach
+    void setUp() {
+        logger = mockStatic(XLogger.class);
+        players = mockStatic(PlayerDOO.class);
+        dominions = mockStatic(DominionDOO.class);
+        members = mockStatic(MemberDOO.class);
+        groups = mockStatic(GroupDOO.class);
+        players.when(PlayerDOO::all).thenReturn(playerRows);
+        dominions.when(() -> DominionDOO.selectAll(any())).thenReturn(List.of());
+        members.when(MemberDOO::select).thenReturn(memberRows);
+        groups.when(GroupDOO::select).thenReturn(groupRows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.close();
+        players.close();
+        dominions.close();
+        members.close();
+        groups.close();
+    }
+
+    private static ServerCache server(int id) {
+        ServerCache server = mock(ServerCache.class);
+        when(server.getServerId()).thenReturn(id);
+        DominionCache dominionCache = mock(DominionCache.class);
+        MemberCache memberCache = mock(MemberCache.class);
+        GroupCache groupCache = mock(GroupCache.class);
+        when(server.getDominionCache()).thenReturn(dominionCache);
+        when(server.getMemberCache()).thenReturn(memberCache);
+        when(server.getGroupCache()).thenReturn(groupCache);
+        return server;
+    }
+
+    @Test
+    void membersAndGroupsAreQueriedOnceAndBuiltAfterTheirLookups() {
+        PlayerCache playerCache = mock(PlayerCache.class);
+        ServerCache first = server(1);
+        ServerCache second = server(2);
+
+        new StartupCacheLoader(Runnable::run).load(playerCache, List.of(first, second));
+
+        members.verify(MemberDOO::select, times(1));
+        groups.verify(GroupDOO::select, times(1));
+        dominions.verify(() -> DominionDOO.selectAll(1));
+        dominions.verify(() -> DominionDOO.selectAll(2));
+        InOrder order = inOrder(playerCache, first.getDominionCache(), second.getDominionCache(),
+                first.getMemberCache(), second.getGroupCache());
+        order.verify(playerCache).load(playerRows);
+        order.verify(first.getDominionCache()).load(anyList());
+        order.verify(second.getDominionCache()).load(anyList());
+        order.verify(first.getMemberCache()).load(memberRows);
+        verify(second.getMemberCache()).load(memberRows);
+        verify(first.getGroupCache()).load(groupRows);
+        verify(second.getGroupCache()).load(groupRows);
+    }
+
+    @Test
+    void failedPlayerQuerySkipsOnlyTheMembers() {
+        players.when(PlayerDOO::all).thenThrow(new SQLException("gone"));
+        PlayerCache playerCache = mock(PlayerCache.class);
+        ServerCache server = server(1);
+
+        new StartupCacheLoader(Runnable::run).load(playerCache, List.of(server));
+
+        // members of players that seem unknown would be deleted
+        verify(server.getMemberCache(), never()).load(anyList());
+        verify(server.getDominionCache()).load(anyList());
+        verify(server.getGroupCache()).load(groupRows);
+    }
+}
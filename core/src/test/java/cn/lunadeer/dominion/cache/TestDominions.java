@@ -0,0 +1,41 @@
+package cn.lunadeer.dominion.cache;
+
+import cn.lunadeer.dominion.api.dtos.CuboidDTO;
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mocked dominions for the tests of the node tree and the location indexes.
+ */
+public final class TestDominions {
+
+    private TestDominions() {
+    }
+
+    /**
+     * Mocks a dominion with enough to build its node, from y 0 to 100.
+     *
+     * @return the mock, tests stub anything else they need on it
+     */
+    public static DominionDTO dominion(int id, int parentId, UUID world, int x1, int z1, int x2, int z2) {
+        DominionDTO dominion = mock(DominionDTO.class);
+        when(dominion.getId()).thenReturn(id);
+        when(dominion.getParentDomId()).thenReturn(parentId);
+        when(dominion.getWorldUid()).thenReturn(world);
+        when(dominion.getCuboid()).thenReturn(new CuboidDTO(x1, 0, z1, x2, 100, z2));
+        return dominion;
+    }
+
+    /**
+     * Same as {@link #dominion}, also returned by {@link CacheManager#getDominion}, which must be a mock.
+     */
+    public static DominionDTO cachedDominion(int id, int parentId, UUID world, int x1, int z1, int x2, int z2) {
+        DominionDTO dominion = dominion(id, parentId, world, x1, z1, x2, z2);
+        when(CacheManager.instance.getDominion(id)).thenReturn(dominion);
+        return dominion;
+    }
+}
@@ -0,0 +1,99 @@
+package cn.lunadeer.dominion.cache.server;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.cache.DominionNode;
+import cn.lunadeer.dominion.cache.TestDominions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class DominionCacheDataTest {
+
+    private static final UUID WORLD = UUID.randomUUID();
+    private static final UUID OWNER = UUID.randomUUID();
+
+    private static DominionDTO dominion(int id, int parentId, String name, UUID owner) {
+        DominionDTO dominion = TestDominions.dominion(id, parentId, WORLD, 0, 0, 10, 10);
+        when(dominion.getName()).thenReturn(name);
+        when(dominion.getOwner()).thenReturn(owner);
+        return dominion;
+    }
+
+    private static DominionCacheData load(DominionDTO... dominions) {
+        List<DominionDTO> list = List.of(dominions);
+        return DominionCacheData.of(list, DominionNode.BuildNodeTree(-1, new CopyOnWriteArrayList<>(list)));
+    }
+
+    @Test
+    void fullLoadBuildsAllLookups() {
+        DominionDTO parent = dominion(1, -1, "parent", OWNER);
+        DominionDTO child = dominion(2, 1, "child", OWNER);
+        DominionCacheData data = load(parent, child);
+
+        assertEquals(child, data.dominion(2));
+        assertArrayEquals(new int[]{2}, data.childIds(1));
+        assertArrayEquals(new int[]{1}, data.childIds(-1));
+        assertEquals(2, data.nameToId().get("child"));
+        assertArrayEquals(new int[]{1, 2}, data.ownedIds(OWNER));
+        assertEquals(1, data.ownedTops(OWNER).length);
+        assertNotNull(data.node(2));
+        assertEquals(1, data.topNodes().size());
+    }
+
+    @Test
+    void batchLeavesThePublishedStateUnchanged() {
+        DominionDTO parent = dominion(1, -1, "parent", OWNER);
+        DominionCacheData before = load(parent);
+
+        UUID newOwner = UUID.randomUUID();
+        DominionDTO renamed = dominion(1, -1, "renamed", newOwner);
+        DominionCacheData.Batch batch = before.edit();
+        assertEquals(parent, batch.putDominion(renamed));
+        batch.removeName("parent", 1);
+        batch.putName("renamed", 1);
+        batch.removeOwned(OWNER, 1);
+        batch.addOwned(newOwner, 1);
+        DominionCacheData after = batch.commit();
+
+        assertEquals(parent, before.dominion(1));
+        assertEquals(1, before.nameToId().get("parent"));
+        assertArrayEquals(new int[]{1}, before.ownedIds(OWNER));
+
+        assertEquals(renamed, after.dominion(1));
+        assertNull(after.nameToId().get("parent"));
+        assertEquals(1, after.nameToId().get("renamed"));
+        assertArrayEquals(new int[0], after.ownedIds(OWNER));
+        assertArrayEquals(new int[]{1}, after.ownedIds(newOwner));
+        // untouched maps are shared, not copied
+        assertSame(before.children(), after.children());
+        assertSame(before.nodes(), after.nodes());
+    }
+
+    @Test
+    void removeNameKeepsANameTakenByAnotherDominion() {
+        DominionCacheData before = load(dominion(1, -1, "a", OWNER), dominion(2, -1, "b", OWNER));
+        DominionCacheData.Batch batch = before.edit();
+        batch.removeName("b", 1);
+
+        assertEquals(2, batch.commit().nameToId().get("b"));
+    }
+
+    @Test
+    void onlyNodesPutByTheBatchAreNew() {
+        DominionCacheData before = load(dominion(1, -1, "parent", OWNER));
+        DominionCacheData.Batch batch = before.edit();
+        DominionNode published = batch.node(1);
+        DominionNode copy = published.copy();
+        batch.putNode(1, copy);
+
+        assertFalse(batch.isNew(published));
+        assertTrue(batch.isNew(copy));
+        assertSame(published, before.node(1));
+        assertSame(copy, batch.commit().node(1));
+    }
+}
@@ -0,0 +1,78 @@
+package cn.lunadeer.dominion.doos;
+
+import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlagBitsTest {
+
+    @Test
+    void indicesAreStablePerFlagName() {
+        int index = FlagBits.indexOf(Flags.SHOW_BORDER);
+
+        assertEquals(index, FlagBits.indexOf(Flags.SHOW_BORDER));
+        assertNotEquals(index, FlagBits.indexOf(Flags.ANIMAL_MOVE));
+    }
+
+    @Test
+    void reloadedFlagKeepsItsIndexAndReplacesTheInstance() {
+        EnvFlag loaded = new EnvFlag("flag_bits_reload", "Reload", "", false, true, Material.PAPER);
+        FlagBits<EnvFlag> flags = new FlagBits<>();
+        flags.set(loaded, true);
+
+        EnvFlag reloaded = new EnvFlag("flag_bits_reload", "Reload", "", false, true, Material.PAPER);
+
+        assertTrue(flags.asMap().containsKey(reloaded));
+        assertEquals(FlagBits.indexOf(loaded), FlagBits.indexOf(reloaded));
+        assertTrue(flags.get(reloaded, false));
+        assertSame(reloaded, flags.asMap().keySet().iterator().next());
+    }
+
+    @Test
+    void unsetFlagsFallBackToTheDefault() {
+        FlagBits<EnvFlag> flags = new FlagBits<>();
+        flags.set(Flags.SHOW_BORDER, false);
+
+        assertTrue(flags.isSet(Flags.SHOW_BORDER));
+        assertFalse(flags.get(Flags.SHOW_BORDER, true));
+        assertFalse(flags.isSet(Flags.ANIMAL_MOVE));
+        assertTrue(flags.get(Flags.ANIMAL_MOVE, true));
+    }
+
+    @Test
+    void mapViewMatchesAHashMap() {
+        Map<EnvFlag, Boolean> expected = new HashMap<>();
+        expected.put(Flags.SHOW_BORDER, true);
+        expected.put(Flags.ANIMAL_MOVE, false);
+        FlagBits<EnvFlag> flags = new FlagBits<>(expected);
+        Map<EnvFlag, Boolean> view = flags.asMap();
+
+        assertEquals(expected, view);
+        assertEquals(expected, new HashMap<>(view));
+        assertFalse(view.containsKey(Flags.MONSTER_SPAWN));
+        assertNull(view.get(Flags.MONSTER_SPAWN));
+        assertTrue(view.getOrDefault(Flags.MONSTER_SPAWN, true));
+
+        view.remove(Flags.ANIMAL_MOVE);
+        flags.set(Flags.MONSTER_SPAWN, true);
+
+        assertEquals(Map.of(Flags.SHOW_BORDER, true, Flags.MONSTER_SPAWN, true), view);
+    }
+
+    @Test
+    void copyingAViewKeepsTheSetsIndependent() {
+        FlagBits<EnvFlag> source = new FlagBits<>();
+        source.set(Flags.SHOW_BORDER, true);
+        FlagBits<EnvFlag> copy = new FlagBits<>(source.asMap());
+        copy.set(Flags.SHOW_BORDER, false);
+
+        assertTrue(source.get(Flags.SHOW_BORDER, false));
+        assertFalse(copy.get(Flags.SHOW_BORDER, true));
+    }
+}
@@ -0,0 +1,78 @@
+package cn.lunadeer.dominion.events;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.cache.CacheManager;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Arrow;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TNTPrimed;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EventContextTest {
+
+    private Location location;
+    private DominionDTO dominion;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager.instance = mock(CacheManager.class);
+        World world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        location = mock(Location.class);
+        when(location.getWorld()).thenReturn(world);
+        when(location.getBlockX()).thenReturn(1);
+        when(location.getBlockY()).thenReturn(64);
+        when(location.getBlockZ()).thenReturn(1);
+        dominion = mock(DominionDTO.class);
+        when(dominion.getEnvFlagValue(Flags.ANIMAL_SPAWN)).thenReturn(false);
+        when(CacheManager.instance.getDominion(any(Location.class))).thenReturn(dominion);
+    }
+
+    @Test
+    void dominionIsLookedUpOncePerEvent() {
+        CreatureSpawnEvent event = mock(CreatureSpawnEvent.class);
+
+        assertSame(dominion, EventContext.of(event).dominion(location));
+        assertSame(dominion, EventContext.of(event).dominion(location));
+        verify(CacheManager.instance, times(1)).getDominion(location);
+
+        EventContext.of(mock(CreatureSpawnEvent.class)).dominion(location);
+        verify(CacheManager.instance, times(2)).getDominion(location);
+    }
+
+    @Test
+    void environmentFlagResultIsSharedAndStillCancels() {
+        CreatureSpawnEvent event = mock(CreatureSpawnEvent.class);
+
+        assertFalse(EventContext.of(event).checkEnvironmentFlag(location, Flags.ANIMAL_SPAWN, event));
+        assertFalse(EventContext.of(event).checkEnvironmentFlag(location, Flags.ANIMAL_SPAWN, event));
+
+        verify(dominion, times(1)).getEnvFlagValue(Flags.ANIMAL_SPAWN);
+        verify(event, times(2)).setCancelled(true);
+    }
+
+    @Test
+    void attackerIsUnwrappedFromProjectilesAndTnt() {
+        EventContext context = EventContext.of(mock(CreatureSpawnEvent.class));
+        Player player = mock(Player.class);
+        Arrow arrow = mock(Arrow.class);
+        when(arrow.getShooter()).thenReturn(player);
+        TNTPrimed tnt = mock(TNTPrimed.class);
+        when(tnt.getSource()).thenReturn(player);
+
+        assertSame(player, context.attacker(player));
+        assertSame(player, context.attacker(arrow));
+        assertSame(player, context.attacker(tnt));
+        assertNull(context.attacker(mock(TNTPrimed.class)));
+    }
+}
@@ -0,0 +1,87 @@
+package cn.lunadeer.dominion.events;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.cache.server.DominionCache;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ExplosionGuardTest {
+
+    private World world;
+    private UUID worldUid;
+    private List<Block> blocks;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager.instance = mock(CacheManager.class);
+        worldUid = UUID.randomUUID();
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(worldUid);
+        blocks = new ArrayList<>(List.of(block(0, 64, 0), block(3, 60, -2), block(-1, 66, 5)));
+    }
+
+    private Block block(int x, int y, int z) {
+        Block block = mock(Block.class);
+        when(block.getWorld()).thenReturn(world);
+        when(block.getX()).thenReturn(x);
+        when(block.getY()).thenReturn(y);
+        when(block.getZ()).thenReturn(z);
+        when(block.getLocation()).thenReturn(new Location(world, x, y, z));
+        return block;
+    }
+
+    @Test
+    void boxIsResolvedOnceFromTheBlockBounds() {
+        DominionDTO dominion = mock(DominionDTO.class);
+        when(dominion.getEnvFlagValue(Flags.CREEPER_EXPLODE)).thenReturn(true);
+        when(CacheManager.instance.resolveBox(worldUid, -1, 60, -2, 3, 66, 5))
+                .thenReturn(new DominionCache.Area(dominion, worldUid, -10, 0, -10, 10, 100, 10, 0));
+
+        ExplosionGuard.filter(blocks, Flags.CREEPER_EXPLODE);
+
+        assertEquals(3, blocks.size());
+        verify(CacheManager.instance, never()).getDominions(any());
+    }
+
+    @Test
+    void disabledDominionClearsTheWholeList() {
+        DominionDTO dominion = mock(DominionDTO.class);
+        when(dominion.getEnvFlagValue(Flags.CREEPER_EXPLODE)).thenReturn(false);
+        when(CacheManager.instance.resolveBox(any(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt()))
+                .thenReturn(new DominionCache.Area(dominion, worldUid, -10, 0, -10, 10, 100, 10, 0));
+
+        ExplosionGuard.filter(blocks, Flags.CREEPER_EXPLODE);
+
+        assertTrue(blocks.isEmpty());
+        verify(dominion, times(1)).getEnvFlagValue(Flags.CREEPER_EXPLODE);
+    }
+
+    @Test
+    void borderCrossingExplosionIsResolvedPerBlock() {
+        DominionDTO protectedDominion = mock(DominionDTO.class);
+        when(protectedDominion.getEnvFlagValue(Flags.CREEPER_EXPLODE)).thenReturn(false);
+        DominionDTO openDominion = mock(DominionDTO.class);
+        when(openDominion.getEnvFlagValue(Flags.CREEPER_EXPLODE)).thenReturn(true);
+        when(CacheManager.instance.getDominions(blocks))
+                .thenReturn(new DominionDTO[]{protectedDominion, openDominion, protectedDominion});
+
+        ExplosionGuard.filter(blocks, Flags.CREEPER_EXPLODE);
+
+        assertEquals(1, blocks.size());
+        assertEquals(3, blocks.get(0).getX());
+    }
+}
@@ -0,0 +1,110 @@
+package cn.lunadeer.dominion.events;
+
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.cache.server.DominionCache;
+import cn.lunadeer.dominion.cache.server.ServerCache;
+import cn.lunadeer.dominion.doos.DominionDOO;
+import cn.lunadeer.dominion.storage.repository.DominionRepository;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class HopperGuardTest {
+
+    private World world;
+    private DominionCache dominionCache;
+    private DominionDTO dominion;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager.instance = mock(CacheManager.class);
+        ServerCache serverCache = mock(ServerCache.class);
+        dominionCache = mock(DominionCache.class);
+        when(CacheManager.instance.getCache()).thenReturn(serverCache);
+        when(serverCache.getDominionCache()).thenReturn(dominionCache);
+        when(dominionCache.getVersion()).thenReturn(1L);
+        world = mock(World.class);
+        when(world.getUID()).thenReturn(UUID.randomUUID());
+        dominion = mock(DominionDTO.class);
+        when(dominion.getId()).thenReturn(1);
+        when(dominion.getEnvFlagValue(Flags.HOPPER_OUTSIDE)).thenReturn(false);
+        // the source chest at x = 0 is inside the dominion, the hopper at x = 1 is not
+        when(CacheManager.instance.getDominion(any(World.class), anyInt(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> (int) invocation.getArgument(1) == 0 ? dominion : null);
+    }
+
+    @Test
+    void decisionIsReusedForTheSameBlockPair() {
+        HopperGuard guard = new HopperGuard(Flags.HOPPER_OUTSIDE);
+        InventoryMoveItemEvent event = mock(InventoryMoveItemEvent.class);
+        Location source = new Location(world, 0, 64, 0);
+        Location destination = new Location(world, 1, 64, 0);
+
+        assertFalse(guard.check(source, destination, event));
+        assertFalse(guard.check(source, destination, event));
+
+        verify(CacheManager.instance, times(2)).getDominion(any(World.class), anyInt(), anyInt(), anyInt());
+        verify(event, times(2)).setCancelled(true);
+    }
+
+    @Test
+    void cacheVersionChangeDropsTheDecisions() {
+        HopperGuard guard = new HopperGuard(Flags.HOPPER_OUTSIDE);
+        Location source = new Location(world, 0, 64, 0);
+        Location destination = new Location(world, 1, 64, 0);
+
+        assertFalse(guard.check(source, destination, null));
+        when(CacheManager.instance.getDominion(any(World.class), anyInt(), anyInt(), anyInt())).thenReturn(null);
+        assertFalse(guard.check(source, destination, null));
+
+        when(dominionCache.getVersion()).thenReturn(2L);
+        assertTrue(guard.check(source, destination, null));
+    }
+
+    @Test
+    void togglingTheFlagOfACachedPairDropsTheDecision() throws Exception {
+        DominionCache realCache = new DominionCache(1);
+        ServerCache serverCache = mock(ServerCache.class);
+        when(serverCache.getDominionCache()).thenReturn(realCache);
+        when(CacheManager.instance.getCache()).thenReturn(serverCache);
+        when(CacheManager.instance.getCache(1)).thenReturn(serverCache);
+        try (MockedStatic<DominionRepository> repository = mockStatic(DominionRepository.class)) {
+            repository.when(() -> DominionRepository.select(7)).thenReturn(new DominionRepository.DominionRow(
+                    7, UUID.randomUUID(), "test", UUID.randomUUID(), 0, 0, 0, 0, 255, 0, -1, "", "",
+                    Map.of(Flags.HOPPER_OUTSIDE, false), Map.of(), "default", "#00BFFF", 1));
+            DominionDOO cached = DominionDOO.select(7);
+            when(CacheManager.instance.getDominion(any(World.class), anyInt(), anyInt(), anyInt()))
+                    .thenAnswer(invocation -> (int) invocation.getArgument(1) == 0 ? cached : null);
+            HopperGuard guard = new HopperGuard(Flags.HOPPER_OUTSIDE);
+            Location source = new Location(world, 0, 64, 0);
+            Location destination = new Location(world, 1, 64, 0);
+            assertFalse(guard.check(source, destination, null));
+
+            cached.setEnvFlagValue(Flags.HOPPER_OUTSIDE, true);
+
+            assertTrue(guard.check(source, destination, null));
+        }
+    }
+
+    @Test
+    void otherDestinationIsEvaluatedAgain() {
+        HopperGuard guard = new HopperGuard(Flags.HOPPER_OUTSIDE);
+        Location source = new Location(world, 0, 64, 0);
+
+        assertFalse(guard.check(source, new Location(world, 1, 64, 0), null));
+        assertTrue(guard.check(source, new Location(world, 0, 63, 0), null));
+    }
+}
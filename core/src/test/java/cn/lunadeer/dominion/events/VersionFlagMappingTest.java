@@ -7,6 +7,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -39,6 +41,23 @@ class VersionFlagMappingTest {
         }
     }
 
+    @Test
+    void listenersDeclareTheFlagsTheyCheck() throws Exception {
+        Pattern flagReference = Pattern.compile("(?<![\\w.])Flags\\.([A-Z][A-Z_0-9]*)\\b");
+        try (Stream<Path> files = Files.walk(VERSIONS_ROOT)) {
+            for (Path source : files.filter(path -> path.toString().endsWith(".java")).toList()) {
+                String content = Files.readString(source);
+                if (!content.contains("implements Listener")) continue;
+                Matcher matcher = flagReference.matcher(content);
+                while (matcher.find()) {
+                    assertTrue(content.contains("@GuardedFlags"), source + " checks flags but has no @GuardedFlags");
+                    assertTrue(content.contains("\"" + matcher.group(1) + "\""),
+                            source + " should declare " + matcher.group(1) + " in @GuardedFlags");
+                }
+            }
+        }
+    }
+
     @Test
     void splitListenersReferenceTheirDedicatedFlags() throws Exception {
         Map<String, String> expected = new LinkedHashMap<>();
@@ -0,0 +1,27 @@
+package cn.lunadeer.dominion.handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheEventHandlerTest {
+
+    @Test
+    void permissionPluginCommandsAreRecognized() {
+        assertTrue(CacheEventHandler.isPermissionCommand("/lp user Steve permission set dominion.admin"));
+        assertTrue(CacheEventHandler.isPermissionCommand("/LuckPerms:LP user Steve parent add vip"));
+        assertTrue(CacheEventHandler.isPermissionCommand("pex user Steve add dominion.admin"));
+        assertTrue(CacheEventHandler.isPermissionCommand("/perms reload"));
+        assertTrue(CacheEventHandler.isPermissionCommand("lp"));
+    }
+
+    @Test
+    void otherCommandsAreNot() {
+        assertFalse(CacheEventHandler.isPermissionCommand("/spawn"));
+        assertFalse(CacheEventHandler.isPermissionCommand("/dominion create home"));
+        assertFalse(CacheEventHandler.isPermissionCommand("/help lp"));
+        assertFalse(CacheEventHandler.isPermissionCommand("/lpx"));
+        assertFalse(CacheEventHandler.isPermissionCommand(""));
+    }
+}
@@ -0,0 +1,86 @@
+package cn.lunadeer.dominion.storage.repository;
+
+import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.storage.DatabaseManager;
+import cn.lunadeer.dominion.storage.mapper.GenericMapper;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteDataSource;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static cn.lunadeer.dominion.storage.DatabaseSchema.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StreamingLoadTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+    private GenericMapper mapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("stream.db"));
+        connection = dataSource.getConnection();
+        DatabaseManager.instance = mock(DatabaseManager.class);
+        SqlSession session = mock(SqlSession.class);
+        mapper = mock(GenericMapper.class);
+        when(DatabaseManager.instance.openSession()).thenReturn(session);
+        when(session.getConnection()).thenReturn(connection);
+        when(session.getMapper(GenericMapper.class)).thenReturn(mapper);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Test
+    void membersAreDecodedByColumnWithoutTheMapper() throws Exception {
+        List<PriFlag> flags = List.copyOf(Flags.getAllPriFlagsEnable());
+        PriFlag first = flags.get(0);
+        StringBuilder ddl = new StringBuilder("CREATE TABLE " + MEMBER + " (" + MEMBER_ID + " INTEGER PRIMARY KEY, "
+                + MEMBER_PLAYER_UUID + " TEXT, " + MEMBER_DOM_ID + " INTEGER, " + MEMBER_GROUP_ID + " INTEGER");
+        for (PriFlag flag : flags) {
+            if (flag != first) ddl.append(", ").append(flag.getFlagName()).append(" INTEGER");
+        }
+        connection.createStatement().execute(ddl.append(")").toString());
+        UUID player = UUID.randomUUID();
+        connection.createStatement().execute("INSERT INTO " + MEMBER + " (" + MEMBER_ID + ", " + MEMBER_PLAYER_UUID
+                + ", " + MEMBER_DOM_ID + ", " + MEMBER_GROUP_ID + ") VALUES (7, '" + player + "', 3, -1)");
+        if (flags.size() > 1) {
+            PriFlag second = flags.get(1);
+            connection.createStatement().execute("UPDATE " + MEMBER + " SET " + second.getFlagName() + " = "
+                    + (second.getDefaultValue() ? 0 : 1));
+        }
+
+        List<MemberRepository.MemberRow> rows = new ArrayList<>();
+        MemberRepository.select(rows::add);
+
+        assertEquals(1, rows.size());
+        MemberRepository.MemberRow row = rows.get(0);
+        assertEquals(7, row.id());
+        assertEquals(player, row.playerUUID());
+        assertEquals(3, row.domID());
+        assertEquals(-1, row.groupId());
+        assertEquals(flags.size(), row.flags().size());
+        // a flag without a column falls back to its default
+        assertEquals(first.getDefaultValue(), row.flags().get(first));
+        if (flags.size() > 1) {
+            assertEquals(!flags.get(1).getDefaultValue(), row.flags().get(flags.get(1)));
+        }
+        verifyNoInteractions(mapper);
+    }
+}
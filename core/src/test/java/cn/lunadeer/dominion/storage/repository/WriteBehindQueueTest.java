@@ -0,0 +1,196 @@
+package cn.lunadeer.dominion.storage.repository;
+
+import cn.lunadeer.dominion.storage.DatabaseManager;
+import cn.lunadeer.dominion.storage.mapper.GenericMapper;
+import cn.lunadeer.dominion.utils.XLogger;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static cn.lunadeer.dominion.storage.DatabaseSchema.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WriteBehindQueueTest {
+
+    private MockedStatic<XLogger> logger;
+    private SqlSession session;
+    private GenericMapper mapper;
+    private WriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        logger = mockStatic(XLogger.class);
+        DatabaseManager.instance = mock(DatabaseManager.class);
+        session = mock(SqlSession.class);
+        mapper = mock(GenericMapper.class);
+        when(DatabaseManager.instance.openSession()).thenReturn(session);
+        when(session.getMapper(GenericMapper.class)).thenReturn(mapper);
+        queue = new WriteBehindQueue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        WriteBehindQueue.instance = null;
+        XLogger.instance = null;
+        logger.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void changesOfOneRowAreCoalesced() throws SQLException {
+        int[] notified = {0};
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 1, Map.of(DOM_COLOR, "#000000"), () -> notified[0]++));
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 1, Map.of(DOM_JOIN_MESSAGE, "hi"), () -> notified[0]++));
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 1, Map.of(DOM_COLOR, "#FFFFFF"), () -> notified[0]++));
+        assertEquals(1, queue.size());
+
+        queue.flush();
+
+        ArgumentCaptor<Map<String, Object>> values = ArgumentCaptor.forClass(Map.class);
+        verify(mapper, times(1)).updateColumns(eq(DOMINION), eq(DOM_ID), eq(1), values.capture());
+        assertEquals(Map.of(DOM_COLOR, "#FFFFFF", DOM_JOIN_MESSAGE, "hi"), values.getValue());
+        verify(session, times(1)).commit();
+        assertEquals(1, notified[0]);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void rowsAreWrittenInOneTransaction() throws SQLException {
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 1, Map.of(DOM_COLOR, "#000000"), null));
+        queue.submit(new WriteBehindQueue.Change(MEMBER, MEMBER_ID, 2, Map.of(MEMBER_GROUP_ID, 3), null));
+
+        queue.flush();
+
+        verify(DatabaseManager.instance, times(1)).openSession();
+        verify(mapper, times(2)).updateColumns(anyString(), anyString(), any(), anyMap());
+        verify(session, times(1)).commit();
+    }
+
+    @Test
+    void rowsWithTheSameValuesShareOneStatement() throws SQLException {
+        queue.submit(new WriteBehindQueue.Change(MEMBER, MEMBER_ID, 2, Map.of(MEMBER_GROUP_ID, -1), null));
+        queue.submit(new WriteBehindQueue.Change(MEMBER, MEMBER_ID, 5, Map.of(MEMBER_GROUP_ID, -1), null));
+
+        queue.flush();
+
+        verify(mapper).updateColumnsWhereIn(MEMBER, MEMBER_ID, List.of(2, 5), Map.of(MEMBER_GROUP_ID, -1));
+        verify(mapper, never()).updateColumns(anyString(), anyString(), any(), anyMap());
+    }
+
+    @Test
+    void readingARowWritesOnlyItsPendingUpdateFirst() throws SQLException {
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 1, Map.of(DOM_COLOR, "#000000"), null));
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 2, Map.of(DOM_COLOR, "#FFFFFF"), null));
+
+        DominionRepository.select(1);
+
+        InOrder order = inOrder(mapper);
+        order.verify(mapper).updateColumns(eq(DOMINION), eq(DOM_ID), eq(1), anyMap());
+        order.verify(mapper).selectWhere(DOMINION, DOM_ID, 1);
+        verify(mapper, never()).updateColumns(eq(DOMINION), eq(DOM_ID), eq(2), anyMap());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void readingARowWaitsForTheBatchWritingIt() throws Exception {
+        // the flush runs on another thread, where the static mock of XLogger does not apply
+        XLogger.instance = mock(XLogger.class);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean written = new AtomicBoolean();
+        AtomicBoolean readAfterWrite = new AtomicBoolean();
+        when(mapper.updateColumns(eq(DOMINION), eq(DOM_ID), eq(1), anyMap())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            written.set(true);
+            return 1;
+        });
+        when(mapper.selectWhere(DOMINION, DOM_ID, 1)).thenAnswer(invocation -> {
+            readAfterWrite.set(written.get());
+            return List.of();
+        });
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 1, Map.of(DOM_COLOR, "#000000"), null));
+        Thread flush = new Thread(queue::flushQuietly);
+        flush.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(0, queue.size());  // taken out of the queue by the batch in flight
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            release.countDown();
+        });
+        releaser.start();
+        DominionRepository.select(1);
+        flush.join(5000);
+
+        assertTrue(readAfterWrite.get());
+        verify(mapper, times(1)).updateColumns(eq(DOMINION), eq(DOM_ID), eq(1), anyMap());
+    }
+
+    @Test
+    void otherRepositoryCallsDoNotWriteTheQueue() throws SQLException {
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 1, Map.of(DOM_COLOR, "#000000"), null));
+
+        MemberRepository.select(2);
+
+        verify(mapper, never()).updateColumns(anyString(), anyString(), any(), anyMap());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void failingRowDoesNotHoldBackTheOthers() throws SQLException {
+        when(mapper.updateColumns(eq(DOMINION), eq(DOM_ID), eq(1), anyMap())).thenThrow(new RuntimeException("bad row"));
+        int[] notified = {0};
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 1, Map.of(DOM_COLOR, "#000000"), null));
+        queue.submit(new WriteBehindQueue.Change(MEMBER, MEMBER_ID, 2, Map.of(MEMBER_GROUP_ID, 3), () -> notified[0]++));
+
+        queue.flushQuietly();
+
+        verify(mapper).updateColumns(MEMBER, MEMBER_ID, 2, Map.of(MEMBER_GROUP_ID, 3));
+        assertEquals(1, notified[0]);
+        assertEquals(1, queue.size());
+
+        // the failing row is retried on its own and never thrown to readers
+        clearInvocations(mapper);
+        queue.submit(new WriteBehindQueue.Change(MEMBER, MEMBER_ID, 5, Map.of(MEMBER_GROUP_ID, 3), null));
+        queue.flushQuietly();
+        assertDoesNotThrow(() -> DominionRepository.select(1));
+        verify(mapper).updateColumns(MEMBER, MEMBER_ID, 5, Map.of(MEMBER_GROUP_ID, 3));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void failedRowsStayQueuedUnderNewerValues() throws SQLException {
+        when(mapper.updateColumns(anyString(), anyString(), any(), anyMap())).thenThrow(new RuntimeException("gone"));
+        int[] notified = {0};
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 1, Map.of(DOM_COLOR, "#000000"), () -> notified[0]++));
+
+        assertThrows(SQLException.class, queue::flush);
+        verify(session).rollback();
+        assertEquals(1, queue.size());
+        assertEquals(0, notified[0]);
+
+        reset(mapper);
+        queue.submit(new WriteBehindQueue.Change(DOMINION, DOM_ID, 1, Map.of(DOM_COLOR, "#FFFFFF"), () -> notified[0]++));
+        queue.flush();
+
+        verify(mapper).updateColumns(DOMINION, DOM_ID, 1, Map.of(DOM_COLOR, "#FFFFFF"));
+        assertEquals(1, notified[0]);
+    }
+}
@@ -0,0 +1,52 @@
+package cn.lunadeer.dominion.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashMapTest {
+
+    @Test
+    void putGetAndReplace() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(1L, 10L);
+        map.put(1L, 0L);
+        assertEquals(0L, map.get(1L, -1L));
+        assertTrue(map.containsKey(1L));
+        assertEquals(-1L, map.get(2L, -1L));
+        assertFalse(map.containsKey(2L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(1L, 1L);
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1L));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomPutAndRemove() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2048) - 1024L;
+            if (random.nextBoolean()) {
+                expected.put(key, (long) i);
+                map.put(key, i);
+            } else {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key, -1L)));
+    }
+}
@@ -0,0 +1,61 @@
+package cn.lunadeer.dominion.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectHashMapTest {
+
+    @Test
+    void putGetAndReplace() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertNull(map.put(1L, "a"));
+        assertEquals("a", map.put(1L, "b"));
+        assertEquals("b", map.get(1L));
+        assertNull(map.get(2L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void nullValuesAreRejected() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    void copyIsIndependentOfOriginal() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        map.put(1L, "a");
+        LongObjectHashMap<String> copy = new LongObjectHashMap<>(map);
+        copy.put(2L, "b");
+        copy.remove(1L);
+
+        assertEquals("a", map.get(1L));
+        assertNull(map.get(2L));
+        assertEquals(1, copy.size());
+        assertEquals("b", copy.get(2L));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomPutAndRemove() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // a small key range forces long probe chains and many removals inside them
+            long key = random.nextInt(2048) - 1024L;
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+}
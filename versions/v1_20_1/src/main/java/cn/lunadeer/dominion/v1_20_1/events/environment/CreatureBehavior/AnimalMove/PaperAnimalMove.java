@@ -1,7 +1,9 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior.AnimalMove;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.PaperOnly;
+import cn.lunadeer.dominion.events.PathfindGuard;
 import com.destroystokyo.paper.event.entity.EntityPathfindEvent;
 import org.bukkit.entity.Animals;
 import org.bukkit.entity.Entity;
@@ -9,10 +11,11 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
 @PaperOnly
+@GuardedFlags("ANIMAL_MOVE")
 public class PaperAnimalMove implements Listener {
+    private final PathfindGuard guard = new PathfindGuard(Flags.ANIMAL_MOVE);
+
     @EventHandler(priority = EventPriority.LOWEST)
     public void handle(EntityPathfindEvent event) {
         if (event.isCancelled()) return;
@@ -20,6 +23,6 @@ public class PaperAnimalMove implements Listener {
         if (!(entity instanceof Animals)) {
             return;
         }
-        checkEnvironmentFlag(event.getLoc(), Flags.ANIMAL_MOVE, event);
+        guard.check(entity, event.getLoc(), event);
     }
 }
@@ -1,14 +1,22 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior.AnimalMove;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.SpigotOnly;
 import cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior.SpigotEntityMove;
 import org.bukkit.entity.Animals;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
 
 @SpigotOnly
+@GuardedFlags("ANIMAL_MOVE")
 public class SpigotAnimalMove implements Listener {
-    public SpigotAnimalMove() {
-        SpigotEntityMove.track(Animals.class, Flags.ANIMAL_MOVE);
+    private final SpigotEntityMove tracker = new SpigotEntityMove(Animals.class, Flags.ANIMAL_MOVE);
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void handler(ChunkLoadEvent event) {
+        tracker.chunkLoaded(event.getChunk());
     }
 }
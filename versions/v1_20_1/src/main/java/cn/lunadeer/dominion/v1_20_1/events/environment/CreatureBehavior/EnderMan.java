@@ -2,6 +2,7 @@ package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -10,6 +11,7 @@ import org.bukkit.event.entity.EntityChangeBlockEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 
+@GuardedFlags({"ENDER_MAN_PICKUP_BLOCK", "ENDER_MAN_PLACE_BLOCK"})
 public class EnderMan implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityChangeBlockEvent event) {
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.EventHandler;
@@ -10,6 +11,7 @@ import org.bukkit.event.entity.EntityTeleportEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 
+@GuardedFlags("ENDER_MAN_TELEPORT")
 public class EnderManTeleport implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityTeleportEvent event) {
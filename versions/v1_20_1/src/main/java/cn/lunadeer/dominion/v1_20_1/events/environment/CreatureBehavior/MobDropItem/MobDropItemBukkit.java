@@ -3,6 +3,7 @@ package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior.MobDrop
 import cn.lunadeer.dominion.api.dtos.DominionDTO;
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.SpigotOnly;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -12,6 +13,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDeathEvent;
 
 @SpigotOnly
+@GuardedFlags("MOB_DROP_ITEM")
 public class MobDropItemBukkit implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityDeathEvent event) {
@@ -1,5 +1,6 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior.MobDropItem;
 
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.PaperOnly;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -7,6 +8,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDeathEvent;
 
 @PaperOnly
+@GuardedFlags("MOB_DROP_ITEM")
 public class MobDropItemPaper implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityDeathEvent event) {
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.block.Block;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -10,6 +11,7 @@ import org.bukkit.event.entity.EntityInteractEvent;
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 import static org.bukkit.Material.FARMLAND;
 
+@GuardedFlags("MOB_TRAMPLE")
 public class MobTrample implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityInteractEvent event) {
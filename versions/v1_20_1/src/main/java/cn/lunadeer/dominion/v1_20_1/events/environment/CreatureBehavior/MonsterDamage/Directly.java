@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior.MonsterDamage;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Enemy;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -9,8 +11,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("MONSTER_DAMAGE")
 public class Directly implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityDamageByEntityEvent event) {
@@ -22,6 +23,6 @@ public class Directly implements Listener {
         if (!(event.getEntity() instanceof Player)) {
             return;
         }
-        checkEnvironmentFlag(attacker.getLocation(), Flags.MONSTER_DAMAGE, event);
+        EventContext.of(event).checkEnvironmentFlag(attacker.getLocation(), Flags.MONSTER_DAMAGE, event);
     }
 }
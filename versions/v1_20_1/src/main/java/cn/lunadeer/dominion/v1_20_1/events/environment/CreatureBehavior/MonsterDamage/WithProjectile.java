@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior.MonsterDamage;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Enemy;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -8,8 +10,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.ProjectileHitEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("MONSTER_DAMAGE")
 public class WithProjectile implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(ProjectileHitEvent event) {
@@ -23,7 +24,7 @@ public class WithProjectile implements Listener {
         if (!(event.getHitEntity() instanceof Player player)) {
             return;
         }
-        if (!checkEnvironmentFlag(player.getLocation(), Flags.MONSTER_DAMAGE, event)) {
+        if (!EventContext.of(event).checkEnvironmentFlag(player.getLocation(), Flags.MONSTER_DAMAGE, event)) {
             event.getEntity().remove();
         }
     }
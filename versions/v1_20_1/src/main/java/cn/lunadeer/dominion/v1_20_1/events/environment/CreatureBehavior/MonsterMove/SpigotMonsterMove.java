@@ -1,14 +1,22 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior.MonsterMove;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.SpigotOnly;
 import cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior.SpigotEntityMove;
 import org.bukkit.entity.Monster;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
 
 @SpigotOnly
+@GuardedFlags("MONSTER_MOVE")
 public class SpigotMonsterMove implements Listener {
-    public SpigotMonsterMove() {
-        SpigotEntityMove.track(Monster.class, Flags.MONSTER_MOVE);
+    private final SpigotEntityMove tracker = new SpigotEntityMove(Monster.class, Flags.MONSTER_MOVE);
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void handler(ChunkLoadEvent event) {
+        tracker.chunkLoaded(event.getChunk());
     }
 }
@@ -1,39 +1,193 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior;
 
 import cn.lunadeer.dominion.Dominion;
+import cn.lunadeer.dominion.api.dtos.CuboidDTO;
+import cn.lunadeer.dominion.api.dtos.DominionDTO;
 import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
+import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.cache.server.DominionCache;
+import cn.lunadeer.dominion.configuration.WorldWide;
+import cn.lunadeer.dominion.utils.LongLongHashMap;
+import cn.lunadeer.dominion.utils.LongObjectHashMap;
 import cn.lunadeer.dominion.utils.scheduler.Scheduler;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.*;
 
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 
+/**
+ * Keeps entities of a type out of the places where a move flag is disabled, for Spigot which has no
+ * pathfinding event: entities that moved into such a place are teleported back to their previous position.
+ * <p>
+ * Only the loaded chunks near a dominion with the flag disabled (one chunk around its cuboid, so entities are
+ * known before they step in) are swept, or all loaded chunks of a world whose world-wide flag is disabled.
+ * The chunks are collected when they load, see {@link #chunkLoaded(Chunk)}, and again when the dominion cache
+ * version changed, which covers a dominion loaded or deleted and its environment flags set.
+ * Positions are kept as packed block positions by entity id. Everything runs on the main thread.
+ */
 public final class SpigotEntityMove {
-    private SpigotEntityMove() {
-    }
-
-    public static void track(Class<? extends LivingEntity> entityType, EnvFlag flag) {
-        ConcurrentHashMap<UUID, Location> locations = new ConcurrentHashMap<>();
-        Scheduler.runTaskRepeat(() -> Dominion.instance.getServer().getWorlds().forEach(world ->
-                world.getEntitiesByClass(entityType).forEach(entity -> {
-                    Location current = entity.getLocation();
-                    Location previous = locations.putIfAbsent(entity.getUniqueId(), current);
-                    if (previous == null) return;
-                    if (!checkEnvironmentFlag(current, flag, null)) {
-                        entity.teleport(previous);
-                    } else {
-                        locations.put(entity.getUniqueId(), current);
+
+    private final Class<? extends LivingEntity> entityType;
+    private final EnvFlag flag;
+
+    // world -> chunk boxes {minX, minZ, maxX, maxZ} (inclusive) of the dominions with the flag disabled
+    private Map<UUID, List<int[]>> disabledBoxes = Map.of();
+    private long boxesVersion = -1;
+    // worlds where the world-wide flag is disabled, every loaded chunk is swept
+    private final Set<UUID> disabledWorlds = new HashSet<>();
+    // world -> packed chunk coordinate -> loaded chunk to sweep
+    private final Map<UUID, LongObjectHashMap<Chunk>> watched = new HashMap<>();
+
+    // entity id -> packed block position, of the last sweep and of the current one
+    private LongLongHashMap positions = new LongLongHashMap();
+    private LongLongHashMap swept = new LongLongHashMap();
+
+    public SpigotEntityMove(Class<? extends LivingEntity> entityType, EnvFlag flag) {
+        this.entityType = entityType;
+        this.flag = flag;
+        Scheduler.runTaskRepeat(this::sweep, 20, 30);
+    }
+
+    /**
+     * Starts sweeping a chunk that was loaded, if it is near a place where the flag is disabled.
+     *
+     * @param chunk the loaded chunk
+     */
+    public void chunkLoaded(Chunk chunk) {
+        if (boxesVersion < 0) {
+            return;  // not built yet, or the flag is disabled; the next rebuild collects the loaded chunks
+        }
+        UUID world = chunk.getWorld().getUID();
+        if (!disabledWorlds.contains(world) && !inDisabledBox(world, chunk.getX(), chunk.getZ())) {
+            return;
+        }
+        watched.computeIfAbsent(world, k -> new LongObjectHashMap<>()).put(chunkKey(chunk.getX(), chunk.getZ()), chunk);
+    }
+
+    private void sweep() {
+        if (!flag.getEnable()) {
+            if (boxesVersion >= 0) {
+                boxesVersion = -1;
+                watched.clear();
+                positions.clear();
+            }
+            return;
+        }
+        DominionCache cache = CacheManager.instance.getCache().getDominionCache();
+        // also changes when a dominion's flag is set, see DominionCache#envFlagsChanged
+        boolean rebuild = cache.getVersion() != boxesVersion;
+        // the world-wide flags have no version, compare them every sweep
+        for (World world : Dominion.instance.getServer().getWorlds()) {
+            boolean disabled = WorldWide.isWorldWideEnabled(world) && !WorldWide.getEnvFlagValue(world, flag);
+            if (disabled ? disabledWorlds.add(world.getUID()) : disabledWorlds.remove(world.getUID())) {
+                rebuild = true;
+            }
+        }
+        if (rebuild) {
+            rebuild(cache);
+        }
+
+        swept.clear();
+        List<Long> unloaded = new ArrayList<>(0);
+        watched.forEach((world, chunks) -> {
+            chunks.forEach((key, chunk) -> {
+                if (!chunk.isLoaded()) {
+                    unloaded.add(key);
+                    return;
+                }
+                for (Entity entity : chunk.getEntities()) {
+                    if (entityType.isInstance(entity)) {
+                        sweep(entity);
                     }
-                })), 20, 30);
-        Scheduler.runTaskRepeat(() -> locations.keySet().removeIf(SpigotEntityMove::isMissingOrDead), 20, 6000);
+                }
+            });
+            unloaded.forEach(chunks::remove);
+            unloaded.clear();
+        });
+        // entities not seen in this sweep (dead, unloaded or gone elsewhere) are dropped
+        LongLongHashMap last = positions;
+        positions = swept;
+        swept = last;
+    }
+
+    private void sweep(Entity entity) {
+        Location current = entity.getLocation();
+        long id = entity.getEntityId();
+        long position = pack(current.getBlockX(), current.getBlockY(), current.getBlockZ());
+        if (!positions.containsKey(id)) {
+            swept.put(id, position);
+            return;
+        }
+        long previous = positions.get(id, position);
+        if (previous == position || checkEnvironmentFlag(current, flag, null)) {
+            swept.put(id, position);
+            return;
+        }
+        Location back = new Location(current.getWorld(),
+                unpackX(previous) + 0.5, unpackY(previous), unpackZ(previous) + 0.5,
+                current.getYaw(), current.getPitch());
+        entity.teleport(back);
+        swept.put(id, previous);
+    }
+
+    private void rebuild(DominionCache cache) {
+        boxesVersion = cache.getVersion();
+        Map<UUID, List<int[]>> boxes = new HashMap<>();
+        for (DominionDTO dominion : cache.getAllDominions()) {
+            if (dominion.getEnvFlagValue(flag)) {
+                continue;
+            }
+            CuboidDTO cuboid = dominion.getCuboid();
+            boxes.computeIfAbsent(dominion.getWorldUid(), k -> new ArrayList<>()).add(new int[]{
+                    (cuboid.x1() >> 4) - 1, (cuboid.z1() >> 4) - 1,
+                    ((cuboid.x2() - 1) >> 4) + 1, ((cuboid.z2() - 1) >> 4) + 1
+            });
+        }
+        disabledBoxes = boxes;
+        watched.clear();
+        for (World world : Dominion.instance.getServer().getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                chunkLoaded(chunk);
+            }
+        }
+    }
+
+    private boolean inDisabledBox(UUID world, int chunkX, int chunkZ) {
+        List<int[]> boxes = disabledBoxes.get(world);
+        if (boxes == null) {
+            return false;
+        }
+        for (int[] box : boxes) {
+            if (chunkX >= box[0] && chunkZ >= box[1] && chunkX <= box[2] && chunkZ <= box[3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    // x and z in 26 bits, y in 12 bits, like the block positions of the server
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    private static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    private static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
     }
 
-    private static boolean isMissingOrDead(UUID uuid) {
-        Entity entity = Dominion.instance.getServer().getEntity(uuid);
-        return entity == null || entity.isDead();
+    private static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
     }
 }
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureBehavior;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -8,6 +9,7 @@ import org.bukkit.event.entity.EntityChangeBlockEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 
+@GuardedFlags("WITHER_BREAK_BLOCK")
 public class WitherBreakBlock implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityChangeBlockEvent event) {
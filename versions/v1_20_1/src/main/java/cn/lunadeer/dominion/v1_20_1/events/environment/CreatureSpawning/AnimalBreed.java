@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureSpawning;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Animals;
 import org.bukkit.entity.Bat;
 import org.bukkit.entity.Entity;
@@ -9,8 +11,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("ANIMAL_BREED")
 public class AnimalBreed implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(CreatureSpawnEvent event) {
@@ -18,6 +19,6 @@ public class AnimalBreed implements Listener {
         if (event.getSpawnReason() != CreatureSpawnEvent.SpawnReason.BREEDING) return;
         Entity entity = event.getEntity();
         if (!(entity instanceof Animals) && !(entity instanceof Bat)) return;
-        checkEnvironmentFlag(entity.getLocation(), Flags.ANIMAL_BREED, event);
+        EventContext.of(event).checkEnvironmentFlag(entity.getLocation(), Flags.ANIMAL_BREED, event);
     }
 }
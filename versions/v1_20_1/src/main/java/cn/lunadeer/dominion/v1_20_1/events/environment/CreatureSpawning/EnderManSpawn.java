@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureSpawning;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.EventHandler;
@@ -8,8 +10,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("ENDER_MAN_SPAWN")
 public class EnderManSpawn implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(CreatureSpawnEvent event) {
@@ -19,6 +20,6 @@ public class EnderManSpawn implements Listener {
         if (entity.getType() != EntityType.ENDERMAN) {
             return;
         }
-        checkEnvironmentFlag(entity.getLocation(), Flags.ENDER_MAN_SPAWN, event);
+        EventContext.of(event).checkEnvironmentFlag(entity.getLocation(), Flags.ENDER_MAN_SPAWN, event);
     }
 }
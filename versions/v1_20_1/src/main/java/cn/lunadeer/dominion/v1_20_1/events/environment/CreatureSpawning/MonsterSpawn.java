@@ -1,14 +1,15 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureSpawning;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Enemy;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("MONSTER_SPAWN")
 public class MonsterSpawn implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(CreatureSpawnEvent event) {
@@ -18,6 +19,6 @@ public class MonsterSpawn implements Listener {
             return;
         }
         if (!(event.getEntity() instanceof Enemy)) return;
-        checkEnvironmentFlag(event.getLocation(), Flags.MONSTER_SPAWN, event);
+        EventContext.of(event).checkEnvironmentFlag(event.getLocation(), Flags.MONSTER_SPAWN, event);
     }
 }
@@ -1,20 +1,21 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureSpawning;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("VILLAGER_SPAWN_EGG")
 public class VillagerSpawnEgg implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(CreatureSpawnEvent event) {
         if (event.isCancelled()) return;
         if (event.getSpawnReason() != CreatureSpawnEvent.SpawnReason.SPAWNER_EGG) return;
         if (event.getEntityType() != EntityType.VILLAGER) return;
-        checkEnvironmentFlag(event.getLocation(), Flags.VILLAGER_SPAWN_EGG, event);
+        EventContext.of(event).checkEnvironmentFlag(event.getLocation(), Flags.VILLAGER_SPAWN_EGG, event);
     }
 }
@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.CreatureSpawning;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.EventHandler;
@@ -8,8 +10,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("WITHER_SPAWN")
 public class WitherSpawn implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(CreatureSpawnEvent event) {
@@ -18,6 +19,6 @@ public class WitherSpawn implements Listener {
         if (entity.getType() != EntityType.WITHER) {
             return;
         }
-        checkEnvironmentFlag(entity.getLocation(), Flags.WITHER_SPAWN, event);
+        EventContext.of(event).checkEnvironmentFlag(entity.getLocation(), Flags.WITHER_SPAWN, event);
     }
 }
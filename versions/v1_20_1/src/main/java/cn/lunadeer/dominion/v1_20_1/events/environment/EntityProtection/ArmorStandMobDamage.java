@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.EntityProtection;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.v1_20_1.events.environment.Explosions.ExplosionSource;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
@@ -11,8 +13,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("ARMOR_STAND_MOB_DAMAGE")
 public class ArmorStandMobDamage implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handle(EntityDamageByEntityEvent event) {
@@ -21,6 +22,6 @@ public class ArmorStandMobDamage implements Listener {
         if (damager instanceof Player) return;
         if (damager instanceof Projectile projectile && projectile.getShooter() instanceof Player) return;
         if (ExplosionSource.isExplosion(damager)) return;
-        checkEnvironmentFlag(event.getEntity().getLocation(), Flags.ARMOR_STAND_MOB_DAMAGE, event);
+        EventContext.of(event).checkEnvironmentFlag(event.getEntity().getLocation(), Flags.ARMOR_STAND_MOB_DAMAGE, event);
     }
 }
@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.EntityProtection;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.v1_20_1.events.environment.Explosions.ExplosionSource;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -11,8 +13,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.hanging.HangingBreakByEntityEvent;
 import org.bukkit.event.hanging.HangingBreakEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("HANGING_ENTITY_MOB_DAMAGE")
 public class HangingEntityMobDamage implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handle(HangingBreakByEntityEvent event) {
@@ -21,6 +22,6 @@ public class HangingEntityMobDamage implements Listener {
         if (remover instanceof Player) return;
         if (remover instanceof Projectile projectile && projectile.getShooter() instanceof Player) return;
         if (ExplosionSource.isExplosion(remover)) return;
-        checkEnvironmentFlag(event.getEntity().getLocation(), Flags.HANGING_ENTITY_MOB_DAMAGE, event);
+        EventContext.of(event).checkEnvironmentFlag(event.getEntity().getLocation(), Flags.HANGING_ENTITY_MOB_DAMAGE, event);
     }
 }
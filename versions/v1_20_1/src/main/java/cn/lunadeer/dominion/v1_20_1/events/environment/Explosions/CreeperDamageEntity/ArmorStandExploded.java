@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.Explosions.CreeperDamageEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.v1_20_1.events.environment.Explosions.ExplosionSource;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.EventHandler;
@@ -8,14 +10,13 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("CREEPER_DAMAGE_ARMOR_STAND")
 public class ArmorStandExploded implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handle(EntityDamageByEntityEvent event) {
         if (event.isCancelled()) return;
         if (event.getEntityType() != EntityType.ARMOR_STAND) return;
         if (!ExplosionSource.CREEPER.matches(event.getDamager())) return;
-        checkEnvironmentFlag(event.getEntity().getLocation(), Flags.CREEPER_DAMAGE_ARMOR_STAND, event);
+        EventContext.of(event).checkEnvironmentFlag(event.getEntity().getLocation(), Flags.CREEPER_DAMAGE_ARMOR_STAND, event);
     }
 }
@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.Explosions.CreeperDamageEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.v1_20_1.events.environment.Explosions.ExplosionSource;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -8,14 +10,13 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.hanging.HangingBreakByEntityEvent;
 import org.bukkit.event.hanging.HangingBreakEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("CREEPER_DAMAGE_HANGING_ENTITY")
 public class HangingEntityExploded implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handle(HangingBreakByEntityEvent event) {
         if (event.isCancelled()) return;
         if (event.getCause() != HangingBreakEvent.RemoveCause.EXPLOSION) return;
         if (!ExplosionSource.CREEPER.matches(event.getRemover())) return;
-        checkEnvironmentFlag(event.getEntity().getLocation(), Flags.CREEPER_DAMAGE_HANGING_ENTITY, event);
+        EventContext.of(event).checkEnvironmentFlag(event.getEntity().getLocation(), Flags.CREEPER_DAMAGE_HANGING_ENTITY, event);
     }
 }
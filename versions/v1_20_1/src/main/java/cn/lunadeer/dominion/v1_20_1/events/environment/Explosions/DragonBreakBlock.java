@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.Explosions;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.EventHandler;
@@ -8,8 +9,9 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityExplodeEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
+import static cn.lunadeer.dominion.events.ExplosionGuard.filter;
 
+@GuardedFlags("DRAGON_BREAK_BLOCK")
 public class DragonBreakBlock implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityExplodeEvent event) {
@@ -18,6 +20,6 @@ public class DragonBreakBlock implements Listener {
         if (entity.getType() != EntityType.ENDER_DRAGON) {
             return;
         }
-        event.blockList().removeIf(block -> !checkEnvironmentFlag(block.getLocation(), Flags.DRAGON_BREAK_BLOCK, null));
+        filter(event.blockList(), Flags.DRAGON_BREAK_BLOCK);
     }
 }
@@ -1,18 +1,20 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.Explosions;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityExplodeEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
+import static cn.lunadeer.dominion.events.ExplosionGuard.filter;
 
+@GuardedFlags("FIREBALL_EXPLODE")
 public class FireballExplode implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handle(EntityExplodeEvent event) {
         if (event.isCancelled()) return;
         if (!ExplosionSource.FIREBALL.matches(event.getEntity())) return;
-        event.blockList().removeIf(block -> !checkEnvironmentFlag(block.getLocation(), Flags.FIREBALL_EXPLODE, null));
+        filter(event.blockList(), Flags.FIREBALL_EXPLODE);
     }
 }
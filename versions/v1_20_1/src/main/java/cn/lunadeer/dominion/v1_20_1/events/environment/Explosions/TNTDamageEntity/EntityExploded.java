@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.Explosions.TNTDamageEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.HighestVersion;
 import cn.lunadeer.dominion.utils.XVersionManager;
 import org.bukkit.entity.Entity;
@@ -12,9 +14,8 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
 @HighestVersion(XVersionManager.ImplementationVersion.v1_20_1)
+@GuardedFlags("TNT_DAMAGE_ENTITY")
 public class EntityExploded implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityDamageByEntityEvent event) {
@@ -27,6 +28,6 @@ public class EntityExploded implements Listener {
         if (entity instanceof ArmorStand || entity instanceof Hanging) {
             return;
         }
-        checkEnvironmentFlag(entity.getLocation(), Flags.TNT_DAMAGE_ENTITY, event);
+        EventContext.of(event).checkEnvironmentFlag(entity.getLocation(), Flags.TNT_DAMAGE_ENTITY, event);
     }
 }
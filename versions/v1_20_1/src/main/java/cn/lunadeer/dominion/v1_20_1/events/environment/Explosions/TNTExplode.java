@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.Explosions;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.HighestVersion;
 import cn.lunadeer.dominion.utils.XVersionManager;
 import org.bukkit.entity.Entity;
@@ -10,9 +11,10 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityExplodeEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
+import static cn.lunadeer.dominion.events.ExplosionGuard.filter;
 
 @HighestVersion(XVersionManager.ImplementationVersion.v1_20_1)
+@GuardedFlags("TNT_EXPLODE")
 public class TNTExplode implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityExplodeEvent event) {
@@ -21,6 +23,6 @@ public class TNTExplode implements Listener {
         if (entity.getType() != EntityType.MINECART_TNT && entity.getType() != EntityType.PRIMED_TNT) {
             return;
         }
-        event.blockList().removeIf(block -> !checkEnvironmentFlag(block.getLocation(), Flags.TNT_EXPLODE, null));
+        filter(event.blockList(), Flags.TNT_EXPLODE);
     }
 }
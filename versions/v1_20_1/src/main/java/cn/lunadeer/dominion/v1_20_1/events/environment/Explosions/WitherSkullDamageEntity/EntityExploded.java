@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.Explosions.WitherSkullDamageEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.v1_20_1.events.environment.Explosions.ExplosionSource;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
@@ -10,8 +12,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
+@GuardedFlags("WITHER_SKULL_DAMAGE_ENTITY")
 public class EntityExploded implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handle(EntityDamageByEntityEvent event) {
@@ -19,6 +20,6 @@ public class EntityExploded implements Listener {
         Entity entity = event.getEntity();
         if (entity instanceof ArmorStand || entity instanceof Hanging) return;
         if (!ExplosionSource.WITHER_SKULL.matches(event.getDamager())) return;
-        checkEnvironmentFlag(entity.getLocation(), Flags.WITHER_SKULL_DAMAGE_ENTITY, event);
+        EventContext.of(event).checkEnvironmentFlag(entity.getLocation(), Flags.WITHER_SKULL_DAMAGE_ENTITY, event);
     }
 }
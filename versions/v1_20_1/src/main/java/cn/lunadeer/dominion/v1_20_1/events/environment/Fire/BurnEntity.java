@@ -2,6 +2,7 @@ package cn.lunadeer.dominion.v1_20_1.events.environment.Fire;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -10,6 +11,7 @@ import org.bukkit.event.entity.EntityDamageEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 
+@GuardedFlags({"BURN_ENTITY_LAVA", "BURN_ENTITY_FIRE"})
 public class BurnEntity implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityDamageEvent event) {
@@ -1,47 +1,26 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.Mechanisms;
 
-import cn.lunadeer.dominion.api.dtos.DominionDTO;
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
-import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.events.GuardedFlags;
+import cn.lunadeer.dominion.events.HopperGuard;
 import org.bukkit.Location;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryMoveItemEvent;
-import org.bukkit.inventory.Inventory;
-
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 
+@GuardedFlags("HOPPER_OUTSIDE")
 public class HopperOutside implements Listener {
+    private final HopperGuard guard = new HopperGuard(Flags.HOPPER_OUTSIDE);
+
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(InventoryMoveItemEvent event) {
         if (event.isCancelled()) return;
-        Inventory hopper = event.getDestination();
-        Inventory inventory = event.getSource();
-        Location hopperLocation = hopper.getLocation();
-        Location inventoryLocation = inventory.getLocation();
+        Location hopperLocation = event.getDestination().getLocation();
+        Location inventoryLocation = event.getSource().getLocation();
         if (hopperLocation == null || inventoryLocation == null) {
             return;
         }
-
-        DominionDTO inventoryDom = CacheManager.instance.getDominion(
-                inventoryLocation.getWorld(),
-                inventoryLocation.getBlockX(),
-                inventoryLocation.getBlockY(),
-                inventoryLocation.getBlockZ()
-        );
-        if (inventoryDom == null) {
-            return;
-        }
-
-        DominionDTO hopperDom = CacheManager.instance.getDominion(
-                hopperLocation.getWorld(),
-                hopperLocation.getBlockX(),
-                hopperLocation.getBlockY(),
-                hopperLocation.getBlockZ()
-        );
-        if (hopperDom == null || !hopperDom.getId().equals(inventoryDom.getId())) {
-            checkEnvironmentFlag(inventoryDom, Flags.HOPPER_OUTSIDE, event);
-        }
+        guard.check(inventoryLocation, hopperLocation, event);
     }
 }
@@ -3,7 +3,8 @@ package cn.lunadeer.dominion.v1_20_1.events.environment.Mechanisms.PistonOutside
 import cn.lunadeer.dominion.api.dtos.DominionDTO;
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.cache.CacheManager;
-import org.bukkit.block.Block;
+import cn.lunadeer.dominion.events.GuardedFlags;
+import org.bukkit.Location;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -12,16 +13,17 @@ import org.bukkit.event.block.BlockPistonExtendEvent;
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 import static cn.lunadeer.dominion.misc.Others.isInDominion;
 
+@GuardedFlags("PISTON_OUTSIDE")
 public class Extend implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(BlockPistonExtendEvent event) {
         if (event.isCancelled()) return;
-        Block piston = event.getBlock();
-        for (Block block : event.getBlocks()) {
-            Block targetBlock = block.getRelative(event.getDirection());
-            DominionDTO targetDominion = CacheManager.instance.getDominion(targetBlock.getLocation());
-            if (targetDominion == null || isInDominion(targetDominion, piston.getLocation())) continue;
+        Location piston = event.getBlock().getLocation();
+        DominionDTO checked = null;
+        for (DominionDTO targetDominion : CacheManager.instance.getDominions(event.getBlocks(), event.getDirection())) {
+            if (targetDominion == null || targetDominion == checked || isInDominion(targetDominion, piston)) continue;
             if (!checkEnvironmentFlag(targetDominion, Flags.PISTON_OUTSIDE, event)) return;
+            checked = targetDominion;
         }
     }
 }
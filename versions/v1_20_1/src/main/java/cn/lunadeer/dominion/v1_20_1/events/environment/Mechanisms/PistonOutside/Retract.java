@@ -3,7 +3,8 @@ package cn.lunadeer.dominion.v1_20_1.events.environment.Mechanisms.PistonOutside
 import cn.lunadeer.dominion.api.dtos.DominionDTO;
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.cache.CacheManager;
-import org.bukkit.block.Block;
+import cn.lunadeer.dominion.events.GuardedFlags;
+import org.bukkit.Location;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -12,15 +13,17 @@ import org.bukkit.event.block.BlockPistonRetractEvent;
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 import static cn.lunadeer.dominion.misc.Others.isInDominion;
 
+@GuardedFlags("PISTON_OUTSIDE")
 public class Retract implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(BlockPistonRetractEvent event) {
         if (event.isCancelled()) return;
-        Block piston = event.getBlock();
-        for (Block block : event.getBlocks()) {
-            DominionDTO sourceDominion = CacheManager.instance.getDominion(block.getLocation());
-            if (sourceDominion == null || isInDominion(sourceDominion, piston.getLocation())) continue;
+        Location piston = event.getBlock().getLocation();
+        DominionDTO checked = null;
+        for (DominionDTO sourceDominion : CacheManager.instance.getDominions(event.getBlocks())) {
+            if (sourceDominion == null || sourceDominion == checked || isInDominion(sourceDominion, piston)) continue;
             if (!checkEnvironmentFlag(sourceDominion, Flags.PISTON_OUTSIDE, event)) return;
+            checked = sourceDominion;
         }
     }
 }
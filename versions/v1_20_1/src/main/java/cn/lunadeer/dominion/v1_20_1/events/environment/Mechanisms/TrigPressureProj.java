@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.Mechanisms;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.Tag;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Projectile;
@@ -11,6 +12,7 @@ import org.bukkit.event.entity.EntityInteractEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 
+@GuardedFlags("TRIG_PRESSURE_PROJ")
 public class TrigPressureProj implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityInteractEvent event) {
@@ -4,6 +4,7 @@ import cn.lunadeer.dominion.api.dtos.DominionDTO;
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
 import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.event.EventHandler;
@@ -15,6 +16,7 @@ import java.util.Objects;
 
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 
+@GuardedFlags({"FLOW_IN_LAVA", "FLOW_IN_WATER"})
 public class FlowInProtection implements Listener {
     @EventHandler(priority = EventPriority.LOWEST) // flow_in_protection
     public void handler(BlockFromToEvent event) {
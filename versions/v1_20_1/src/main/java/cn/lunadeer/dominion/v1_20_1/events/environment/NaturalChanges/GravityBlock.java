@@ -3,6 +3,7 @@ package cn.lunadeer.dominion.v1_20_1.events.environment.NaturalChanges;
 import cn.lunadeer.dominion.api.dtos.DominionDTO;
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.Location;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
@@ -18,6 +19,7 @@ import java.util.UUID;
 
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 
+@GuardedFlags("GRAVITY_BLOCK")
 public class GravityBlock implements Listener {
     private static final Map<UUID, Location> fallingBlockMap = new java.util.HashMap<>();
 
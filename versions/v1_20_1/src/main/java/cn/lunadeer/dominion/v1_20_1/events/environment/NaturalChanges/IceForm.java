@@ -2,6 +2,7 @@ package cn.lunadeer.dominion.v1_20_1.events.environment.NaturalChanges;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.api.dtos.flag.EnvFlag;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -10,6 +11,7 @@ import org.bukkit.event.block.EntityBlockFormEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 
+@GuardedFlags({"ICE_FORM_FROST_WALKER", "ICE_FORM_NATURAL"})
 public class IceForm implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(BlockFormEvent event) {
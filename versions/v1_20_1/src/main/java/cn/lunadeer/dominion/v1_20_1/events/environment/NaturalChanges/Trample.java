@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.environment.NaturalChanges;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.block.Block;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -11,6 +12,7 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
 import static org.bukkit.Material.FARMLAND;
 
+@GuardedFlags("TRAMPLE")
 public class Trample implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(PlayerInteractEvent event) {
@@ -1,32 +1,20 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Access;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
+import org.bukkit.Material;
 import org.bukkit.Tag;
-import org.bukkit.block.Block;
-import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
-import org.bukkit.event.player.PlayerInteractEvent;
+import org.jetbrains.annotations.NotNull;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+public class Button implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.BUTTON;
+    }
 
-public class Button implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
-            return;
-        }
-        Player player = event.getPlayer();
-        if (event.getClickedBlock() == null) {
-            return;
-        }
-        Block block = event.getClickedBlock();
-        if (!Tag.BUTTONS.isTagged(block.getType())) {
-            return;
-        }
-        checkPrivilegeFlag(block.getLocation(), Flags.BUTTON, player, event);
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return Tag.BUTTONS.isTagged(material);
     }
 }
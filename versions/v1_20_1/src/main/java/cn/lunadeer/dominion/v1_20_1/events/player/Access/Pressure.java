@@ -1,32 +1,29 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Access;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
+import org.bukkit.Material;
 import org.bukkit.Tag;
-import org.bukkit.block.Block;
-import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
-import org.bukkit.event.player.PlayerInteractEvent;
+import org.jetbrains.annotations.NotNull;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+import java.util.EnumSet;
+import java.util.Set;
 
-public class Pressure implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getAction() != Action.PHYSICAL) {
-            return;
-        }
-        Block block = event.getClickedBlock();
-        if (block == null) {
-            return;
-        }
-        if (!Tag.PRESSURE_PLATES.isTagged(block.getType())) {
-            return;
-        }
-        Player player = event.getPlayer();
-        checkPrivilegeFlag(block.getLocation(), Flags.PRESSURE, player, event);
+public class Pressure implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.PRESSURE;
+    }
+
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return Tag.PRESSURE_PLATES.isTagged(material);
+    }
+
+    @Override
+    public @NotNull Set<Action> actions() {
+        return EnumSet.of(Action.PHYSICAL);
     }
 }
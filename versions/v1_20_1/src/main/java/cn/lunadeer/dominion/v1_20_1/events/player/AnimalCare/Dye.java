@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.AnimalCare;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -11,6 +12,7 @@ import org.bukkit.material.Colorable;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("DYE")
 public class Dye implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(PlayerInteractEntityEvent event) {
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.AnimalCare;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.Material;
 import org.bukkit.entity.Animals;
 import org.bukkit.entity.Player;
@@ -11,6 +12,7 @@ import org.bukkit.event.player.PlayerInteractEntityEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("FEED")
 public class Feed implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(PlayerInteractEntityEvent event) {
@@ -1,26 +1,20 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Building.BreakBlock;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
 import org.bukkit.Material;
 import org.bukkit.Tag;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
-import org.bukkit.event.player.PlayerInteractEvent;
+import org.jetbrains.annotations.NotNull;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+public class FlowerPot implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.BREAK_FLOWER_POT_CONTENT;
+    }
 
-public class FlowerPot implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) return;
-        if (event.getClickedBlock() == null) return;
-        Material blockType = event.getClickedBlock().getType();
-        if (!Tag.FLOWER_POTS.isTagged(blockType) || blockType == Material.FLOWER_POT) {
-            return;
-        }
-        checkPrivilegeFlag(event.getClickedBlock().getLocation(), Flags.BREAK_FLOWER_POT_CONTENT, event.getPlayer(), event);
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return Tag.FLOWER_POTS.isTagged(material) && material != Material.FLOWER_POT;
     }
 }
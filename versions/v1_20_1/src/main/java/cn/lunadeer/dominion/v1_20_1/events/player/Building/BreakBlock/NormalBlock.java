@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Building.BreakBlock;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.Tag;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -10,6 +11,7 @@ import org.bukkit.event.block.BlockBreakEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("BREAK_BLOCK")
 public class NormalBlock implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(BlockBreakEvent event) {
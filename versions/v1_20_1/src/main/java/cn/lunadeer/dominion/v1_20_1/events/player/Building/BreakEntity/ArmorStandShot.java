@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Building.BreakEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -10,8 +12,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
+@GuardedFlags("ARMOR_STAND_PROJECTILE_BREAK")
 public class ArmorStandShot implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityDamageByEntityEvent event) {
@@ -27,6 +28,6 @@ public class ArmorStandShot implements Listener {
         if (!(projectile.getShooter() instanceof Player player)) {
             return;
         }
-        checkPrivilegeFlag(victim.getLocation(), Flags.ARMOR_STAND_PROJECTILE_BREAK, player, event);
+        EventContext.of(event).checkPrivilegeFlag(victim.getLocation(), Flags.ARMOR_STAND_PROJECTILE_BREAK, player, event);
     }
 }
@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Building.BreakEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.Material;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.ItemFrame;
@@ -11,8 +13,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.hanging.HangingBreakByEntityEvent;
 import org.bukkit.event.hanging.HangingBreakEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
+@GuardedFlags("HANGING_ENTITY_DIRECT_BREAK")
 public class HangingEntityBroken implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(HangingBreakByEntityEvent event) {
@@ -30,6 +31,6 @@ public class HangingEntityBroken implements Listener {
                 return;
             }
         }
-        checkPrivilegeFlag(entity.getLocation(), Flags.HANGING_ENTITY_DIRECT_BREAK, player, event);
+        EventContext.of(event).checkPrivilegeFlag(entity.getLocation(), Flags.HANGING_ENTITY_DIRECT_BREAK, player, event);
     }
 }
@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Building.BreakEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Hanging;
 import org.bukkit.entity.Player;
@@ -9,8 +11,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.ProjectileHitEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
+@GuardedFlags("HANGING_ENTITY_PROJECTILE_BREAK")
 public class HangingEntityShot implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(ProjectileHitEvent event) {
@@ -25,6 +26,6 @@ public class HangingEntityShot implements Listener {
         if (!(hit instanceof Hanging)) {
             return;
         }
-        checkPrivilegeFlag(hit.getLocation(), Flags.HANGING_ENTITY_PROJECTILE_BREAK, player, event);
+        EventContext.of(event).checkPrivilegeFlag(hit.getLocation(), Flags.HANGING_ENTITY_PROJECTILE_BREAK, player, event);
     }
 }
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Building.PlaceEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -10,6 +11,7 @@ import org.bukkit.event.entity.EntityPlaceEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("PLACE_ARMOR_STAND")
 public class ArmorStand implements Listener {
     @EventHandler(priority = EventPriority.LOWEST) // place - armor stand
     public void handler(EntityPlaceEvent event) {
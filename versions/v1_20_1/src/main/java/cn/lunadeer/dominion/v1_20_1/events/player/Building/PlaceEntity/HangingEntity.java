@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Building.PlaceEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Hanging;
 import org.bukkit.entity.Player;
@@ -11,6 +12,7 @@ import org.bukkit.event.hanging.HangingPlaceEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("PLACE_HANGING_ENTITY")
 public class HangingEntity implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(HangingPlaceEvent event) {
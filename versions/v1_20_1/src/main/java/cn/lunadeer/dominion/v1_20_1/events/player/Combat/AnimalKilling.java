@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Combat;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Animals;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -8,8 +10,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
+@GuardedFlags("ANIMAL_KILLING")
 public class AnimalKilling implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityDamageByEntityEvent event) {
@@ -20,6 +21,6 @@ public class AnimalKilling implements Listener {
         if (!(event.getEntity() instanceof Animals)) {
             return;
         }
-        checkPrivilegeFlag(event.getEntity().getLocation(), Flags.ANIMAL_KILLING, bukkitPlayer, event);
+        EventContext.of(event).checkPrivilegeFlag(event.getEntity().getLocation(), Flags.ANIMAL_KILLING, bukkitPlayer, event);
     }
 }
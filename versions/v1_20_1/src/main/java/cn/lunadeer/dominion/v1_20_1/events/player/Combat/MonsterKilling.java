@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Combat;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Monster;
 import org.bukkit.entity.Player;
@@ -9,8 +11,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
+@GuardedFlags("MONSTER_KILLING")
 public class MonsterKilling implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityDamageByEntityEvent event) {
@@ -22,6 +23,6 @@ public class MonsterKilling implements Listener {
         if (!(entity instanceof Monster)) {
             return;
         }
-        checkPrivilegeFlag(entity.getLocation(), Flags.MONSTER_KILLING, bukkitPlayer, event);
+        EventContext.of(event).checkPrivilegeFlag(entity.getLocation(), Flags.MONSTER_KILLING, bukkitPlayer, event);
     }
 }
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Combat.PVP;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -9,6 +10,7 @@ import org.bukkit.event.entity.AreaEffectCloudApplyEvent;
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlagSilence;
 
+@GuardedFlags("PVP")
 public class CloudEffect implements Listener {
     @EventHandler(ignoreCancelled = true)
     public void handler(AreaEffectCloudApplyEvent event) {
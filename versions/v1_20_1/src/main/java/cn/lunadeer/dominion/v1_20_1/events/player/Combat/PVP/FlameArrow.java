@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Combat.PVP;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Arrow;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -10,6 +11,7 @@ import org.bukkit.event.entity.EntityCombustByEntityEvent;
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlagSilence;
 
+@GuardedFlags("PVP")
 public class FlameArrow implements Listener {
     @EventHandler(ignoreCancelled = true)
     public void handler(EntityCombustByEntityEvent event) {
@@ -1,14 +1,16 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Combat.PVP;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
-import org.bukkit.entity.*;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Firework;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlagSilence;
-
+@GuardedFlags("PVP")
 public class PlayerDamage implements Listener {
     @EventHandler(ignoreCancelled = true)
     public void handler(EntityDamageByEntityEvent event) {
@@ -16,16 +18,11 @@ public class PlayerDamage implements Listener {
             return;
         }
 
-        Player attacker = null;
+        EventContext context = EventContext.of(event);
         Entity attacker_entity = event.getDamager();
-        if (attacker_entity instanceof Player p) {
-            attacker = p;
-        } else if (attacker_entity instanceof Projectile proj && proj.getShooter() instanceof Player p) {
-            attacker = p;
-        } else if (attacker_entity instanceof TNTPrimed tnt && tnt.getSource() instanceof Player p) {
-            attacker = p;
-        } else if (attacker_entity instanceof Firework) {
-            if (!checkPrivilegeFlagSilence(attacker_entity.getLocation(), Flags.PVP, victim, null)) {
+        Player attacker = context.attacker(attacker_entity);
+        if (attacker == null && attacker_entity instanceof Firework) {
+            if (!context.checkPrivilegeFlagSilence(attacker_entity.getLocation(), Flags.PVP, victim, null)) {
                 event.setCancelled(true);
             }
             return;
@@ -34,8 +31,8 @@ public class PlayerDamage implements Listener {
             return;
         }
 
-        if (!checkPrivilegeFlag(victim.getLocation(), Flags.PVP, attacker, null)
-                || !checkPrivilegeFlagSilence(victim.getLocation(), Flags.PVP, victim, null)) {
+        if (!context.checkPrivilegeFlag(victim.getLocation(), Flags.PVP, attacker, null)
+                || !context.checkPrivilegeFlagSilence(victim.getLocation(), Flags.PVP, victim, null)) {
             event.setCancelled(true);
         }
     }
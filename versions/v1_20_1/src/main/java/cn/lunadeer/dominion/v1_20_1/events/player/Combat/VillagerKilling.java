@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Combat;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Villager;
 import org.bukkit.event.EventHandler;
@@ -8,8 +10,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
+@GuardedFlags("VILLAGER_KILLING")
 public class VillagerKilling implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityDamageByEntityEvent event) {
@@ -20,6 +21,6 @@ public class VillagerKilling implements Listener {
         if (!(event.getEntity() instanceof Villager)) {
             return;
         }
-        checkPrivilegeFlag(event.getEntity().getLocation(), Flags.VILLAGER_KILLING, player, event);
+        EventContext.of(event).checkPrivilegeFlag(event.getEntity().getLocation(), Flags.VILLAGER_KILLING, player, event);
     }
 }
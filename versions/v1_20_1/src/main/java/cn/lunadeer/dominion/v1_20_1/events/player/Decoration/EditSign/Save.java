@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Decoration.EditSign;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -10,6 +11,7 @@ import org.bukkit.event.block.SignChangeEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("EDIT_SIGN")
 public class Save implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(SignChangeEvent event) {
@@ -1,22 +1,19 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Decoration;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
 import org.bukkit.Material;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
-import org.bukkit.event.player.PlayerInteractEvent;
+import org.jetbrains.annotations.NotNull;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+public class Jukebox implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.JUKEBOX;
+    }
 
-public class Jukebox implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) return;
-        if (event.getClickedBlock() == null) return;
-        if (event.getClickedBlock().getType() != Material.JUKEBOX) return;
-        checkPrivilegeFlag(event.getClickedBlock().getLocation(), Flags.JUKEBOX, event.getPlayer(), event);
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return material == Material.JUKEBOX;
     }
 }
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Farming.Harvest;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.Tag;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
@@ -11,6 +12,7 @@ import org.bukkit.event.block.BlockBreakEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("HARVEST")
 public class HarvestCrop implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(BlockBreakEvent event) {
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.ItemManagement;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -8,6 +9,7 @@ import org.bukkit.event.player.PlayerDropItemEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("DROP_ITEM")
 public class DropItem implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(PlayerDropItemEvent event) {
@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Movement.EnderPearl;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Projectile;
@@ -9,8 +11,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.ProjectileHitEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
+@GuardedFlags("ENDER_PEARL")
 public class EndPearlHit implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(ProjectileHitEvent event) {
@@ -22,7 +23,7 @@ public class EndPearlHit implements Listener {
         if (projectile.getType() != EntityType.ENDER_PEARL) {
             return;
         }
-        if (!checkPrivilegeFlag(projectile.getLocation(), Flags.ENDER_PEARL, player, event)) {
+        if (!EventContext.of(event).checkPrivilegeFlag(projectile.getLocation(), Flags.ENDER_PEARL, player, event)) {
             projectile.teleportAsync(player.getLocation());
         }
     }
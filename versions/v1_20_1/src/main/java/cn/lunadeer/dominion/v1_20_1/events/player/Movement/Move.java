@@ -3,6 +3,7 @@ package cn.lunadeer.dominion.v1_20_1.events.player.Movement;
 import cn.lunadeer.dominion.api.dtos.DominionDTO;
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
 import cn.lunadeer.dominion.cache.CacheManager;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.managers.TeleportManager;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
@@ -15,6 +16,7 @@ import java.util.Objects;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("MOVE")
 public class Move implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(PlayerMoveEvent event) {
@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Projectiles.Egg;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Projectile;
@@ -9,8 +11,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.ProjectileHitEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
+@GuardedFlags("EGG")
 public class EggHit implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(ProjectileHitEvent event) {
@@ -22,7 +23,7 @@ public class EggHit implements Listener {
         if (projectile.getType() != EntityType.EGG) {
             return;
         }
-        if (!checkPrivilegeFlag(projectile.getLocation(), Flags.EGG, player, event)) {
+        if (!EventContext.of(event).checkPrivilegeFlag(projectile.getLocation(), Flags.EGG, player, event)) {
             projectile.teleportAsync(player.getLocation());
         }
     }
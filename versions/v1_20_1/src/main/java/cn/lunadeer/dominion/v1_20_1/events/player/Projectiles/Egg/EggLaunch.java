@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Projectiles.Egg;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Projectile;
@@ -11,6 +12,7 @@ import org.bukkit.event.entity.ProjectileLaunchEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("EGG")
 public class EggLaunch implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(ProjectileLaunchEvent event) {
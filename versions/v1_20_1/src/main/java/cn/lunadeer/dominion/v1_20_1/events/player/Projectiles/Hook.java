@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Projectiles;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -10,6 +11,7 @@ import org.bukkit.event.player.PlayerFishEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("HOOK")
 public class Hook implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(PlayerFishEvent event) {
@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Projectiles.Shoot;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Arrow;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -8,8 +10,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.ProjectileHitEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
+@GuardedFlags("ARROW_HIT")
 public class ArrowsHit implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(ProjectileHitEvent event) {
@@ -17,7 +18,7 @@ public class ArrowsHit implements Listener {
         if (!(event.getEntity() instanceof Arrow arrow)) return;
         if (!(arrow.getShooter() instanceof Player player)) return;
 
-        if (!checkPrivilegeFlag(arrow.getLocation(), Flags.ARROW_HIT, player, event)) {
+        if (!EventContext.of(event).checkPrivilegeFlag(arrow.getLocation(), Flags.ARROW_HIT, player, event)) {
             arrow.teleportAsync(player.getLocation());
         }
     }
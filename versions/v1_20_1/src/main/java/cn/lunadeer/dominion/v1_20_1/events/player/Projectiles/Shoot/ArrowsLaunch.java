@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Projectiles.Shoot;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Arrow;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -10,6 +11,7 @@ import org.bukkit.event.entity.ProjectileLaunchEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("ARROW_LAUNCH")
 public class ArrowsLaunch implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(ProjectileLaunchEvent event) {
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Projectiles.Shoot;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -9,6 +10,7 @@ import org.bukkit.event.entity.EntityShootBowEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("PROJECTILE_CHARGE")
 public class ChargingBow implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityShootBowEvent event) {
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Projectiles.Shoot;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.PaperOnly;
 import io.papermc.paper.event.entity.EntityLoadCrossbowEvent;
 import org.bukkit.entity.Player;
@@ -11,6 +12,7 @@ import org.bukkit.event.Listener;
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
 @PaperOnly
+@GuardedFlags("PROJECTILE_CHARGE")
 public class ChargingCrossBow implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityLoadCrossbowEvent event) {
@@ -1,33 +1,19 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Redstone;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
 import org.bukkit.Material;
-import org.bukkit.block.Block;
-import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
-import org.bukkit.event.player.PlayerInteractEvent;
+import org.jetbrains.annotations.NotNull;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+public class Comparer implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.COMPARER;
+    }
 
-public class Comparer implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
-            return;
-        }
-        Block block = event.getClickedBlock();
-        if (block == null) {
-            return;
-        }
-        Material clicked = event.getClickedBlock().getType();
-        if (clicked != Material.COMPARATOR) {
-            return;
-        }
-        Player player = event.getPlayer();
-        checkPrivilegeFlag(event.getClickedBlock().getLocation(), Flags.COMPARER, player, event);
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return material == Material.COMPARATOR;
     }
 }
@@ -1,29 +1,28 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Redstone;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
 import org.bukkit.Material;
-import org.bukkit.block.Block;
-import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.block.Action;
+import org.jetbrains.annotations.NotNull;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+import java.util.EnumSet;
+import java.util.Set;
 
-public class Repeater implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getClickedBlock() == null) {
-            return;
-        }
-        Block block = event.getClickedBlock();
-        Material clicked = block.getType();
-        if (clicked != Material.REPEATER) {
-            return;
-        }
-        Player player = event.getPlayer();
-        checkPrivilegeFlag(block.getLocation(), Flags.REPEATER, player, event);
+public class Repeater implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.REPEATER;
+    }
+
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return material == Material.REPEATER;
+    }
+
+    @Override
+    public @NotNull Set<Action> actions() {
+        return EnumSet.allOf(Action.class);
     }
 }
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Storage;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -8,6 +9,7 @@ import org.bukkit.event.player.PlayerArmorStandManipulateEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("ARMOR_STAND_INTERACTIVE")
 public class ArmorStandInteractive implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(PlayerArmorStandManipulateEvent event) {
@@ -1,21 +1,19 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Storage;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
 import org.bukkit.Material;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
-import org.bukkit.event.player.PlayerInteractEvent;
+import org.jetbrains.annotations.NotNull;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+public class Barrel implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.BARREL;
+    }
 
-public class Barrel implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) return;
-        if (event.getClickedBlock() == null || event.getClickedBlock().getType() != Material.BARREL) return;
-        checkPrivilegeFlag(event.getClickedBlock().getLocation(), Flags.BARREL, event.getPlayer(), event);
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return material == Material.BARREL;
     }
 }
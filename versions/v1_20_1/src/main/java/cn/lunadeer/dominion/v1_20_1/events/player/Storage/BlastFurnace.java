@@ -1,21 +1,19 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Storage;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
 import org.bukkit.Material;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
-import org.bukkit.event.player.PlayerInteractEvent;
+import org.jetbrains.annotations.NotNull;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+public class BlastFurnace implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.BLAST_FURNACE;
+    }
 
-public class BlastFurnace implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) return;
-        if (event.getClickedBlock() == null || event.getClickedBlock().getType() != Material.BLAST_FURNACE) return;
-        checkPrivilegeFlag(event.getClickedBlock().getLocation(), Flags.BLAST_FURNACE, event.getPlayer(), event);
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return material == Material.BLAST_FURNACE;
     }
 }
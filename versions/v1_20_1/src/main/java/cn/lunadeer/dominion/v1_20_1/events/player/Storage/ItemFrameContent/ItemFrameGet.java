@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Storage.ItemFrameContent;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.Material;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.ItemFrame;
@@ -10,8 +12,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
+@GuardedFlags("ITEM_FRAME_CONTENT")
 public class ItemFrameGet implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityDamageByEntityEvent event) {
@@ -26,6 +27,6 @@ public class ItemFrameGet implements Listener {
         if (!(event.getDamager() instanceof Player bukkitPlayer)) {
             return;
         }
-        checkPrivilegeFlag(itemFrame.getLocation(), Flags.ITEM_FRAME_CONTENT, bukkitPlayer, event);
+        EventContext.of(event).checkPrivilegeFlag(itemFrame.getLocation(), Flags.ITEM_FRAME_CONTENT, bukkitPlayer, event);
     }
 }
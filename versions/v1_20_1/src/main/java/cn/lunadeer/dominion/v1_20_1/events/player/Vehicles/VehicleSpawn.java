@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_20_1.events.player.Vehicles;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Vehicle;
@@ -11,6 +12,7 @@ import org.bukkit.event.entity.EntityPlaceEvent;
 
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
+@GuardedFlags("VEHICLE_SPAWN")
 public class VehicleSpawn implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(EntityPlaceEvent event) {
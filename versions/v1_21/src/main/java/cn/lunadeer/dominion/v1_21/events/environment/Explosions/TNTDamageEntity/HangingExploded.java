@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_21.events.environment.Explosions.TNTDamageEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.LowestVersion;
 import cn.lunadeer.dominion.utils.XVersionManager;
 import org.bukkit.entity.Entity;
@@ -10,9 +12,8 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.hanging.HangingBreakByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
 @LowestVersion(XVersionManager.ImplementationVersion.v1_21)
+@GuardedFlags("TNT_DAMAGE_HANGING_ENTITY")
 public class HangingExploded implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(HangingBreakByEntityEvent event) {
@@ -22,6 +23,6 @@ public class HangingExploded implements Listener {
         if (harmer.getType() != EntityType.TNT_MINECART && harmer.getType() != EntityType.TNT) {
             return;
         }
-        checkEnvironmentFlag(entity.getLocation(), Flags.TNT_DAMAGE_HANGING_ENTITY, event);
+        EventContext.of(event).checkEnvironmentFlag(entity.getLocation(), Flags.TNT_DAMAGE_HANGING_ENTITY, event);
     }
 }
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_21.events.player.Projectiles.WindCharge;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.LowestVersion;
 import cn.lunadeer.dominion.utils.XVersionManager;
 import org.bukkit.entity.Entity;
@@ -15,6 +16,7 @@ import org.bukkit.event.entity.ExplosionPrimeEvent;
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
 @LowestVersion(XVersionManager.ImplementationVersion.v1_21)
+@GuardedFlags("WIND_CHARGE_EXPLODE")
 public class WindChargeExplode implements Listener {
 
     // 2025-08-11: the ExplosionPrimeEvent fired when Wind Charge explodes ONLY be implemented by paper (and forks).
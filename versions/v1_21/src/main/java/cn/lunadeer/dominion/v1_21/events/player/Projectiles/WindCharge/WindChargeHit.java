@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v1_21.events.player.Projectiles.WindCharge;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.LowestVersion;
 import cn.lunadeer.dominion.utils.XVersionManager;
 import org.bukkit.entity.EntityType;
@@ -11,9 +13,8 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.ProjectileHitEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
-
 @LowestVersion(XVersionManager.ImplementationVersion.v1_21)
+@GuardedFlags("WIND_CHARGE_HIT")
 public class WindChargeHit implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(ProjectileHitEvent event) {
@@ -25,7 +26,7 @@ public class WindChargeHit implements Listener {
         if (projectile.getType() != EntityType.WIND_CHARGE) {
             return;
         }
-        if (!checkPrivilegeFlag(projectile.getLocation(), Flags.WIND_CHARGE_HIT, player, event)) {
+        if (!EventContext.of(event).checkPrivilegeFlag(projectile.getLocation(), Flags.WIND_CHARGE_HIT, player, event)) {
             projectile.remove();
         }
     }
@@ -1,6 +1,7 @@
 package cn.lunadeer.dominion.v1_21.events.player.Projectiles.WindCharge;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.LowestVersion;
 import cn.lunadeer.dominion.utils.XVersionManager;
 import org.bukkit.entity.EntityType;
@@ -14,6 +15,7 @@ import org.bukkit.event.entity.ProjectileLaunchEvent;
 import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
 
 @LowestVersion(XVersionManager.ImplementationVersion.v1_21)
+@GuardedFlags("WIND_CHARGE_LAUNCH")
 public class WindChargeLaunch implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handler(ProjectileLaunchEvent event) {
@@ -1,31 +1,22 @@
 package cn.lunadeer.dominion.v1_21.events.player.Workstations;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
 import cn.lunadeer.dominion.events.LowestVersion;
 import cn.lunadeer.dominion.utils.XVersionManager;
 import org.bukkit.Material;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
-import org.bukkit.event.player.PlayerInteractEvent;
-
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+import org.jetbrains.annotations.NotNull;
 
 @LowestVersion(XVersionManager.ImplementationVersion.v1_21)
-public class Crafter implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
-            return;
-        }
-        if (event.getClickedBlock() == null) {
-            return;
-        }
-        if (event.getClickedBlock().getType() != Material.CRAFTER) {
-            return;
-        }
-        checkPrivilegeFlag(event.getClickedBlock().getLocation(), Flags.CRAFTER, event.getPlayer(), event);
+public class Crafter implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.CRAFTER;
+    }
+
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return material == Material.CRAFTER;
     }
 }
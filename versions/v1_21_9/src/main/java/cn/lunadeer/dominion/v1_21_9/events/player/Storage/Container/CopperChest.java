@@ -1,31 +1,23 @@
 package cn.lunadeer.dominion.v1_21_9.events.player.Storage.Container;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
 import cn.lunadeer.dominion.events.LowestVersion;
 import cn.lunadeer.dominion.utils.XVersionManager;
+import org.bukkit.Material;
 import org.bukkit.Tag;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
-import org.bukkit.event.player.PlayerInteractEvent;
-
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+import org.jetbrains.annotations.NotNull;
 
 @LowestVersion(XVersionManager.ImplementationVersion.v1_21_9)
-public class CopperChest implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
-            return;
-        }
-        if (event.getClickedBlock() == null) {
-            return;
-        }
-        if (!Tag.COPPER_CHESTS.isTagged(event.getClickedBlock().getType())) {
-            return;
-        }
-        checkPrivilegeFlag(event.getClickedBlock().getLocation(), Flags.COPPER_CHEST, event.getPlayer(), event);
+public class CopperChest implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.COPPER_CHEST;
+    }
+
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return Tag.COPPER_CHESTS.isTagged(material);
     }
 }
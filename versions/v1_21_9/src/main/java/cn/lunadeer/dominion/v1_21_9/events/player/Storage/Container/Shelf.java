@@ -1,30 +1,22 @@
 package cn.lunadeer.dominion.v1_21_9.events.player.Storage.Container;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.api.dtos.flag.PriFlag;
+import cn.lunadeer.dominion.events.BlockInteractRule;
 import cn.lunadeer.dominion.events.LowestVersion;
 import cn.lunadeer.dominion.utils.XVersionManager;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.block.Action;
-import org.bukkit.event.player.PlayerInteractEvent;
-
-import static cn.lunadeer.dominion.misc.Others.checkPrivilegeFlag;
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
 
 @LowestVersion(XVersionManager.ImplementationVersion.v1_21_9)
-public class Shelf implements Listener {
-    @EventHandler(priority = EventPriority.LOWEST)
-    public void handler(PlayerInteractEvent event) {
-        if (event.isCancelled()) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
-            return;
-        }
-        if (event.getClickedBlock() == null) {
-            return;
-        }
-        if (!event.getClickedBlock().getType().name().contains("SHELF")) {
-            return;
-        }
-        checkPrivilegeFlag(event.getClickedBlock().getLocation(), Flags.SHELF, event.getPlayer(), event);
+public class Shelf implements BlockInteractRule {
+    @Override
+    public @NotNull PriFlag flag() {
+        return Flags.SHELF;
+    }
+
+    @Override
+    public boolean matches(@NotNull Material material) {
+        return material.name().contains("SHELF");
     }
 }
@@ -1,6 +1,8 @@
 package cn.lunadeer.dominion.v26_2.events.environment.Explosions.CreeperDamageEntity;
 
 import cn.lunadeer.dominion.api.dtos.flag.Flags;
+import cn.lunadeer.dominion.events.EventContext;
+import cn.lunadeer.dominion.events.GuardedFlags;
 import cn.lunadeer.dominion.events.LowestVersion;
 import cn.lunadeer.dominion.utils.XVersionManager;
 import org.bukkit.entity.Entity;
@@ -11,9 +13,8 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 
-import static cn.lunadeer.dominion.misc.Others.checkEnvironmentFlag;
-
 @LowestVersion(XVersionManager.ImplementationVersion.v26_2)
+@GuardedFlags("CREEPER_DAMAGE_ARMOR_STAND")
 public class ArmorStandExploded implements Listener {
     @EventHandler(priority = EventPriority.LOWEST)
     public void handle(EntityDamageByEntityEvent event) {
@@ -21,6 +22,6 @@ public class ArmorStandExploded implements Listener {
         Entity entity = event.getEntity();
         if (entity.getType() != EntityType.ARMOR_STAND) return;
         if (!(event.getDamager() instanceof SulfurCube)) return;
-        checkEnvironmentFlag(entity.getLocation(), Flags.CREEPER_DAMAGE_ARMOR_STAND, event);
+        EventContext.of(event).checkEnvironmentFlag(entity.getLocation(), Flags.CREEPER_DAMAGE_ARMOR_STAND, event);
     }
 }